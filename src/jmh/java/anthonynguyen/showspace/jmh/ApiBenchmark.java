@@ -0,0 +1,51 @@
+package anthonynguyen.showspace.jmh;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+
+/**
+ * The /api endpoints end to end through MVC: controller, assembler and JSON
+ * serialization, without the network or security filters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiBenchmark {
+
+	@Benchmark
+	public byte[] eventsPage(SeededApplication app) throws Exception {
+		return fetch(app, "/api/events");
+	}
+
+	@Benchmark
+	public byte[] event(SeededApplication app) throws Exception {
+		return fetch(app, "/api/events/" + SeededApplication.SEEDED_ID);
+	}
+
+	@Benchmark
+	public byte[] venuesPage(SeededApplication app) throws Exception {
+		return fetch(app, "/api/venues");
+	}
+
+	@Benchmark
+	public byte[] venuesGeo(SeededApplication app) throws Exception {
+		return fetch(app, "/api/venues/geo");
+	}
+
+	private static byte[] fetch(SeededApplication app, String url) throws Exception {
+		return app.mockMvc().perform(get(url).accept(MediaType.APPLICATION_JSON)).andReturn().getResponse()
+				.getContentAsByteArray();
+	}
+}
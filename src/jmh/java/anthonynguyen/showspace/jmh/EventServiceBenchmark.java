@@ -0,0 +1,83 @@
+package anthonynguyen.showspace.jmh;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.EventSummary;
+import anthonynguyen.showspace.dao.EventTimeline;
+import anthonynguyen.showspace.entities.Event;
+
+/**
+ * Event listing, search and upcoming/past partitioning.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventServiceBenchmark {
+
+	@Benchmark
+	public List<Event> findAll(SeededApplication app) {
+		return app.bean(EventService.class).findAll();
+	}
+
+	@Benchmark
+	public List<EventSummary> firstPage(SeededApplication app) {
+		return app.bean(EventService.class).findPage(null, 20);
+	}
+
+	@Benchmark
+	public EventTimeline timeline(SeededApplication app) {
+		return app.bean(EventService.class).findTimeline(null, LocalDate.now());
+	}
+
+	// Long enough for the search index.
+	@Benchmark
+	public EventTimeline timelineSearch(SeededApplication app) {
+		return app.bean(EventService.class).findTimeline("benchmark event " + SeededApplication.SEEDED_ID,
+				LocalDate.now());
+	}
+
+	// Too short for the index, so a name scan.
+	@Benchmark
+	public EventTimeline timelineShortSearch(SeededApplication app) {
+		return app.bean(EventService.class).findTimeline("42", LocalDate.now());
+	}
+
+	// What EventsController.getAllEvents did before the timeline: three
+	// queries, then a retainAll of each partition against the full list.
+	@Benchmark
+	public List<Event> threeQueryListing(SeededApplication app) {
+		EventService events = app.bean(EventService.class);
+		LocalDate today = LocalDate.now();
+		List<Event> all = events.findAll();
+		List<Event> upcoming = events.findUpcomingEvents(today);
+		List<Event> past = events.findPastEvents(today);
+
+		upcoming.retainAll(all);
+		past.retainAll(all);
+		upcoming.addAll(past);
+		return upcoming;
+	}
+
+	@Benchmark
+	public List<Event> upcoming(SeededApplication app) {
+		return app.bean(EventService.class).findUpcomingEvents(LocalDate.now());
+	}
+
+	@Benchmark
+	public List<Event> past(SeededApplication app) {
+		return app.bean(EventService.class).findPastEvents(LocalDate.now());
+	}
+}
@@ -0,0 +1,37 @@
+package anthonynguyen.showspace.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import anthonynguyen.showspace.dao.EventListItem;
+import anthonynguyen.showspace.dao.HomeService;
+import anthonynguyen.showspace.dao.VenueEventCount;
+
+/**
+ * What the home page asks for.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HomeServiceBenchmark {
+
+	@Benchmark
+	public List<EventListItem> featuredUpcoming(SeededApplication app) {
+		return app.bean(HomeService.class).getFeaturedUpcomingEvents();
+	}
+
+	@Benchmark
+	public List<VenueEventCount> topVenues(SeededApplication app) {
+		return app.bean(HomeService.class).getTopVenuesByEventCount(5);
+	}
+}
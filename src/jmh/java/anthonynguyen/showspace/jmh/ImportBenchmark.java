@@ -0,0 +1,144 @@
+package anthonynguyen.showspace.jmh;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import anthonynguyen.showspace.dao.ImportService;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+
+/**
+ * Rows per second importing events, as a CSV body posted to
+ * /api/import/events and as entities handed straight to ImportService in the
+ * endpoint's batch size, so the difference is what parsing and validating the
+ * rows costs. The target is 100,000 rows a minute, about 1,700 a second. Every
+ * row goes to one of the seeded venues and is kept, so the table grows over
+ * the run the way it would over a day of imports.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ImportBenchmark {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@State(Scope.Benchmark)
+	public static class Rows {
+
+		@Param({ "10000", "100000" })
+		public int rows;
+
+		private byte[] csv;
+
+		@Setup(Level.Trial)
+		public void write(SeededApplication app) {
+			StringBuilder body = new StringBuilder("name,description,date,time,venueId\n");
+			for (int i = 0; i < rows; i++) {
+				body.append("Imported Event ").append(i).append(",Row ").append(i).append(" of the import,")
+						.append(date(i)).append(',').append(time(i)).append(',').append(venueId(app, i))
+						.append('\n');
+			}
+			csv = body.toString().getBytes(StandardCharsets.UTF_8);
+		}
+
+		private List<List<Event>> events(SeededApplication app) {
+			List<List<Event>> batches = new ArrayList<>();
+			for (int first = 0; first < rows; first += BATCH_SIZE) {
+				List<Event> batch = new ArrayList<>(BATCH_SIZE);
+				for (int i = first; i < Math.min(first + BATCH_SIZE, rows); i++) {
+					Venue venue = new Venue();
+					venue.setId(venueId(app, i));
+					Event event = new Event();
+					event.setName("Imported Event " + i);
+					event.setDescription("Row " + i + " of the import");
+					event.setDate(date(i));
+					event.setTime(time(i));
+					event.setVenue(venue);
+					batch.add(event);
+				}
+				batches.add(batch);
+			}
+			return batches;
+		}
+
+		private static LocalDate date(int row) {
+			return LocalDate.now().plusDays(1 + row % 365);
+		}
+
+		private static LocalTime time(int row) {
+			return LocalTime.of(18 + row % 4, 0);
+		}
+
+		private static long venueId(SeededApplication app, int row) {
+			return SeededApplication.SEEDED_ID + row % app.seededVenues();
+		}
+	}
+
+	// Reported alongside the score as rows per second.
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Imported {
+
+		public long rows;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			rows = 0;
+		}
+	}
+
+	@Benchmark
+	public long csv(SeededApplication app, Rows rows, Imported imported) throws Exception {
+		MockHttpServletResponse response = app.mockMvc()
+				.perform(post("/api/import/events").contentType("text/csv").content(rows.csv)).andReturn()
+				.getResponse();
+		if (response.getStatus() != 200) {
+			throw new IllegalStateException("Import failed with HTTP " + response.getStatus());
+		}
+		JsonNode report = app.bean(ObjectMapper.class).readTree(response.getContentAsByteArray());
+		if (report.path("rejected").asLong() != 0) {
+			throw new IllegalStateException("Import rejected rows: " + report.path("errors"));
+		}
+		imported.rows += report.path("imported").asLong();
+		return imported.rows;
+	}
+
+	// Building the entities is part of each invocation, as parsing is above.
+	@Benchmark
+	public long importService(SeededApplication app, Rows rows, Imported imported) {
+		ImportService importService = app.bean(ImportService.class);
+		for (List<Event> batch : rows.events(app)) {
+			if (!importService.importEvents(batch).isEmpty()) {
+				throw new IllegalStateException("Seeded venues missing from the import");
+			}
+			imported.rows += batch.size();
+		}
+		return imported.rows;
+	}
+}
@@ -0,0 +1,121 @@
+package anthonynguyen.showspace.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Rows per second persisting venues and their events through JPA, by id
+ * allocation size and JDBC batch size. An allocation size of 1 and a batch
+ * size of 0 is how every insert went before either was configurable. Runs
+ * against an H2 file, where the round trips cost something.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+	private static final int VENUES = 20;
+	private static final int EVENTS_PER_VENUE = 50;
+	private static final int ROWS = VENUES * (EVENTS_PER_VENUE + 1);
+
+	@State(Scope.Benchmark)
+	public static class FileApplication {
+
+		private static final Path DB_DIR = Paths.get("target", "jmh-db");
+
+		@Param({ "1", "50", "500" })
+		public int allocationSize;
+
+		@Param({ "0", "50" })
+		public int batchSize;
+
+		private ConfigurableApplicationContext context;
+		private EntityManager entityManager;
+		private TransactionTemplate transactions;
+		private final AtomicInteger venues = new AtomicInteger();
+
+		@Setup(Level.Trial)
+		public void start() throws IOException {
+			String name = "inserts-" + allocationSize + "-" + batchSize;
+			Files.createDirectories(DB_DIR);
+			Files.deleteIfExists(DB_DIR.resolve(name + ".mv.db"));
+
+			context = new SpringApplicationBuilder(ShowSpaceApplication.class).profiles("test")
+					.properties("showspace.test.show-sql=false", "logging.level.root=WARN",
+							"showspace.test.db-path=file:" + DB_DIR.toAbsolutePath().resolve(name),
+							"showspace.id.allocation-size=" + allocationSize, "showspace.jdbc.batch-size=" + batchSize)
+					.run();
+			entityManager = SharedEntityManagerCreator
+					.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+			transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+	}
+
+	// One transaction of venues, each with its events.
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void persist(FileApplication app) {
+		int first = app.venues.getAndAdd(VENUES);
+		app.transactions.executeWithoutResult(status -> {
+			for (int v = first; v < first + VENUES; v++) {
+				Venue venue = new Venue();
+				venue.setName("Inserted Venue " + v);
+				venue.setCapacity(100 + v % 900);
+				venue.setRoadName(v + " Benchmark Road");
+				venue.setPostcode("M1 1AA");
+				app.entityManager.persist(venue);
+
+				for (int e = 0; e < EVENTS_PER_VENUE; e++) {
+					Event event = new Event();
+					event.setName("Inserted Event " + v + "-" + e);
+					event.setDescription("Event " + e + " at venue " + v);
+					event.setDate(LocalDate.now().plusDays(1 + e));
+					event.setTime(LocalTime.of(18 + e % 4, 0));
+					event.setVenue(venue);
+					app.entityManager.persist(event);
+				}
+			}
+			app.entityManager.flush();
+			app.entityManager.clear();
+		});
+	}
+}
@@ -0,0 +1,78 @@
+package anthonynguyen.showspace.jmh;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+
+import anthonynguyen.showspace.controllers.FragmentCache;
+
+/**
+ * The home, events and venues pages rendered through MVC and Thymeleaf, with
+ * their tables and cards from a warm fragment cache and with the cache
+ * emptied before every request. The difference is what the cache saves on
+ * each page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageBenchmark {
+
+	@State(Scope.Thread)
+	public static class EmptyFragmentCache {
+
+		@Setup(Level.Invocation)
+		public void invalidate(SeededApplication app) {
+			app.bean(FragmentCache.class).invalidateAll();
+		}
+	}
+
+	@Benchmark
+	public byte[] homeCached(SeededApplication app) throws Exception {
+		return render(app, "/");
+	}
+
+	@Benchmark
+	public byte[] homeUncached(SeededApplication app, EmptyFragmentCache empty) throws Exception {
+		return render(app, "/");
+	}
+
+	@Benchmark
+	public byte[] eventsCached(SeededApplication app) throws Exception {
+		return render(app, "/events");
+	}
+
+	@Benchmark
+	public byte[] eventsUncached(SeededApplication app, EmptyFragmentCache empty) throws Exception {
+		return render(app, "/events");
+	}
+
+	@Benchmark
+	public byte[] venuesCached(SeededApplication app) throws Exception {
+		return render(app, "/venues");
+	}
+
+	@Benchmark
+	public byte[] venuesUncached(SeededApplication app, EmptyFragmentCache empty) throws Exception {
+		return render(app, "/venues");
+	}
+
+	private static byte[] render(SeededApplication app, String url) throws Exception {
+		return app.mockMvc().perform(get(url).accept(MediaType.TEXT_HTML)).andReturn().getResponse()
+				.getContentAsByteArray();
+	}
+}
@@ -0,0 +1,54 @@
+package anthonynguyen.showspace.jmh;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.VenueService;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+
+/**
+ * Saving new events and venues, including the search index, ranking and
+ * geocoding updates that follow. The tables grow as this runs, so keep the
+ * iterations short.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveBenchmark {
+
+	private static final AtomicLong counter = new AtomicLong();
+
+	@Benchmark
+	public Event saveEvent(SeededApplication app) {
+		Event event = new Event();
+		event.setName("Saved Event " + counter.incrementAndGet());
+		event.setDescription("Saved by the save benchmark");
+		event.setDate(LocalDate.now().plusDays(30));
+		event.setVenue(app.bean(VenueService.class).findById(SeededApplication.SEEDED_ID));
+		return app.bean(EventService.class).save(event);
+	}
+
+	@Benchmark
+	public Venue saveVenue(SeededApplication app) {
+		Venue venue = new Venue();
+		venue.setName("Saved Venue " + counter.incrementAndGet());
+		venue.setRoadName("1 Benchmark Road");
+		venue.setPostcode("M1 1AA");
+		venue.setCapacity(100);
+		app.bean(VenueService.class).save(venue);
+		return venue;
+	}
+}
@@ -0,0 +1,59 @@
+package anthonynguyen.showspace.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import anthonynguyen.showspace.dao.EventRepository;
+import anthonynguyen.showspace.dao.SiteSearch;
+import anthonynguyen.showspace.entities.Event;
+
+/**
+ * The LIKE '%term%' name scan that search used to be, against exact, prefix
+ * and misspelt queries on the search index. Seeded events are named
+ * "Benchmark Event <id>".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	private static final String ID = String.valueOf(SeededApplication.SEEDED_ID);
+
+	@Benchmark
+	public List<Event> likeScan(SeededApplication app) {
+		return app.bean(EventRepository.class).findByNameContainingIgnoreCase("Event " + ID);
+	}
+
+	@Benchmark
+	public List<Long> indexExact(SeededApplication app) {
+		return app.bean(SiteSearch.class).searchEvents("event " + ID);
+	}
+
+	@Benchmark
+	public List<Long> indexPrefix(SeededApplication app) {
+		return app.bean(SiteSearch.class).searchEvents(ID.substring(0, ID.length() - 1));
+	}
+
+	@Benchmark
+	public List<Long> indexFuzzy(SeededApplication app) {
+		return app.bean(SiteSearch.class).searchEvents("benchmrak " + ID);
+	}
+
+	// Seeded rows bypass the services, so this is how they get indexed.
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void rebuild(SeededApplication app) {
+		app.bean(SiteSearch.class).rebuild();
+	}
+}
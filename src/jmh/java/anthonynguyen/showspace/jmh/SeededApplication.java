@@ -0,0 +1,91 @@
+package anthonynguyen.showspace.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.controllers.FragmentCache;
+import anthonynguyen.showspace.dao.SiteSearch;
+import anthonynguyen.showspace.dao.VenueRanking;
+import anthonynguyen.showspace.dao.VenueSummaryCache;
+import anthonynguyen.showspace.testutil.BenchmarkData;
+
+/**
+ * The application under the test profile, with the TestDataLoader rows plus
+ * a seeded data set of the given number of events, and of venues (by default
+ * a twentieth as many as events). One instance per benchmark run, shared by
+ * its threads.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+	/** A seeded event and venue every benchmark can rely on. */
+	public static final long SEEDED_ID = BenchmarkData.FIRST_ID;
+
+	@Param({ "1000", "10000" })
+	public int events;
+
+	// 0 for a twentieth of the events.
+	@Param({ "0" })
+	public int venues;
+
+	private ConfigurableApplicationContext context;
+	private MockMvc mockMvc;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = new SpringApplicationBuilder(ShowSpaceApplication.class).profiles("test")
+				.properties("server.port=0", "showspace.test.show-sql=false", "logging.level.root=WARN")
+				.properties(properties()).run();
+
+		BenchmarkData data = new BenchmarkData(bean(NamedParameterJdbcTemplate.class).getJdbcTemplate(), 42);
+		data.addVenues(seededVenues());
+		data.addEvents(events);
+
+		// All were built from the TestDataLoader rows only.
+		bean(SiteSearch.class).rebuild();
+		bean(VenueRanking.class).rebuild();
+		bean(VenueSummaryCache.class).evict();
+		bean(FragmentCache.class).invalidateAll();
+
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	/** Anything a subclass needs set on top of the test profile. */
+	protected String[] properties() {
+		return new String[0];
+	}
+
+	/** Seeded venues have ids SEEDED_ID up to SEEDED_ID + seededVenues() - 1. */
+	public int seededVenues() {
+		return venues > 0 ? venues : Math.max(1, events / 20);
+	}
+
+	public <T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	public MockMvc mockMvc() {
+		return mockMvc;
+	}
+
+	/** For benchmarks that go through Tomcat rather than MockMvc. */
+	public int port() {
+		return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+	}
+}
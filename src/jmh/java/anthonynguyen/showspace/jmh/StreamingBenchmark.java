@@ -0,0 +1,95 @@
+package anthonynguyen.showspace.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import anthonynguyen.showspace.controllers.FragmentCache;
+
+/**
+ * /events over HTTP with its tables rendered up front and streamed, as the
+ * number of events grows: the time to the first byte of the page, and to the
+ * end of it. The fragment cache is emptied before every request so both
+ * modes read every row. Run with -prof gc for what each request allocates:
+ * -Djmh.args="StreamingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamingBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class EventsPage extends SeededApplication {
+
+		@Param({ "false", "true" })
+		public boolean streaming;
+
+		private HttpClient client;
+		private HttpRequest request;
+
+		@Override
+		protected String[] properties() {
+			return new String[] { "showspace.events.streaming=" + streaming };
+		}
+
+		@Setup(Level.Invocation)
+		public void emptyFragmentCache() {
+			if (client == null) {
+				client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+				request = HttpRequest.newBuilder(URI.create("http://localhost:" + port() + "/events"))
+						.header("Accept", "text/html").timeout(Duration.ofMinutes(2)).GET().build();
+			}
+			bean(FragmentCache.class).invalidateAll();
+		}
+
+		InputStream open() throws IOException, InterruptedException {
+			HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+			if (response.statusCode() != 200) {
+				response.body().close();
+				throw new IllegalStateException("/events failed with HTTP " + response.statusCode());
+			}
+			return response.body();
+		}
+	}
+
+	// Closing the body part way through drops the connection.
+	@Benchmark
+	public int firstByte(EventsPage page) throws Exception {
+		try (InputStream body = page.open()) {
+			return body.read();
+		}
+	}
+
+	@Benchmark
+	public long wholePage(EventsPage page) throws Exception {
+		long bytes = 0;
+		try (InputStream body = page.open()) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = body.read(buffer)) != -1) {
+				bytes += read;
+			}
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,71 @@
+package anthonynguyen.showspace.jmh;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import anthonynguyen.showspace.dao.VenueLocation;
+import anthonynguyen.showspace.dao.VenueRepository;
+import anthonynguyen.showspace.dao.VenueService;
+import anthonynguyen.showspace.dao.VenueSummary;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+
+/**
+ * Venue listing, search and the events map.
+ *
+ * findAll against findSummaries is the event form's venue picker before and
+ * after it moved to cached projections. For the memory side, at 10k venues:
+ * -Djmh.args="VenueServiceBenchmark.find -p venues=10000 -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VenueServiceBenchmark {
+
+	@Benchmark
+	public List<Venue> findAll(SeededApplication app) {
+		return app.bean(VenueService.class).findAll();
+	}
+
+	@Benchmark
+	public List<VenueSummary> findSummaries(SeededApplication app) {
+		return app.bean(VenueService.class).findSummaries();
+	}
+
+	// The projection query the cache is filled from.
+	@Benchmark
+	public List<VenueSummary> findSummariesUncached(SeededApplication app) {
+		return app.bean(VenueRepository.class).findSummaries();
+	}
+
+	@Benchmark
+	public List<Venue> firstPage(SeededApplication app) {
+		return app.bean(VenueService.class).findPage(null, 20);
+	}
+
+	@Benchmark
+	public List<Venue> search(SeededApplication app) {
+		return app.bean(VenueService.class).search("benchmark road");
+	}
+
+	@Benchmark
+	public List<Event> nextThreeEvents(SeededApplication app) {
+		return app.bean(VenueService.class).findNextThreeEventsForVenue(SeededApplication.SEEDED_ID);
+	}
+
+	@Benchmark
+	public List<VenueLocation> upcomingLocations(SeededApplication app) {
+		return app.bean(VenueService.class).findUpcomingLocations(LocalDate.now(), null);
+	}
+}
@@ -0,0 +1,141 @@
+package anthonynguyen.showspace.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sun.net.httpserver.HttpServer;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.dao.MastodonService;
+
+/**
+ * Requests that block on Mastodon, with Tomcat's platform thread pool and
+ * with virtual threads. The stub Mastodon instance takes STUB_DELAY_MS to
+ * answer, and there are more client threads than Tomcat threads, so the
+ * platform pool tops out near threads / delay while virtual threads should
+ * keep up with the clients. virtualThreads=true needs Java 21; on Java 17 run
+ * it with -p virtualThreads=false.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(VirtualThreadBenchmark.CLIENTS)
+public class VirtualThreadBenchmark {
+
+	static final int CLIENTS = 400;
+
+	private static final int STUB_DELAY_MS = 100;
+	private static final int TOMCAT_THREADS = 50;
+
+	/** The only request path left that calls Mastodon inline. */
+	@RestController
+	@Profile("threads-benchmark")
+	static class SlowMastodonEndpoint {
+
+		@Autowired
+		private MastodonService mastodonService;
+
+		@GetMapping("/benchmark/post")
+		long post() {
+			return mastodonService.createPost("benchmark");
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class SlowMastodonApplication {
+
+		@Param({ "false", "true" })
+		public boolean virtualThreads;
+
+		private HttpServer stub;
+		private ExecutorService stubThreads;
+		private ConfigurableApplicationContext context;
+		private HttpClient client;
+		private HttpRequest request;
+
+		@Setup(Level.Trial)
+		public void start() throws IOException {
+			stub = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+			stubThreads = Executors.newCachedThreadPool();
+			stub.setExecutor(stubThreads);
+			stub.createContext("/api/v1/statuses", exchange -> {
+				try {
+					Thread.sleep(STUB_DELAY_MS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			});
+			stub.start();
+
+			context = new SpringApplicationBuilder(ShowSpaceApplication.class).profiles("test", "threads-benchmark")
+					.properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads,
+							"server.tomcat.threads.max=" + TOMCAT_THREADS, "server.tomcat.accept-count=" + CLIENTS,
+							"mastodon.instance.base-url=http://localhost:" + stub.getAddress().getPort(),
+							"mastodon.http.read-timeout-ms=30000", "showspace.test.show-sql=false",
+							"logging.level.root=WARN")
+					.run();
+
+			client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(5)).build();
+			request = HttpRequest.newBuilder(URI.create("http://localhost:"
+					+ context.getEnvironment().getProperty("local.server.port") + "/benchmark/post"))
+					.timeout(Duration.ofSeconds(60)).GET().build();
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+			stub.stop(0);
+			stubThreads.shutdownNow();
+		}
+	}
+
+	// Each client sends its next request as soon as the last returns.
+	@Benchmark
+	public int post(SlowMastodonApplication app) throws Exception {
+		int status = app.client.send(app.request, HttpResponse.BodyHandlers.discarding()).statusCode();
+		if (status != 200) {
+			throw new IllegalStateException("Request failed with HTTP " + status);
+		}
+		return status;
+	}
+}
@@ -2,10 +2,10 @@
 package anthonynguyen.showspace.assemblers;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Component;
 
 import anthonynguyen.showspace.controllers.EventsControllerApi;
@@ -15,11 +15,15 @@ import anthonynguyen.showspace.entities.Event;
 @Component
 public class EventModelAssembler implements RepresentationModelAssembler<Event, EntityModel<Event>> {
 
+	// Links are built from the controller's base path rather than methodOn
+	// proxies, which are costly to create once per row on a full page.
 	@Override
 	public EntityModel<Event> toModel(Event event) {
-		return EntityModel.of(event, linkTo(methodOn(EventsControllerApi.class).getEvent(event.getId())).withSelfRel(),
-				linkTo(methodOn(EventsControllerApi.class).getAllEvents()).withRel("events"),
-				linkTo(methodOn(EventsControllerApi.class).getEvent(event.getId())).withRel("event"),
-				linkTo(EventsControllerApi.class).slash(event.getId()).slash("venue").withRel("venue"));
+		WebMvcLinkBuilder events = linkTo(EventsControllerApi.class);
+		WebMvcLinkBuilder self = events.slash(event.getId());
+		return EntityModel.of(event, self.withSelfRel(),
+				events.withRel("events"),
+				self.withRel("event"),
+				self.slash("venue").withRel("venue"));
 	}
 }
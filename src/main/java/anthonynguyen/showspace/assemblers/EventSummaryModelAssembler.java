@@ -0,0 +1,28 @@
+package anthonynguyen.showspace.assemblers;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.stereotype.Component;
+
+import anthonynguyen.showspace.controllers.EventsControllerApi;
+import anthonynguyen.showspace.dao.EventSummary;
+
+/**
+ * Event pages in the API, with the same links as a single event.
+ */
+@Component
+public class EventSummaryModelAssembler implements RepresentationModelAssembler<EventSummary, EntityModel<EventSummary>> {
+
+	@Override
+	public EntityModel<EventSummary> toModel(EventSummary event) {
+		WebMvcLinkBuilder events = linkTo(EventsControllerApi.class);
+		WebMvcLinkBuilder self = events.slash(event.getId());
+		return EntityModel.of(event, self.withSelfRel(),
+				events.withRel("events"),
+				self.withRel("event"),
+				self.slash("venue").withRel("venue"));
+	}
+}
@@ -0,0 +1,23 @@
+package anthonynguyen.showspace.config;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Takes an id from the named sequence, a block at a time, with the allocation
+ * size and optimizer from HibernateSettings. See ConfigurableSequenceGenerator.
+ */
+@IdGeneratorType(ConfigurableSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface ConfigurableSequence {
+
+	/** The sequence's name in the database. */
+	String name();
+}
@@ -0,0 +1,60 @@
+package anthonynguyen.showspace.config;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * The generator behind {@link ConfigurableSequence}: a sequence generator
+ * whose allocation size and optimizer come from HibernateSettings rather than
+ * being fixed in each entity's mapping.
+ *
+ * Each trip to the sequence reserves a block of ids that the optimizer then
+ * hands out from memory, so a bulk insert only reads the sequence once per
+ * block. The increment of a sequence that already exists has to match:
+ * Hibernate checks it at startup and refuses to start if it doesn't.
+ */
+public class ConfigurableSequenceGenerator extends SequenceStyleGenerator {
+
+	// Hibernate properties, set in HibernateSettings.
+	public static final String ALLOCATION_SIZE = "showspace.id.allocation_size";
+	public static final String OPTIMIZER = "showspace.id.optimizer";
+
+	// What @GeneratedValue gave before these were configurable.
+	public static final int DEFAULT_ALLOCATION_SIZE = 50;
+	public static final String DEFAULT_OPTIMIZER = "pooled";
+
+	private final String sequenceName;
+
+	public ConfigurableSequenceGenerator(ConfigurableSequence config, Member member,
+			CustomIdGeneratorCreationContext context) {
+		this.sequenceName = config.name();
+	}
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+		Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+
+		int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE, settings, DEFAULT_ALLOCATION_SIZE);
+		if (allocationSize < 1) {
+			throw new MappingException(ALLOCATION_SIZE + " must be at least 1, was " + allocationSize);
+		}
+		parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+		parameters.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+		// An allocation size of 1 goes to the sequence every time, whatever
+		// the optimizer.
+		if (allocationSize > 1) {
+			parameters.setProperty(OPT_PARAM, ConfigurationHelper.getString(OPTIMIZER, settings, DEFAULT_OPTIMIZER));
+		}
+
+		super.configure(type, parameters, serviceRegistry);
+	}
+}
@@ -2,11 +2,19 @@ package anthonynguyen.showspace.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
+/**
+ * The embedded server: port from SHOWSPACE_PORT, and whether requests are
+ * handled on platform or virtual threads. spring.threads.virtual.enabled
+ * switches Tomcat, @Async handlers and scheduled jobs to virtual threads on
+ * Java 21 and later; PinnedThreadMonitor watches for carriers pinned by the
+ * JDBC driver while they are on.
+ */
 @Configuration
 @Profile("default")
 public class Container implements WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> {
@@ -14,6 +22,10 @@ public class Container implements WebServerFactoryCustomizer<ConfigurableServlet
 	private final static Logger log = LoggerFactory.getLogger(Container.class);
 	private final static String PORT_ENV = "SHOWSPACE_PORT";
 	private final static int DEFAULT_PORT = 8080;
+	private final static int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreads;
 
 	@Override
 	public void customize(ConfigurableServletWebServerFactory factory) {
@@ -27,5 +39,16 @@ public class Container implements WebServerFactoryCustomizer<ConfigurableServlet
 		}
 
 		factory.setPort(port);
+
+		int javaVersion = Runtime.version().feature();
+		if (!virtualThreads) {
+			log.info("Handling requests on platform threads");
+		} else if (javaVersion < VIRTUAL_THREADS_JAVA_VERSION) {
+			// Spring Boot ignores the setting before Java 21.
+			log.warn("Virtual threads need Java " + VIRTUAL_THREADS_JAVA_VERSION + ", running on " + javaVersion
+					+ ". Handling requests on platform threads");
+		} else {
+			log.info("Handling requests and @Async work on virtual threads");
+		}
 	}
 }
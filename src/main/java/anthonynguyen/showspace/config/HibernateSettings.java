@@ -0,0 +1,56 @@
+package anthonynguyen.showspace.config;
+
+import java.util.Properties;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Hibernate properties shared by Persistence and TestPersistence. Both build
+ * their own EntityManagerFactory, so Spring Boot's spring.jpa.* settings
+ * don't reach Hibernate.
+ */
+public final class HibernateSettings {
+
+	private HibernateSettings() {
+	}
+
+	public static Properties create(Environment env) {
+		Properties properties = new Properties();
+
+		// Second-level cache for the entities and collections marked @Cache, and
+		// for queries with the cacheable hint. Caffeine behind JCache, with the
+		// size and expiry of each region in hibernate-cache.conf.
+		boolean cache = env.getProperty("showspace.cache.enabled", Boolean.class, true);
+		properties.setProperty("hibernate.cache.use_second_level_cache", String.valueOf(cache));
+		properties.setProperty("hibernate.cache.use_query_cache", String.valueOf(cache));
+		if (cache) {
+			properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+			properties.setProperty("hibernate.javax.cache.provider",
+					"com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+			properties.setProperty("hibernate.javax.cache.uri",
+					env.getProperty("showspace.cache.config", "classpath:hibernate-cache.conf"));
+			properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "create");
+			// Saving an event changes its venue's event list, which is only
+			// mapped on the event side.
+			properties.setProperty("hibernate.cache.auto_evict_collection_cache", "true");
+		}
+
+		// Ids for events and venues come from sequences a block at a time (see
+		// ConfigurableSequenceGenerator), so inserts can go out in JDBC
+		// batches, grouped by table so one entity type doesn't break up
+		// another's batch.
+		properties.setProperty(ConfigurableSequenceGenerator.ALLOCATION_SIZE, env.getProperty(
+				"showspace.id.allocation-size", String.valueOf(ConfigurableSequenceGenerator.DEFAULT_ALLOCATION_SIZE)));
+		properties.setProperty(ConfigurableSequenceGenerator.OPTIMIZER,
+				env.getProperty("showspace.id.optimizer", ConfigurableSequenceGenerator.DEFAULT_OPTIMIZER));
+		properties.setProperty("hibernate.jdbc.batch_size", env.getProperty("showspace.jdbc.batch-size", "50"));
+		properties.setProperty("hibernate.order_inserts", "true");
+		properties.setProperty("hibernate.order_updates", "true");
+
+		// Feeds the hibernate.* meters, including cache hits and misses.
+		properties.setProperty("hibernate.generate_statistics",
+				env.getProperty("showspace.hibernate.statistics", "true"));
+
+		return properties;
+	}
+}
@@ -2,7 +2,13 @@ package anthonynguyen.showspace.config;
 
 import com.google.gson.Gson;
 import com.sys1yagi.mastodon4j.MastodonClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,12 +27,36 @@ public class MastodonConfig {
     @Value("${mastodon.access.token}")
     private String accessToken;
 
+    // Optional, e.g. http://localhost:8089 to point the client at a stub server.
+    @Value("${mastodon.instance.base-url:}")
+    private String baseUrl;
+
+    @Value("${mastodon.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${mastodon.http.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
 
     @Bean
-    public MastodonClient mastodonClient() {
-        OkHttpClient.Builder okHttpClientBuilder = new OkHttpClient.Builder();
+    public MastodonClient mastodonClient(MeterRegistry meterRegistry) {
+        OkHttpClient.Builder okHttpClientBuilder = new OkHttpClient.Builder()
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .eventListener(Metrics.httpClientListener(meterRegistry, "mastodon", Metrics::pathTemplate));
         Gson gson = new Gson();
 
+        // mastodon4j always builds https://<instance> URLs, so redirect them here.
+        if (!baseUrl.isEmpty()) {
+            HttpUrl base = HttpUrl.parse(baseUrl);
+            okHttpClientBuilder.addInterceptor(chain -> {
+                Request request = chain.request();
+                HttpUrl url = request.url().newBuilder().scheme(base.scheme()).host(base.host()).port(base.port())
+                        .build();
+                return chain.proceed(request.newBuilder().url(url).build());
+            });
+        }
+
         return new MastodonClient.Builder(instanceUrl, okHttpClientBuilder, gson)
                 .accessToken(accessToken)
                 .build();
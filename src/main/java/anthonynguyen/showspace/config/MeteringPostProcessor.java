@@ -0,0 +1,131 @@
+package anthonynguyen.showspace.config;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call into the dao services (EventService, VenueService and so
+ * on) and the Spring Data repositories, and records how many rows each call
+ * returned:
+ *
+ * showspace.method{layer, type, method, outcome, exception} - latency
+ * showspace.method.rows{layer, type, method} - size of returned collections
+ *
+ * Beans that are already proxied, e.g. for transactions, get the timing added
+ * in front of their other advice so it includes the commit; anything else is
+ * wrapped in a class proxy so @Scheduled methods keep working.
+ */
+public class MeteringPostProcessor implements BeanPostProcessor {
+
+	private static final String DAO_PACKAGE = "anthonynguyen.showspace.dao";
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public MeteringPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		Class<?> metered = meteredInterface(bean);
+		if (metered == null) {
+			return bean;
+		}
+
+		String layer = Repository.class.isAssignableFrom(metered) ? "repository" : "service";
+		Metering metering = new Metering(layer, metered.getSimpleName());
+		if (bean instanceof Advised advised && !advised.isFrozen()) {
+			advised.addAdvice(0, metering);
+			return bean;
+		}
+
+		ProxyFactory factory = new ProxyFactory(bean);
+		factory.setProxyTargetClass(true);
+		factory.addAdvice(metering);
+		return factory.getProxy(bean.getClass().getClassLoader());
+	}
+
+	private static Class<?> meteredInterface(Object bean) {
+		for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+			if (DAO_PACKAGE.equals(type.getPackageName())
+					&& (Repository.class.isAssignableFrom(type) || type.getSimpleName().endsWith("Service"))) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	private final class Metering implements MethodInterceptor {
+
+		private final String layer;
+		private final String type;
+
+		private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+		private final Map<Method, DistributionSummary> rows = new ConcurrentHashMap<>();
+
+		Metering(String layer, String type) {
+			this.layer = layer;
+			this.type = type;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Method method = invocation.getMethod();
+			if (method.getDeclaringClass() == Object.class) {
+				return invocation.proceed();
+			}
+
+			MeterRegistry registry = meterRegistry.getObject();
+			long start = System.nanoTime();
+			Object result;
+			try {
+				result = invocation.proceed();
+			} catch (Throwable e) {
+				timer(registry, method, "error", e.getClass().getSimpleName()).record(System.nanoTime() - start,
+						TimeUnit.NANOSECONDS);
+				throw e;
+			}
+			timers.computeIfAbsent(method, m -> timer(registry, m, "success", "none"))
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+			int count = rowCount(result);
+			if (count >= 0) {
+				rows.computeIfAbsent(method,
+						m -> DistributionSummary.builder("showspace.method.rows").baseUnit("rows").tag("layer", layer)
+								.tag("type", type).tag("method", m.getName()).register(registry))
+						.record(count);
+			}
+			return result;
+		}
+
+		private Timer timer(MeterRegistry registry, Method method, String outcome, String exception) {
+			return Timer.builder("showspace.method").tag("layer", layer).tag("type", type)
+					.tag("method", method.getName()).tag("outcome", outcome).tag("exception", exception)
+					.register(registry);
+		}
+	}
+
+	// Rows in what a method returned, or -1 if it isn't a collection of rows.
+	private static int rowCount(Object result) {
+		if (result instanceof Collection<?> collection) {
+			return collection.size();
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,46 @@
+package anthonynguyen.showspace.config;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import okhttp3.Request;
+
+/**
+ * Application metrics, scraped from /actuator/prometheus by an administrator
+ * over HTTP basic: service and
+ * repository calls (see MeteringPostProcessor), plus outbound HTTP calls to
+ * Mapbox and Mastodon as showspace.http.client{client, method, uri, status,
+ * outcome}.
+ */
+@Configuration
+public class Metrics {
+
+	// Static so the other configuration classes don't have to be created early.
+	// Off in the test profile, where it would wrap the @MockBean doubles.
+	@Bean
+	@ConditionalOnProperty(name = "showspace.metrics.methods.enabled", matchIfMissing = true)
+	static MeteringPostProcessor meteringPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new MeteringPostProcessor(meterRegistry);
+	}
+
+	/**
+	 * Times the requests of one OkHttp client. Numeric path segments are
+	 * collapsed so the uri tag stays a small set of templates.
+	 */
+	public static OkHttpMetricsEventListener httpClientListener(MeterRegistry meterRegistry, String client,
+			Function<Request, String> uri) {
+		return OkHttpMetricsEventListener.builder(meterRegistry, "showspace.http.client")
+				.tag(Tag.of("client", client)).uriMapper(uri).includeHostTag(false).build();
+	}
+
+	public static String pathTemplate(Request request) {
+		return request.url().encodedPath().replaceAll("/\\d+(?=/|$)", "/{id}");
+	}
+}
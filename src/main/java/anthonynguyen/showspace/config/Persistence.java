@@ -7,11 +7,12 @@ import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -19,6 +20,7 @@ import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.ValidationMode;
 
@@ -53,14 +55,11 @@ public class Persistence {
 	}
 
 	@Bean
-	public DataSource dataSource() {
+	public DataSource dataSource(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
 		String dbUrl = "jdbc:h2:file:" + DB_PATH + ";" + DB_OPTS;
 
-		DriverManagerDataSource dataSource = new DriverManagerDataSource();
-		dataSource.setDriverClassName("org.h2.Driver");
-		dataSource.setUrl(dbUrl);
-		dataSource.setUsername(H2_USERNAME);
-		dataSource.setPassword(H2_PASSWORD);
+		DataSource dataSource = PooledDataSource.create(dbUrl, H2_USERNAME, H2_PASSWORD, env,
+				meterRegistry.getIfAvailable());
 
 		log.info("Database URL set: " + dbUrl);
 
@@ -68,11 +67,12 @@ public class Persistence {
 	}
 
 	@Bean
-	public EntityManagerFactory entityManagerFactory() {
+	public EntityManagerFactory entityManagerFactory(DataSource dataSource, Environment env) {
 		LocalContainerEntityManagerFactoryBean bean = new LocalContainerEntityManagerFactoryBean();
-		bean.setDataSource(dataSource());
+		bean.setDataSource(dataSource);
 		bean.setJpaVendorAdapter(jpaVendorAdapter());
 		bean.setPackagesToScan(PACKAGES);
+		bean.setJpaProperties(HibernateSettings.create(env));
 
 		// Entities are validated in controllers, don't need to do it twice.
 		bean.setValidationMode(ValidationMode.NONE);
@@ -0,0 +1,98 @@
+package anthonynguyen.showspace.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Guards against virtual threads pinning their carrier, only active when
+ * requests run on virtual threads (see Container).
+ *
+ * A virtual thread that blocks inside a synchronized block keeps its carrier,
+ * and the H2 driver synchronizes on the session around every statement, so
+ * each open connection can tie up a carrier. At startup this warns when the
+ * pools allow as many connections as there are carriers, since the rest of
+ * the app would then stall whenever the database is busy. While running,
+ * pinned blocking longer than showspace.threads.pinned-threshold-ms is
+ * recorded as showspace.threads.pinned{frame} and logged.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinnedThreadMonitor {
+
+	private final static Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${showspace.threads.pinned-threshold-ms:20}")
+	private long thresholdMs;
+
+	@Value("${showspace.datasource.write.maximum-pool-size:10}")
+	private int writePoolSize;
+
+	@Value("${showspace.datasource.read.maximum-pool-size:20}")
+	private int readPoolSize;
+
+	private RecordingStream recording;
+
+	@PostConstruct
+	void start() {
+		int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+				Runtime.getRuntime().availableProcessors());
+		int connections = writePoolSize + readPoolSize;
+		if (connections >= carriers) {
+			log.warn("Up to " + connections + " connections can pin virtual thread carriers, but there are only "
+					+ carriers + " carriers. Set -Djdk.virtualThreadScheduler.parallelism above " + connections
+					+ " or shrink the pools.");
+		}
+
+		recording = new RecordingStream();
+		recording.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+		recording.onEvent(PINNED_EVENT, this::pinned);
+		recording.startAsync();
+	}
+
+	@PreDestroy
+	void stop() {
+		recording.close();
+	}
+
+	private void pinned(RecordedEvent event) {
+		String frame = pinningFrame(event.getStackTrace());
+		Timer.builder("showspace.threads.pinned").tag("frame", frame).register(meterRegistry)
+				.record(event.getDuration());
+		log.warn("Virtual thread pinned for " + event.getDuration().toMillis() + " ms in " + frame);
+	}
+
+	// The innermost frame outside the JDK, which is where the monitor was taken.
+	private static String pinningFrame(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return "unknown";
+		}
+		for (RecordedFrame frame : stackTrace.getFrames()) {
+			String type = frame.getMethod().getType().getName();
+			if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+				return type + "." + frame.getMethod().getName();
+			}
+		}
+		return "jdk";
+	}
+}
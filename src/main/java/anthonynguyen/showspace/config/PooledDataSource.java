@@ -0,0 +1,102 @@
+package anthonynguyen.showspace.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A pair of bounded HikariCP pools behind a lazy connection proxy.
+ *
+ * Connections are only taken from a pool when the first statement runs, at
+ * which point read-only transactions (including Spring Data's read methods) are
+ * routed to the read pool and everything else to the write pool. Both pools
+ * publish their metrics (active, idle, pending, acquire/usage timers) to the
+ * given registry and log connections that are held longer than the leak
+ * detection threshold.
+ */
+public class PooledDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+	private final static Logger log = LoggerFactory.getLogger(PooledDataSource.class);
+
+	private final static String DRIVER = "org.h2.Driver";
+	private final static String PREFIX = "showspace.datasource.";
+
+	public final static String WRITE_POOL = "showspace-write";
+	public final static String READ_POOL = "showspace-read";
+
+	// Defaults used when no property overrides them.
+	private final static int WRITE_MAX_SIZE = 10;
+	private final static int WRITE_MIN_IDLE = 2;
+	private final static int READ_MAX_SIZE = 20;
+	private final static int READ_MIN_IDLE = 4;
+	private final static long CONNECTION_TIMEOUT_MS = 5000;
+	private final static long LEAK_DETECTION_THRESHOLD_MS = 10000;
+
+	private final HikariDataSource writePool;
+	private final HikariDataSource readPool;
+
+	public PooledDataSource(HikariDataSource writePool, HikariDataSource readPool) {
+		super(writePool);
+		setReadOnlyDataSource(readPool);
+
+		this.writePool = writePool;
+		this.readPool = readPool;
+	}
+
+	public static PooledDataSource create(String url, String username, String password, Environment env,
+			MeterRegistry registry) {
+		HikariDataSource writePool = pool(WRITE_POOL, "write", WRITE_MAX_SIZE, WRITE_MIN_IDLE, false, url, username,
+				password, env, registry);
+		HikariDataSource readPool = pool(READ_POOL, "read", READ_MAX_SIZE, READ_MIN_IDLE, true, url, username,
+				password, env, registry);
+
+		return new PooledDataSource(writePool, readPool);
+	}
+
+	private static HikariDataSource pool(String name, String kind, int maxSize, int minIdle, boolean readOnly,
+			String url, String username, String password, Environment env, MeterRegistry registry) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName(name);
+		config.setDriverClassName(DRIVER);
+		config.setJdbcUrl(url);
+		config.setUsername(username);
+		config.setPassword(password);
+		config.setReadOnly(readOnly);
+
+		config.setMaximumPoolSize(env.getProperty(PREFIX + kind + ".maximum-pool-size", Integer.class, maxSize));
+		config.setMinimumIdle(env.getProperty(PREFIX + kind + ".minimum-idle", Integer.class, minIdle));
+		config.setConnectionTimeout(
+				env.getProperty(PREFIX + "connection-timeout-ms", Long.class, CONNECTION_TIMEOUT_MS));
+		config.setLeakDetectionThreshold(
+				env.getProperty(PREFIX + "leak-detection-threshold-ms", Long.class, LEAK_DETECTION_THRESHOLD_MS));
+
+		if (registry != null) {
+			config.setMetricRegistry(registry);
+		}
+
+		log.info("Connection pool " + name + ": max " + config.getMaximumPoolSize() + ", min idle "
+				+ config.getMinimumIdle());
+
+		return new HikariDataSource(config);
+	}
+
+	public HikariDataSource getWritePool() {
+		return writePool;
+	}
+
+	public HikariDataSource getReadPool() {
+		return readPool;
+	}
+
+	@Override
+	public void close() {
+		readPool.close();
+		writePool.close();
+	}
+}
@@ -0,0 +1,18 @@
+package anthonynguyen.showspace.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on background work: @Scheduled jobs such as the Mastodon feed refresh,
+ * and @Async handlers such as venue geocoding. Spring Boot provides the
+ * TaskScheduler and task executor they run on, sized by the
+ * spring.task.scheduling.* and spring.task.execution.* properties, or backed
+ * by virtual threads when spring.threads.virtual.enabled (see Container).
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class Scheduling {
+}
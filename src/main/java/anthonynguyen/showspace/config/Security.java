@@ -28,6 +28,12 @@ public class Security {
 	public static final String ADMIN_ROLE = "ADMINISTRATOR";
 	public static final RequestMatcher H2_CONSOLE = antMatcher("/h2-console/**");
 
+	// Under paths that are otherwise open. Exports each tie up a database
+	// connection and a thread for as long as they run; the metrics give away
+	// the app's internals. Scrape them with HTTP basic.
+	private static final RequestMatcher[] ADMIN_ONLY = { antMatcher("/api/export/**"),
+			antMatcher("/actuator/prometheus") };
+
 	// List the mappings/methods for which no authorisation is required.
 	private static final RequestMatcher[] NO_AUTH = { antMatcher(HttpMethod.GET, "/webjars/**"),
 			antMatcher(HttpMethod.GET, "/"), antMatcher(HttpMethod.GET, "/api/**"),
@@ -42,7 +48,8 @@ public class Security {
 				// By default, all requests are authenticated except our specific list.
 				.authorizeHttpRequests(
 
-						auth -> auth.requestMatchers(NO_AUTH).permitAll()
+						auth -> auth.requestMatchers(ADMIN_ONLY).hasRole(ADMIN_ROLE)
+						.requestMatchers(NO_AUTH).permitAll()
 						.requestMatchers(HttpMethod.GET, "/{x:^(?!events|venues|admin|api).*}/**").permitAll()
 						.anyRequest().hasRole(ADMIN_ROLE))
 				
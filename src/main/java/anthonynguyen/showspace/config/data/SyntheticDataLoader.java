@@ -0,0 +1,183 @@
+package anthonynguyen.showspace.config.data;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Fills the database with made-up venues and events for load testing, e.g.
+ * SPRING_PROFILE=default,loadtest.
+ *
+ * Rows go straight in with JDBC batches, with ids far above anything the
+ * entity sequences will hand out. Venues are already geocoded, and a few of
+ * them host most of the events. Events cluster on Friday and Saturday
+ * evenings, and most are in the coming months.
+ */
+@Configuration
+@Profile("loadtest")
+public class SyntheticDataLoader {
+
+	private final static Logger log = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+	public static final long FIRST_ID = 1_000_000_000L;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final String VENUE_SQL = "INSERT INTO venues (id, name, roadName, postcode, capacity, latitude, longitude, addressChanged, geocodeState) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, 'RESOLVED')";
+	private static final String EVENT_SQL = "INSERT INTO events (id, name, description, date, time, venue_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+	private static final String[] VENUE_ADJECTIVES = { "Blue", "Golden", "Red", "Old", "Northern", "Velvet", "Iron",
+			"Crooked", "Silver", "Green", "Electric", "Royal", "Little", "Grand", "Hidden", "Black" };
+	private static final String[] VENUE_NOUNS = { "Lantern", "Hall", "Cellar", "Warehouse", "Arms", "Rooms",
+			"Theatre", "Lounge", "Mill", "Chapel", "Works", "Exchange", "Basement", "Tavern", "Studio", "Arches" };
+	private static final String[] STREETS = { "High", "Station", "Church", "Mill", "Market", "Oxford", "Deansgate",
+			"Victoria", "King", "Queen", "Bridge", "Canal", "Park", "Chapel", "Water", "New" };
+	private static final String[] STREET_TYPES = { "Street", "Road", "Lane", "Way", "Square" };
+
+	// Postcode districts with a rough centre, so venues land near their postcode.
+	private static final String[] DISTRICTS = { "M1", "M4", "M13", "E14", "EC2", "N1", "SE1", "LS1", "S1", "B1",
+			"L1", "BS1", "NE1", "G1", "EH1", "CF10" };
+	private static final double[][] CENTRES = { { 53.478, -2.236 }, { 53.484, -2.226 }, { 53.463, -2.227 },
+			{ 51.507, -0.020 }, { 51.520, -0.087 }, { 51.538, -0.100 }, { 51.501, -0.094 }, { 53.797, -1.548 },
+			{ 53.381, -1.470 }, { 52.480, -1.903 }, { 53.405, -2.984 }, { 51.453, -2.593 }, { 54.974, -1.613 },
+			{ 55.861, -4.251 }, { 55.950, -3.188 }, { 51.481, -3.179 } };
+
+	private static final String[] GENRES = { "Jazz", "Indie", "Folk", "Comedy", "Techno", "Poetry", "Punk", "Blues",
+			"Soul", "Hip Hop", "Classical", "Metal", "Drag", "Theatre", "Film", "Quiz" };
+	private static final String[] FORMATS = { "Night", "Showcase", "Open Mic", "Festival", "Live", "Social",
+			"All-Dayer", "Session", "Club", "Special", "Launch", "Weekender" };
+	private static final String[] DESCRIPTIONS = { "Doors open half an hour before the start.",
+			"Tickets on the door, cash and card.", "Free entry before nine, all welcome.",
+			"Local acts and a headliner to be announced.", "Bring your own instruments, sign up on the night.",
+			"Over 18s only, ID required.", "Step-free access, seated and standing." };
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Value("${showspace.loadtest.venues:2000}")
+	private int venueCount;
+
+	@Value("${showspace.loadtest.events:200000}")
+	private int eventCount;
+
+	@Value("${showspace.loadtest.seed:42}")
+	private long seed;
+
+	@Bean
+	CommandLineRunner generateSyntheticData() {
+		return args -> {
+			JdbcTemplate jdbcTemplate = jdbc.getJdbcTemplate();
+			Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM venues WHERE id >= ?", Long.class,
+					FIRST_ID);
+			if (existing != null && existing > 0) {
+				log.info("Synthetic data already loaded (" + existing + " venues). Skipping generation.");
+				return;
+			}
+
+			long start = System.currentTimeMillis();
+			Random random = new Random(seed);
+			addVenues(jdbcTemplate, random);
+			addEvents(jdbcTemplate, random);
+			log.info("Generated " + venueCount + " venues and " + eventCount + " events in "
+					+ (System.currentTimeMillis() - start) + " ms");
+		};
+	}
+
+	private void addVenues(JdbcTemplate jdbcTemplate, Random random) {
+		List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < venueCount; i++) {
+			int district = random.nextInt(DISTRICTS.length);
+			String name = "The " + pick(random, VENUE_ADJECTIVES) + " " + pick(random, VENUE_NOUNS);
+			if (i >= VENUE_ADJECTIVES.length * VENUE_NOUNS.length) {
+				name += " " + DISTRICTS[district];
+			}
+			String road = (1 + random.nextInt(200)) + " " + pick(random, STREETS) + " " + pick(random, STREET_TYPES);
+			String postcode = DISTRICTS[district] + " " + random.nextInt(10) + (char) ('A' + random.nextInt(26))
+					+ (char) ('A' + random.nextInt(26));
+			// Mostly small rooms, a few big halls.
+			int capacity = 30 + (int) (Math.pow(random.nextDouble(), 3) * 5000);
+			double latitude = CENTRES[district][0] + (random.nextDouble() - 0.5) * 0.04;
+			double longitude = CENTRES[district][1] + (random.nextDouble() - 0.5) * 0.06;
+
+			rows.add(new Object[] { FIRST_ID + i, name, road, postcode, capacity, latitude, longitude });
+			if (rows.size() == BATCH_SIZE) {
+				flush(jdbcTemplate, VENUE_SQL, rows);
+			}
+		}
+		flush(jdbcTemplate, VENUE_SQL, rows);
+	}
+
+	private void addEvents(JdbcTemplate jdbcTemplate, Random random) {
+		LocalDate today = LocalDate.now();
+		List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < eventCount; i++) {
+			String genre = pick(random, GENRES);
+			String name = genre + " " + pick(random, FORMATS);
+			if (random.nextInt(3) == 0) {
+				name += " " + (char) ('A' + random.nextInt(26)) + random.nextInt(100);
+			}
+			String description = genre + " " + pick(random, FORMATS).toLowerCase() + ". " + pick(random, DESCRIPTIONS);
+
+			rows.add(new Object[] { FIRST_ID + i, name, description, Date.valueOf(eventDate(random, today)),
+					eventTime(random), FIRST_ID + popularVenue(random) });
+			if (rows.size() == BATCH_SIZE) {
+				flush(jdbcTemplate, EVENT_SQL, rows);
+			}
+		}
+		flush(jdbcTemplate, EVENT_SQL, rows);
+	}
+
+	// Three quarters in the next six months, the rest over the last two years,
+	// nudged towards the weekend.
+	private static LocalDate eventDate(Random random, LocalDate today) {
+		LocalDate date = random.nextInt(4) > 0 ? today.plusDays(random.nextInt(183))
+				: today.minusDays(1 + random.nextInt(730));
+		if (random.nextBoolean()) {
+			while (date.getDayOfWeek() != DayOfWeek.FRIDAY && date.getDayOfWeek() != DayOfWeek.SATURDAY) {
+				date = date.plusDays(1);
+			}
+		}
+		return date;
+	}
+
+	// Mostly evenings on the quarter hour; one in ten has no time yet.
+	private static Time eventTime(Random random) {
+		if (random.nextInt(10) == 0) {
+			return null;
+		}
+		int hour = random.nextInt(5) > 0 ? 19 + random.nextInt(3) : 11 + random.nextInt(8);
+		return Time.valueOf(LocalTime.of(hour, 15 * random.nextInt(4)));
+	}
+
+	// Skewed so the first venues host far more events than the rest.
+	private int popularVenue(Random random) {
+		return (int) (Math.pow(random.nextDouble(), 2) * venueCount);
+	}
+
+	private static String pick(Random random, String[] words) {
+		return words[random.nextInt(words.length)];
+	}
+
+	private static void flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(sql, rows);
+			rows.clear();
+		}
+	}
+}
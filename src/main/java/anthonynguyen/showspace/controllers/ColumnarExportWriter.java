@@ -0,0 +1,145 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A compact binary export, laid out by column in groups of rows like Parquet
+ * but simple enough to read without a library. Only one group of rows is held
+ * in memory at a time.
+ *
+ * <pre>
+ * "SSCOL" 0x01                 magic and version
+ * varint columns               then for each column:
+ *   varint length, UTF-8 name
+ *   byte type                  ordinal of ExportColumn.Type
+ * for each group of rows:
+ *   varint rows                greater than zero
+ *   for each column:
+ *     (rows + 7) / 8 bytes     null bitmap, bit i of byte i / 8 set if row i is null
+ *     then each non-null value:
+ *       LONG    zigzag varint, the difference from the previous value in the group
+ *       DATE    as LONG, of the epoch day
+ *       TIME    varint second of the day
+ *       DOUBLE  8 bytes, big-endian IEEE 754
+ *       STRING  varint length, UTF-8
+ * varint 0                     end of the rows
+ * </pre>
+ *
+ * Varints are unsigned LEB128. Ids and dates come out in order, so their
+ * differences mostly take a byte or two.
+ */
+final class ColumnarExportWriter<T> implements ExportWriter<T> {
+
+	static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/vnd.showspace.columnar");
+
+	private static final byte[] MAGIC = { 'S', 'S', 'C', 'O', 'L', 1 };
+
+	private final DataOutputStream out;
+	private final List<ExportColumn<T>> columns;
+	private final int groupSize;
+
+	private final List<T> group;
+	private final Object[] values;
+
+	ColumnarExportWriter(OutputStream out, List<ExportColumn<T>> columns, int groupSize) throws IOException {
+		this.out = new DataOutputStream(out);
+		this.columns = columns;
+		this.groupSize = groupSize;
+		this.group = new ArrayList<>(groupSize);
+		this.values = new Object[groupSize];
+
+		this.out.write(MAGIC);
+		writeVarint(columns.size());
+		for (ExportColumn<T> column : columns) {
+			writeString(column.name());
+			this.out.writeByte(column.type().ordinal());
+		}
+	}
+
+	@Override
+	public void write(T row) throws IOException {
+		group.add(row);
+		if (group.size() == groupSize) {
+			writeGroup();
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (!group.isEmpty()) {
+			writeGroup();
+		}
+		writeVarint(0);
+		out.flush();
+	}
+
+	private void writeGroup() throws IOException {
+		int rows = group.size();
+		writeVarint(rows);
+		for (ExportColumn<T> column : columns) {
+			byte[] nulls = new byte[(rows + 7) / 8];
+			for (int i = 0; i < rows; i++) {
+				values[i] = column.value().apply(group.get(i));
+				if (values[i] == null) {
+					nulls[i / 8] |= (byte) (1 << (i % 8));
+				}
+			}
+			out.write(nulls);
+
+			long previous = 0;
+			for (int i = 0; i < rows; i++) {
+				Object value = values[i];
+				if (value == null) {
+					continue;
+				}
+				switch (column.type()) {
+				case LONG:
+				case DATE:
+					long current = column.type() == ExportColumn.Type.DATE ? ((LocalDate) value).toEpochDay()
+							: ((Number) value).longValue();
+					writeVarint(zigzag(current - previous));
+					previous = current;
+					break;
+				case TIME:
+					writeVarint(((LocalTime) value).toSecondOfDay());
+					break;
+				case DOUBLE:
+					out.writeDouble(((Number) value).doubleValue());
+					break;
+				case STRING:
+					writeString(value.toString());
+					break;
+				}
+				values[i] = null;
+			}
+		}
+		group.clear();
+	}
+
+	private void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(bytes.length);
+		out.write(bytes);
+	}
+
+	private void writeVarint(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+}
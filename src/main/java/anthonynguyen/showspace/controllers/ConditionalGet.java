@@ -0,0 +1,104 @@
+package anthonynguyen.showspace.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.DataVersions.Version;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * ETag and Last-Modified validators from {@link DataVersions}. A handler calls
+ * one of these before doing any work and returns null straight away when it
+ * says true; Spring MVC has then already set up the 304.
+ */
+final class ConditionalGet {
+
+	private ConditionalGet() {
+	}
+
+	/**
+	 * For JSON, which is the same for everybody: a strong ETag made from the
+	 * version alone.
+	 */
+	static boolean notModified(NativeWebRequest request, DataVersions versions, Version version) {
+		response(request).setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+		String etag = "\"" + Long.toString(versions.getEpoch(), 36) + "-" + version.getCounter() + "\"";
+		return request.checkNotModified(etag, version.getLastModified());
+	}
+
+	/**
+	 * For JSON that also depends on the date and on the query parameters,
+	 * which go into the ETag with the version. Changes at midnight too.
+	 *
+	 * @param cacheControl how long clients may use it before revalidating
+	 * @param extra        the query parameters
+	 */
+	static boolean notModifiedToday(NativeWebRequest request, DataVersions versions, Version version,
+			CacheControl cacheControl, Object... extra) {
+		response(request).setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+
+		LocalDate today = LocalDate.now();
+		StringBuilder key = new StringBuilder().append(today);
+		for (Object part : extra) {
+			key.append('|').append(part);
+		}
+		String etag = "\"" + Long.toString(versions.getEpoch(), 36) + "-" + version.getCounter() + "-"
+				+ DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+
+		return request.checkNotModified(etag, Math.max(version.getLastModified(), midnight(today)));
+	}
+
+	/**
+	 * For pages, which also depend on the date, on who is signed in and on the
+	 * session their forms' CSRF tokens belong to. Those tokens are masked
+	 * differently every time a page is rendered, so the ETag is a weak one.
+	 *
+	 * @param extra anything else the page shows that isn't in the version
+	 */
+	static boolean pageNotModified(NativeWebRequest request, DataVersions versions, Version version,
+			Object... extra) {
+		HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+		response(request).setHeader(HttpHeaders.CACHE_CONTROL,
+				CacheControl.noCache().cachePrivate().getHeaderValue());
+
+		// A redirect that carries a message must render it.
+		Map<String, ?> flash = RequestContextUtils.getInputFlashMap(servletRequest);
+		if (flash != null && !flash.isEmpty()) {
+			return false;
+		}
+
+		LocalDate today = LocalDate.now();
+		Principal user = request.getUserPrincipal();
+		HttpSession session = servletRequest.getSession(false);
+		StringBuilder key = new StringBuilder().append(versions.getEpoch()).append('|').append(version.getCounter())
+				.append('|').append(today).append('|').append(user == null ? "" : user.getName()).append('|')
+				.append(session == null ? "" : session.getId());
+		for (Object part : extra) {
+			key.append('|').append(part);
+		}
+		String etag = "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+
+		// Pages change at midnight too, whether or not anything was saved.
+		return request.checkNotModified(etag, Math.max(version.getLastModified(), midnight(today)));
+	}
+
+	private static long midnight(LocalDate today) {
+		return today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private static HttpServletResponse response(NativeWebRequest request) {
+		return request.getNativeResponse(HttpServletResponse.class);
+	}
+}
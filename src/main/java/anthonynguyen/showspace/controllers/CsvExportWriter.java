@@ -0,0 +1,54 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with a header row. Nulls are empty fields; dates and times are
+ * ISO 8601.
+ */
+final class CsvExportWriter<T> implements ExportWriter<T> {
+
+	private final Writer out;
+	private final List<ExportColumn<T>> columns;
+
+	CsvExportWriter(OutputStream out, List<ExportColumn<T>> columns) throws IOException {
+		this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		this.columns = columns;
+		for (int i = 0; i < columns.size(); i++) {
+			field(i, columns.get(i).name());
+		}
+		this.out.write("\r\n");
+	}
+
+	@Override
+	public void write(T row) throws IOException {
+		for (int i = 0; i < columns.size(); i++) {
+			Object value = columns.get(i).value().apply(row);
+			field(i, value == null ? "" : value.toString());
+		}
+		out.write("\r\n");
+	}
+
+	@Override
+	public void finish() throws IOException {
+		out.flush();
+	}
+
+	private void field(int index, String value) throws IOException {
+		if (index > 0) {
+			out.write(',');
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			out.write(value);
+		} else {
+			out.write('"');
+			out.write(value.replace("\"", "\"\""));
+			out.write('"');
+		}
+	}
+}
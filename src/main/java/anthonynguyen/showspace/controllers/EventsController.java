@@ -1,6 +1,7 @@
 package anthonynguyen.showspace.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
@@ -18,17 +19,29 @@ import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.validation.BindingResult;
 
-import java.util.List;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import anthonynguyen.showspace.entities.Venue;
 import anthonynguyen.showspace.config.MapBoxConfig;
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.DataVersions.Version;
+import anthonynguyen.showspace.dao.EventListItem;
 import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.EventTimeline;
+import anthonynguyen.showspace.dao.MastodonPostService;
 import anthonynguyen.showspace.dao.MastodonService;
 import anthonynguyen.showspace.dao.VenueService;
+import anthonynguyen.showspace.dao.VenueSummary;
 import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.MastodonPost;
 import anthonynguyen.showspace.exceptions.EventNotFoundException;
+import com.sys1yagi.mastodon4j.api.entity.Status;
 
 
 @Controller
@@ -44,9 +57,27 @@ public class EventsController {
 	@Autowired
 	private MastodonService mastodonService;
 
+	@Autowired
+	private MastodonPostService mastodonPostService;
+
 	@Autowired
 	private MapBoxConfig mapBoxConfig;
 
+	@Autowired
+	private PageData pageData;
+
+	@Autowired
+	private DataVersions dataVersions;
+
+	@Autowired
+	private FragmentCache fragmentCache;
+
+	@Value("${showspace.events.streaming:false}")
+	private boolean streaming;
+
+	@Value("${showspace.events.stream-page-size:500}")
+	private int streamPageSize;
+
 	@ExceptionHandler(EventNotFoundException.class)
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	public String eventNotFoundHandler(EventNotFoundException ex, Model model) {
@@ -56,35 +87,75 @@ public class EventsController {
 	}
 	
 	@GetMapping
-	public String getAllEvents(@RequestParam(value = "search", required = false) String search, Model model) {
-		List<Event> events;
+	public String getAllEvents(@RequestParam(value = "search", required = false) String search, Model model,
+			NativeWebRequest request) {
+		// The Mastodon feed is a snapshot in memory, so checking it costs nothing.
+		List<Status> posts = mastodonService.getHomeFeed();
+		List<Long> feed = posts.stream().map(Status::getId).toList();
+		Version version = dataVersions.global();
+		if (ConditionalGet.pageNotModified(request, dataVersions, version, feed)) {
+			return null;
+		}
         LocalDate today = LocalDate.now();
+		CompletableFuture<List<VenueSummary>> venues = pageData.load("venue-summaries", venueService::findSummaries,
+				List.of());
 
-		if (search != null && !search.isEmpty()) {
-			events = eventService.findByNameContainingIgnoreCase(search);
+		if (streaming && (search == null || search.isEmpty())) {
+			// Every event: the tables are written out a page at a time as the
+			// template reaches them, rather than rendered up front.
+			Runnable flush = StreamedRows.flushing(request);
+			model.addAttribute("upcomingEvents", new StreamedRows<EventListItem>(
+					after -> eventService.findUpcomingPage(today, after, streamPageSize), streamPageSize, flush));
+			model.addAttribute("pastEvents", new StreamedRows<EventListItem>(
+					after -> eventService.findPastPage(today, after, streamPageSize), streamPageSize, flush));
 		} else {
-			events = eventService.findAll();
+			renderTimeline(search, today, version, model, request);
+		}
+
+		// The feed is a snapshot in memory, so it's keyed by the posts in it.
+		FragmentCache.Key feedKey = fragmentCache.key("fragments/events", "mastodon-feed", feed);
+		String feedHtml = fragmentCache.get(feedKey);
+		if (feedHtml == null) {
+			feedHtml = fragmentCache.render(request, feedKey, Map.of("mastodonPosts", posts), true);
 		}
 
-		List<Event> upcomingEvents = eventService.findUpcomingEvents(today);
-		List<Event> pastEvents = eventService.findPastEvents(today);
-		
-		upcomingEvents.retainAll(events);
-		pastEvents.retainAll(events);
-		
-		model.addAttribute("events", events);
 		model.addAttribute("search", search);
-        model.addAttribute("upcomingEvents", upcomingEvents);
-        model.addAttribute("pastEvents", pastEvents);
-        model.addAttribute("venues", venueService.findAll());
+        model.addAttribute("venues", venues.join());
         model.addAttribute("mapToken", mapBoxConfig.getMapboxAccessToken());
-        model.addAttribute("mastodonPosts", mastodonService.getHomeFeed());
+        model.addAttribute("mastodonPostsHtml", feedHtml);
 
 		return "events/index";
 	}
 
+	// Both tables from the fragment cache, or from one query split into
+	// upcoming and past.
+	private void renderTimeline(String search, LocalDate today, Version version, Model model,
+			NativeWebRequest request) {
+		FragmentCache.Key upcomingKey = fragmentCache.key("fragments/events", "event-table", version.getCounter(),
+				today, search, "upcoming");
+		FragmentCache.Key pastKey = fragmentCache.key("fragments/events", "event-table", version.getCounter(),
+				today, search, "past");
+		String upcomingHtml = fragmentCache.get(upcomingKey);
+		String pastHtml = fragmentCache.get(pastKey);
+
+		if (upcomingHtml == null || pastHtml == null) {
+			Optional<EventTimeline> loaded = pageData
+					.tryLoad("event-timeline", () -> eventService.findTimeline(search, today)).join();
+			EventTimeline shown = loaded.orElse(EventTimeline.empty());
+			upcomingHtml = fragmentCache.render(request, upcomingKey, Map.of("events", shown.getUpcoming()),
+					loaded.isPresent());
+			pastHtml = fragmentCache.render(request, pastKey, Map.of("events", shown.getPast()), loaded.isPresent());
+		}
+
+		model.addAttribute("upcomingEventsHtml", upcomingHtml);
+		model.addAttribute("pastEventsHtml", pastHtml);
+	}
+
 	@GetMapping("/{id}")
-	public String getEvent(@PathVariable("id") long id, Model model) {
+	public String getEvent(@PathVariable("id") long id, Model model, NativeWebRequest request) {
+		if (ConditionalGet.pageNotModified(request, dataVersions, dataVersions.global())) {
+			return null;
+		}
 		Event event = eventService.findById(id);
 		if (event == null) {
 	        throw new EventNotFoundException(id);
@@ -120,8 +191,10 @@ public class EventsController {
 
     	String post = content + " #" + event.getName().replaceAll("\\s+", "_") + " #showspace";
 		
-		mastodonService.createPost(post);
+		// Sent in the background, the page can check on it via /api/posts/{id}
+		MastodonPost queued = mastodonPostService.queuePost(id, post);
 		redirectAttrs.addFlashAttribute("ok_message", content);
+		redirectAttrs.addFlashAttribute("post_id", queued.getId());
 		
 		return "redirect:/events/" + id;
 	}
@@ -130,14 +203,14 @@ public class EventsController {
 	@GetMapping("/add")
 	public String showAddEventForm(Model model) {
 	    model.addAttribute("event", new Event()); // Creating an empty event object
-	    model.addAttribute("venues", venueService.findAll()); // Access to all sites
+	    model.addAttribute("venues", venueService.findSummaries()); // Access to all sites
 	    return "events/add_event"; // Return add_event.html
 	}
 	
 	@PostMapping("/add")
 	public String addEvent(@ModelAttribute @Valid Event event, BindingResult result, Model model) {
 	    if (result.hasErrors()) {
-	        model.addAttribute("venues", venueService.findAll()); // Reload the site
+	        model.addAttribute("venues", venueService.findSummaries()); // Reload the site
 	        return "events/add_event"; //  Return to the error page
 	    }
 
@@ -158,7 +231,7 @@ public class EventsController {
 	        throw new EventNotFoundException(id);
 	    }
 	    model.addAttribute("event", event);
-	    model.addAttribute("venues", venueService.findAll());
+	    model.addAttribute("venues", venueService.findSummaries());
 	    return "events/update_event";  // Return update_event.html
 	}
 
@@ -179,7 +252,7 @@ public class EventsController {
 		}
 
 	    if (result.hasErrors()) {
-	        model.addAttribute("venues", venueService.findAll());  // Re-add venues if validation fails
+	        model.addAttribute("venues", venueService.findSummaries());  // Re-add venues if validation fails
 	        return "events/update_event";  // Return form with errors
 	    }
 
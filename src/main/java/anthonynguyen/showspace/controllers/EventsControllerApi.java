@@ -4,6 +4,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
@@ -20,13 +21,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import anthonynguyen.showspace.assemblers.EventModelAssembler;
+import anthonynguyen.showspace.assemblers.EventSummaryModelAssembler;
+import anthonynguyen.showspace.assemblers.VenueModelAssembler;
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.DataVersions.Kind;
+import anthonynguyen.showspace.dao.EventCursor;
 import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.EventSummary;
 import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
 import anthonynguyen.showspace.exceptions.EventNotFoundException;
+import anthonynguyen.showspace.exceptions.InvalidCursorException;
 
 @RestController
 @RequestMapping(value = "/api/events", produces = { MediaType.APPLICATION_JSON_VALUE, MediaTypes.HAL_JSON_VALUE })
@@ -34,30 +48,121 @@ public class EventsControllerApi {
 
 	private static final String NOT_FOUND_MSG = "{ \"error\": \"%s\", \"id\": %d }";
 
+	private static final String BAD_CURSOR_MSG = "{ \"error\": \"%s\", \"cursor\": \"%s\" }";
+
 	@Autowired
 	private EventService eventService;
 
 	@Autowired
 	private EventModelAssembler eventAssembler;
 
+	@Autowired
+	private EventSummaryModelAssembler summaryAssembler;
+
+	@Autowired
+	private VenueModelAssembler venueAssembler;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private DataVersions dataVersions;
+
+	@Value("${showspace.api.default-page-size:20}")
+	private int defaultPageSize;
+
+	@Value("${showspace.api.max-page-size:100}")
+	private int maxPageSize;
+
 	@ExceptionHandler(EventNotFoundException.class)
 	public ResponseEntity<?> eventNotFoundHandler(EventNotFoundException ex) {
 		return ResponseEntity.status(HttpStatus.NOT_FOUND)
 				.body(String.format(NOT_FOUND_MSG, ex.getMessage(), ex.getId()));
 	}
+
+	@ExceptionHandler(InvalidCursorException.class)
+	public ResponseEntity<?> invalidCursorHandler(InvalidCursorException ex) {
+		// Cursors that decode are URL-safe base64, anything else is not echoed back.
+		String cursor = ex.getCursor() != null && ex.getCursor().matches("[A-Za-z0-9_-]*") ? ex.getCursor() : "";
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body(String.format(BAD_CURSOR_MSG, "Invalid page cursor", cursor));
+	}
 	
 	@GetMapping("/{id}")
-	public EntityModel<Event> getEvent(@PathVariable("id") long id) {
+	public EntityModel<Event> getEvent(@PathVariable("id") long id, NativeWebRequest request) {
+		// Deleting a venue deletes its events without saving them one by one.
+		if (ConditionalGet.notModified(request, dataVersions,
+				dataVersions.of(Kind.EVENTS, id).and(dataVersions.of(Kind.VENUES)))) {
+			return null;
+		}
 		Event event = eventService.findById(id);
 		if (event == null) 
 			throw new EventNotFoundException(id);
 		return eventAssembler.toModel(event);
 	}
+
+	@GetMapping("/{id}/venue")
+	public EntityModel<Venue> getEventVenue(@PathVariable("id") long id, NativeWebRequest request) {
+		if (ConditionalGet.notModified(request, dataVersions, dataVersions.global())) {
+			return null;
+		}
+		Event event = eventService.findById(id);
+		if (event == null)
+			throw new EventNotFoundException(id);
+		return venueAssembler.toModel(event.getVenue());
+	}
 	
+	/**
+	 * A page of events in (date, time, id) order. Pages are walked with the
+	 * opaque cursors in the next/prev links; if both after and before are
+	 * given, after wins.
+	 */
 	@GetMapping
-	public CollectionModel<EntityModel<Event>> getAllEvents() {
-		return eventAssembler.toCollectionModel(eventService.findAll())
-				.add(linkTo(methodOn(EventsControllerApi.class).getAllEvents()).withSelfRel());
+	public CollectionModel<EntityModel<EventSummary>> getAllEvents(@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "before", required = false) String before,
+			@RequestParam(value = "size", required = false) Integer size, NativeWebRequest request) {
+		if (ConditionalGet.notModified(request, dataVersions, dataVersions.of(Kind.EVENTS))) {
+			return null;
+		}
+		int limit = pageSize(size);
+
+		PageWindow<EventSummary> page;
+		if (after == null && before != null) {
+			page = PageWindow.backward(eventService.findPageBefore(EventCursor.decode(before), limit + 1), limit);
+		} else {
+			EventCursor cursor = after == null ? null : EventCursor.decode(after);
+			page = PageWindow.forward(eventService.findPage(cursor, limit + 1), limit, cursor != null);
+		}
+
+		CollectionModel<EntityModel<EventSummary>> model = summaryAssembler.toCollectionModel(page.getItems())
+				.add(linkTo(methodOn(EventsControllerApi.class).getAllEvents(after, before, size, null)).withSelfRel());
+		if (page.hasNext()) {
+			String next = EventCursor.of(page.last()).encode();
+			model.add(linkTo(methodOn(EventsControllerApi.class).getAllEvents(next, null, size, null))
+					.withRel(IanaLinkRelations.NEXT));
+		}
+		if (page.hasPrev()) {
+			String prev = EventCursor.of(page.first()).encode();
+			model.add(linkTo(methodOn(EventsControllerApi.class).getAllEvents(null, prev, size, null))
+					.withRel(IanaLinkRelations.PREV));
+		}
+		return model;
+	}
+
+	/**
+	 * Every event as newline-delimited JSON, written as rows come back from
+	 * the database.
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamAllEvents() {
+		return Ndjson.<Event>stream(objectMapper.writerFor(Event.class), eventService::streamAll);
+	}
+
+	private int pageSize(Integer requested) {
+		if (requested == null) {
+			return Math.min(defaultPageSize, maxPageSize);
+		}
+		return Math.max(1, Math.min(requested, maxPageSize));
 	}
 	
 	
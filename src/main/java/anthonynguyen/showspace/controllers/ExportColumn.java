@@ -0,0 +1,25 @@
+package anthonynguyen.showspace.controllers;
+
+import java.util.function.Function;
+
+/**
+ * One column of an export: its name, how it is encoded, and how to read it
+ * from a row.
+ */
+record ExportColumn<T>(String name, Type type, Function<T, Object> value) {
+
+	enum Type {
+		// Any integer; written from a Number
+		LONG,
+		DOUBLE,
+		STRING,
+		// A LocalDate
+		DATE,
+		// A LocalTime
+		TIME
+	}
+
+	static <T> ExportColumn<T> of(String name, Type type, Function<T, Object> value) {
+		return new ExportColumn<>(name, type, value);
+	}
+}
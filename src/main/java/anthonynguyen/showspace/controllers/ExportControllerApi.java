@@ -0,0 +1,131 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import anthonynguyen.showspace.controllers.ExportColumn.Type;
+import anthonynguyen.showspace.dao.EventExportRow;
+import anthonynguyen.showspace.dao.ExportService;
+import anthonynguyen.showspace.dao.VenueExportRow;
+
+/**
+ * Whole-table exports for reporting, as CSV, NDJSON or the columnar format
+ * described in ColumnarExportWriter.
+ *
+ * Rows are written to the response as they come off the database cursor, so
+ * memory use doesn't grow with the export. Once the first bytes have gone out
+ * the status can't change: an export that fails part way ends early, as does
+ * one that runs past spring.mvc.async.request-timeout.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportControllerApi {
+
+	private static final String BAD_FORMAT_MSG = "{ \"error\": \"%s\", \"format\": \"%s\" }";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final List<ExportColumn<EventExportRow>> EVENT_COLUMNS = List.of(
+			ExportColumn.of("id", Type.LONG, EventExportRow::id),
+			ExportColumn.of("name", Type.STRING, EventExportRow::name),
+			ExportColumn.of("description", Type.STRING, EventExportRow::description),
+			ExportColumn.of("date", Type.DATE, EventExportRow::date),
+			ExportColumn.of("time", Type.TIME, EventExportRow::time),
+			ExportColumn.of("venueId", Type.LONG, EventExportRow::venueId),
+			ExportColumn.of("venueName", Type.STRING, EventExportRow::venueName));
+
+	private static final List<ExportColumn<VenueExportRow>> VENUE_COLUMNS = List.of(
+			ExportColumn.of("id", Type.LONG, VenueExportRow::id),
+			ExportColumn.of("name", Type.STRING, VenueExportRow::name),
+			ExportColumn.of("roadName", Type.STRING, VenueExportRow::roadName),
+			ExportColumn.of("postcode", Type.STRING, VenueExportRow::postcode),
+			ExportColumn.of("capacity", Type.LONG, VenueExportRow::capacity),
+			ExportColumn.of("latitude", Type.DOUBLE, VenueExportRow::latitude),
+			ExportColumn.of("longitude", Type.DOUBLE, VenueExportRow::longitude),
+			ExportColumn.of("geocodeState", Type.STRING, VenueExportRow::geocodeState));
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Events in (date, time, id) order.
+	 *
+	 * @param format csv, ndjson or columnar
+	 * @param from   only events on or after this date
+	 * @param to     only events on or before this date
+	 * @param venue  only events at the venue with this id
+	 */
+	@GetMapping("/events")
+	public ResponseEntity<?> exportEvents(@RequestParam(value = "format", defaultValue = "csv") String format,
+			@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(value = "venue", required = false) Long venue) {
+		return export(format, "events", EVENT_COLUMNS,
+				action -> exportService.exportEvents(from, to, venue, action));
+	}
+
+	/**
+	 * Venues in id order.
+	 *
+	 * @param format csv, ndjson or columnar
+	 */
+	@GetMapping("/venues")
+	public ResponseEntity<?> exportVenues(@RequestParam(value = "format", defaultValue = "csv") String format) {
+		return export(format, "venues", VENUE_COLUMNS, exportService::exportVenues);
+	}
+
+	private <T> ResponseEntity<?> export(String formatName, String fileName, List<ExportColumn<T>> columns,
+			Consumer<Consumer<T>> source) {
+		ExportFormat format = ExportFormat.of(formatName);
+		if (format == null) {
+			String shown = formatName.matches("[A-Za-z0-9_-]*") ? formatName : "";
+			return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(String
+					.format(BAD_FORMAT_MSG, "Unknown export format, expected csv, ndjson or columnar", shown));
+		}
+
+		StreamingResponseBody body = out -> {
+			OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+			ExportWriter<T> writer = format.writer(buffered, columns, objectMapper.getFactory());
+			try {
+				source.accept(row -> {
+					try {
+						writer.write(row);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			writer.finish();
+			buffered.flush();
+		};
+
+		return ResponseEntity.ok().contentType(format.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(format.fileName(fileName)).build().toString())
+				.body(body);
+	}
+}
@@ -0,0 +1,59 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * The formats an export can be written in, chosen by the format parameter.
+ */
+enum ExportFormat {
+
+	CSV("csv", ImportRows.TEXT_CSV), NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+	COLUMNAR("columnar", ColumnarExportWriter.MEDIA_TYPE);
+
+	// Rows held by the columnar writer between writes.
+	private static final int GROUP_SIZE = 4096;
+
+	private final String name;
+	private final MediaType mediaType;
+
+	ExportFormat(String name, MediaType mediaType) {
+		this.name = name;
+		this.mediaType = mediaType;
+	}
+
+	/**
+	 * The format with this parameter value, or null if there isn't one.
+	 */
+	static ExportFormat of(String name) {
+		for (ExportFormat format : values()) {
+			if (format.name.equalsIgnoreCase(name)) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	String fileName(String base) {
+		return base + (this == COLUMNAR ? ".cols" : "." + name);
+	}
+
+	MediaType getMediaType() {
+		return mediaType;
+	}
+
+	<T> ExportWriter<T> writer(OutputStream out, List<ExportColumn<T>> columns, JsonFactory json) throws IOException {
+		if (this == CSV) {
+			return new CsvExportWriter<>(out, columns);
+		}
+		if (this == NDJSON) {
+			return new NdjsonExportWriter<>(out, columns, json);
+		}
+		return new ColumnarExportWriter<>(out, columns, GROUP_SIZE);
+	}
+}
@@ -0,0 +1,18 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.IOException;
+
+/**
+ * Writes export rows to a stream in one format. Rows may be buffered, so
+ * {@link #finish()} has to be called once the last one is written.
+ */
+interface ExportWriter<T> {
+
+	void write(T row) throws IOException;
+
+	/**
+	 * Writes anything still buffered and any trailer, and flushes. Doesn't
+	 * close the stream.
+	 */
+	void finish() throws IOException;
+}
@@ -0,0 +1,162 @@
+package anthonynguyen.showspace.controllers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import anthonynguyen.showspace.dao.EventDeleted;
+import anthonynguyen.showspace.dao.EventSaved;
+import anthonynguyen.showspace.dao.EventsImported;
+import anthonynguyen.showspace.dao.VenueDeleted;
+import anthonynguyen.showspace.dao.VenueGeocoded;
+import anthonynguyen.showspace.dao.VenueSaved;
+import anthonynguyen.showspace.dao.VenuesImported;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rendered markup for the parts of a page that are the same for everybody:
+ * the cards on the home page, the event and venue tables and the Mastodon
+ * feed. The fragments live in templates/fragments and the page puts the
+ * markup in with th:utext.
+ *
+ * A fragment is keyed by what it shows, usually the data version, the date
+ * and the search, so a hit skips the queries behind it as well as the
+ * rendering. Everything is dropped once a save or delete has committed; keys
+ * carry the version as well so that a render that overlaps a change is kept
+ * under a key nobody asks for again. The cache is bounded by
+ * showspace.fragments.max-chars of markup and reports the usual cache.*
+ * metrics as fragments. Renders are timed as showspace.fragment.render{fragment}.
+ */
+@Component
+public class FragmentCache {
+
+	/**
+	 * A fragment of a template and what it was rendered from.
+	 */
+	public record Key(String template, String fragment, List<Object> parts) {
+	}
+
+	@Autowired
+	private ITemplateEngine templateEngine;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+	@Value("${showspace.fragments.max-chars:4000000}")
+	private long maxChars;
+
+	private MeterRegistry meterRegistry;
+	private Cache<Key, String> fragments;
+
+	@PostConstruct
+	void init() {
+		fragments = Caffeine.newBuilder().maximumWeight(maxChars)
+				.<Key, String>weigher((key, markup) -> markup.length()).recordStats().build();
+
+		meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+		CaffeineCacheMetrics.monitor(meterRegistry, fragments, "fragments");
+	}
+
+	/**
+	 * @param parts everything the fragment's markup depends on; may hold nulls
+	 */
+	public Key key(String template, String fragment, Object... parts) {
+		return new Key(template, fragment, Collections.unmodifiableList(Arrays.asList(parts)));
+	}
+
+	/**
+	 * @return the markup, or null if it hasn't been rendered for this key
+	 */
+	public String get(Key key) {
+		return fragments.getIfPresent(key);
+	}
+
+	/**
+	 * Render a fragment and, if asked to, keep it. Markup rendered from a
+	 * fallback shouldn't be kept, or it would be shown until the next change.
+	 */
+	public String render(NativeWebRequest request, Key key, Map<String, Object> variables, boolean keep) {
+		HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+		HttpServletResponse servletResponse = request.getNativeResponse(HttpServletResponse.class);
+		WebContext context = new WebContext(JakartaServletWebApplication
+				.buildApplication(servletRequest.getServletContext()).buildExchange(servletRequest, servletResponse),
+				request.getLocale(), variables);
+		context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+				new ThymeleafEvaluationContext(applicationContext, null));
+
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String markup = templateEngine.process(key.template(), Set.of(key.fragment()), context);
+		sample.stop(Timer.builder("showspace.fragment.render").tag("fragment", key.fragment())
+				.register(meterRegistry));
+
+		if (keep) {
+			fragments.put(key, markup);
+		}
+		return markup;
+	}
+
+	public void invalidateAll() {
+		fragments.invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEventSaved(EventSaved saved) {
+		invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEventDeleted(EventDeleted deleted) {
+		invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenueSaved(VenueSaved saved) {
+		invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenueDeleted(VenueDeleted deleted) {
+		invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenueGeocoded(VenueGeocoded geocoded) {
+		invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenuesImported(VenuesImported imported) {
+		invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEventsImported(EventsImported imported) {
+		invalidateAll();
+	}
+}
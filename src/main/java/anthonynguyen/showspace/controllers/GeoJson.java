@@ -0,0 +1,63 @@
+package anthonynguyen.showspace.controllers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+
+import anthonynguyen.showspace.dao.VenueLocation;
+
+/**
+ * Builds the GeoJSON (RFC 7946) served to the events map: one Point feature
+ * per venue, with its upcoming events as a property.
+ */
+final class GeoJson {
+
+	static final String MEDIA_TYPE_VALUE = "application/geo+json";
+	static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+	private GeoJson() {
+	}
+
+	static Map<String, Object> featureCollection(List<VenueLocation> venues) {
+		List<Map<String, Object>> features = new ArrayList<>(venues.size());
+		for (VenueLocation venue : venues) {
+			features.add(feature(venue));
+		}
+
+		Map<String, Object> collection = new LinkedHashMap<>();
+		collection.put("type", "FeatureCollection");
+		collection.put("features", features);
+		return collection;
+	}
+
+	private static Map<String, Object> feature(VenueLocation venue) {
+		Map<String, Object> geometry = new LinkedHashMap<>();
+		geometry.put("type", "Point");
+		// GeoJSON positions are longitude first.
+		geometry.put("coordinates", new double[] { venue.getLongitude(), venue.getLatitude() });
+
+		List<Map<String, Object>> events = new ArrayList<>(venue.getEvents().size());
+		for (VenueLocation.UpcomingEvent event : venue.getEvents()) {
+			Map<String, Object> properties = new LinkedHashMap<>();
+			properties.put("id", event.id());
+			properties.put("name", event.name());
+			properties.put("date", event.date().toString());
+			properties.put("time", event.time() == null ? null : event.time().toString());
+			events.add(properties);
+		}
+
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("name", venue.getName());
+		properties.put("events", events);
+
+		Map<String, Object> feature = new LinkedHashMap<>();
+		feature.put("type", "Feature");
+		feature.put("id", venue.getId());
+		feature.put("geometry", geometry);
+		feature.put("properties", properties);
+		return feature;
+	}
+}
@@ -6,12 +6,19 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.NativeWebRequest;
 
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.DataVersions.Version;
+import anthonynguyen.showspace.dao.EventListItem;
 import anthonynguyen.showspace.dao.HomeService;
-import anthonynguyen.showspace.entities.Event;
-import anthonynguyen.showspace.entities.Venue;
+import anthonynguyen.showspace.dao.VenueEventCount;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Controller
@@ -21,16 +28,51 @@ public class HomeController {
     @Autowired
     private HomeService homeService;
 
+    @Autowired
+    private PageData pageData;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private FragmentCache fragmentCache;
 
     @GetMapping("/")
-    public String home(Model model) {
-        // Fetch the next 3 upcoming events
-        List<Event> featuredEvents = homeService.getFeaturedUpcomingEvents();
-        model.addAttribute("featuredEvents", featuredEvents);
-
-        // Fetch top 3 venues by event count
-        List<Venue> topVenues = homeService.getTopVenuesByEventCount(3);
-        model.addAttribute("topVenues", topVenues);
+    public String home(Model model, NativeWebRequest request) {
+        Version version = dataVersions.global();
+        if (ConditionalGet.pageNotModified(request, dataVersions, version)) {
+            return null;
+        }
+        LocalDate today = LocalDate.now();
+        FragmentCache.Key featuredKey = fragmentCache.key("fragments/home", "featured-events",
+                version.getCounter(), today);
+        FragmentCache.Key topVenuesKey = fragmentCache.key("fragments/home", "top-venues", version.getCounter(),
+                today);
+        String featuredHtml = fragmentCache.get(featuredKey);
+        String topVenuesHtml = fragmentCache.get(topVenuesKey);
+
+        // Fetch the next 3 upcoming events and the top 3 venues by event count
+        // at the same time, unless they're already rendered
+        CompletableFuture<Optional<List<EventListItem>>> featuredEvents = featuredHtml != null
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : pageData.tryLoad("featured-events", homeService::getFeaturedUpcomingEvents);
+        CompletableFuture<Optional<List<VenueEventCount>>> topVenues = topVenuesHtml != null
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : pageData.tryLoad("top-venues", () -> homeService.getTopVenuesByEventCount(3));
+
+        if (featuredHtml == null) {
+            Optional<List<EventListItem>> loaded = featuredEvents.join();
+            featuredHtml = fragmentCache.render(request, featuredKey,
+                    Map.of("featuredEvents", loaded.orElse(List.of())), loaded.isPresent());
+        }
+        if (topVenuesHtml == null) {
+            Optional<List<VenueEventCount>> loaded = topVenues.join();
+            topVenuesHtml = fragmentCache.render(request, topVenuesKey,
+                    Map.of("topVenues", loaded.orElse(List.of())), loaded.isPresent());
+        }
+
+        model.addAttribute("featuredEventsHtml", featuredHtml);
+        model.addAttribute("topVenuesHtml", topVenuesHtml);
 
         //return "redirect:/home.html";
         return "home";
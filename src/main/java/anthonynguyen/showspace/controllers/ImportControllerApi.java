@@ -0,0 +1,210 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.MediaType;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import anthonynguyen.showspace.dao.ImportService;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk import of venues and events from CSV (with a header row) or NDJSON.
+ *
+ * The upload is read a row at a time. Each row is bound and validated against
+ * the entity's constraints, the same as the add forms, and valid rows are
+ * inserted in batches, each its own transaction. Rejected rows don't stop the
+ * import; the response counts them and says why for the first few. Batches
+ * inserted before a failure stay in.
+ *
+ * Venue columns: name, roadName, postcode, capacity. Event columns: name,
+ * description, date (yyyy-MM-dd), time (HH:mm), venueId. Other columns are
+ * ignored.
+ */
+@RestController
+@RequestMapping(value = "/api/import", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ImportControllerApi {
+
+	private final static Logger log = LoggerFactory.getLogger(ImportControllerApi.class);
+
+	// Upload column to entity property.
+	private static final Map<String, String> VENUE_COLUMNS = Map.of("name", "name", "roadName", "roadName",
+			"postcode", "postcode", "capacity", "capacity");
+	private static final Map<String, String> EVENT_COLUMNS = Map.of("name", "name", "description", "description",
+			"date", "date", "time", "time", "venueId", "venue.id");
+
+	// Reads @DateTimeFormat patterns, like the form binding.
+	private static final ConversionService CONVERSION = new DefaultFormattingConversionService();
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Validator validator;
+
+	@Value("${showspace.import.batch-size:1000}")
+	private int batchSize;
+
+	@Value("${showspace.import.max-errors:100}")
+	private int maxErrors;
+
+	private SpringValidatorAdapter rowValidator;
+
+	@PostConstruct
+	void init() {
+		rowValidator = new SpringValidatorAdapter(validator);
+	}
+
+	// How to insert a batch of valid rows, recording the outcome.
+	private interface Batch<T> {
+
+		void insert(List<T> entities, List<Long> rows, ImportReport report);
+	}
+
+	@PostMapping(value = "/venues", consumes = { ImportRows.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public ImportReport importVenues(HttpServletRequest request) throws IOException {
+		return importRows(request, "venues", Venue::new, VENUE_COLUMNS, (venues, rows, report) -> {
+			importService.importVenues(venues);
+			report.imported(venues.size());
+		});
+	}
+
+	@PostMapping(value = "/events", consumes = { ImportRows.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public ImportReport importEvents(HttpServletRequest request) throws IOException {
+		return importRows(request, "events", Event::new, EVENT_COLUMNS, (events, rows, report) -> {
+			Set<Long> missing = importService.importEvents(events);
+			int imported = events.size();
+			for (int i = 0; i < events.size(); i++) {
+				long venueId = events.get(i).getVenue().getId();
+				if (missing.contains(venueId)) {
+					report.rejected(rows.get(i), "venueId", "No venue with id " + venueId + ".");
+					imported--;
+				}
+			}
+			report.imported(imported);
+		});
+	}
+
+	private <T> ImportReport importRows(HttpServletRequest request, String what, Supplier<T> blank,
+			Map<String, String> columns, Batch<T> batch) throws IOException {
+		long start = System.currentTimeMillis();
+		ImportReport report = new ImportReport(maxErrors);
+		List<T> entities = new ArrayList<>(batchSize);
+		List<Long> rows = new ArrayList<>(batchSize);
+
+		ImportRows.read(request.getInputStream(), MediaType.parseMediaType(request.getContentType()), objectMapper,
+				new ImportRows.Handler() {
+
+					@Override
+					public void row(long row, Map<String, String> values) {
+						T entity = bind(blank.get(), values, columns, row, report);
+						if (entity != null) {
+							entities.add(entity);
+							rows.add(row);
+							if (entities.size() == batchSize) {
+								flush(entities, rows, batch, report);
+							}
+						}
+					}
+
+					@Override
+					public void malformed(long row, String message) {
+						report.rejected(row, null, message);
+					}
+				});
+		flush(entities, rows, batch, report);
+
+		log.info("Imported " + report.getImported() + " " + what + ", rejected " + report.getRejected() + ", in "
+				+ (System.currentTimeMillis() - start) + " ms");
+		return report;
+	}
+
+	private <T> void flush(List<T> entities, List<Long> rows, Batch<T> batch, ImportReport report) {
+		if (entities.isEmpty()) {
+			return;
+		}
+		try {
+			batch.insert(entities, rows, report);
+		} catch (DataAccessException e) {
+			// e.g. a venue deleted while its events were being imported.
+			log.warn("Import batch from row " + rows.get(0) + " failed: " + e.getMessage());
+			for (long row : rows) {
+				report.rejected(row, null, "Not imported, the batch this row was in could not be saved.");
+			}
+		}
+		entities.clear();
+		rows.clear();
+	}
+
+	// The bound entity, or null if the row was rejected. Only the first error
+	// in a row is reported.
+	private <T> T bind(T target, Map<String, String> values, Map<String, String> columns, long row,
+			ImportReport report) {
+		MutablePropertyValues properties = new MutablePropertyValues();
+		values.forEach((column, value) -> {
+			String property = columns.get(column);
+			if (property != null) {
+				properties.add(property, value);
+			}
+		});
+
+		DataBinder binder = new DataBinder(target);
+		binder.setConversionService(CONVERSION);
+		binder.setValidator(rowValidator);
+		binder.bind(properties);
+		binder.validate();
+
+		BindingResult result = binder.getBindingResult();
+		if (!result.hasErrors()) {
+			return target;
+		}
+		FieldError error = result.getFieldError();
+		if (error == null) {
+			report.rejected(row, null, result.getAllErrors().get(0).getDefaultMessage());
+		} else if (error.isBindingFailure()) {
+			report.rejected(row, column(columns, error.getField()),
+					"Could not read \"" + error.getRejectedValue() + "\".");
+		} else {
+			report.rejected(row, column(columns, error.getField()), error.getDefaultMessage());
+		}
+		return null;
+	}
+
+	// The upload column a property (or the object it is on) came from.
+	private static String column(Map<String, String> columns, String property) {
+		for (Map.Entry<String, String> column : columns.entrySet()) {
+			if (column.getValue().equals(property) || column.getValue().startsWith(property + ".")) {
+				return column.getKey();
+			}
+		}
+		return property;
+	}
+}
@@ -0,0 +1,58 @@
+package anthonynguyen.showspace.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a bulk import did: how many rows went in, how many didn't, and why, for
+ * up to a limit of rejected rows.
+ */
+public class ImportReport {
+
+	/**
+	 * Why a row was rejected.
+	 *
+	 * @param row   position in the upload, counting from 1
+	 * @param field the column at fault, or null for the whole row
+	 */
+	public record RowError(long row, String field, String message) {
+	}
+
+	private final int maxErrors;
+
+	private long imported;
+	private long rejected;
+	private final List<RowError> errors = new ArrayList<>();
+
+	ImportReport(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	void imported(int rows) {
+		imported += rows;
+	}
+
+	void rejected(long row, String field, String message) {
+		rejected++;
+		if (errors.size() < maxErrors) {
+			errors.add(new RowError(row, field, message));
+		}
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	public List<RowError> getErrors() {
+		return errors;
+	}
+
+	/** True if there were more rejected rows than errors listed. */
+	public boolean isErrorsTruncated() {
+		return rejected > errors.size();
+	}
+}
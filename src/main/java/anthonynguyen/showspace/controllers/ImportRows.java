@@ -0,0 +1,120 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Reads the rows of an import upload one at a time as they arrive, as maps of
+ * column name to text value, so an upload is never held in memory whole.
+ *
+ * Rows are numbered from 1 in upload order, not counting a CSV header or
+ * blank NDJSON lines. An NDJSON line that isn't a JSON object is reported and
+ * skipped. A CSV file can't be resynchronised after a parse error, so reading
+ * stops at the first one.
+ */
+final class ImportRows {
+
+	static final String TEXT_CSV_VALUE = "text/csv";
+	static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+	private static final CsvMapper CSV = new CsvMapper();
+
+	interface Handler {
+
+		void row(long row, Map<String, String> columns);
+
+		void malformed(long row, String message);
+	}
+
+	private ImportRows() {
+	}
+
+	static void read(InputStream in, MediaType type, ObjectMapper objectMapper, Handler handler) throws IOException {
+		Charset charset = type.getCharset() == null ? StandardCharsets.UTF_8 : type.getCharset();
+		Reader reader = new InputStreamReader(in, charset);
+		if (TEXT_CSV.isCompatibleWith(type)) {
+			readCsv(reader, handler);
+		} else {
+			readNdjson(new BufferedReader(reader), objectMapper, handler);
+		}
+	}
+
+	private static void readCsv(Reader reader, Handler handler) throws IOException {
+		CsvSchema header = CsvSchema.emptySchema().withHeader();
+		long row = 0;
+		try (MappingIterator<Map<String, String>> rows = CSV.readerForMapOf(String.class).with(header)
+				.readValues(reader)) {
+			while (true) {
+				row++;
+				Map<String, String> columns;
+				try {
+					if (!rows.hasNextValue()) {
+						return;
+					}
+					columns = rows.nextValue();
+				} catch (JsonProcessingException e) {
+					handler.malformed(row, "Could not read CSV: " + e.getOriginalMessage() + ". Later rows were not read.");
+					return;
+				}
+				handler.row(row, columns);
+			}
+		}
+	}
+
+	private static void readNdjson(BufferedReader reader, ObjectMapper objectMapper, Handler handler)
+			throws IOException {
+		long row = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isBlank()) {
+				continue;
+			}
+			row++;
+			JsonNode node;
+			try {
+				node = objectMapper.readTree(line);
+			} catch (JsonProcessingException e) {
+				handler.malformed(row, "Could not read JSON: " + e.getOriginalMessage());
+				continue;
+			}
+			if (!node.isObject()) {
+				handler.malformed(row, "Each line should be a JSON object.");
+				continue;
+			}
+
+			Map<String, String> columns = new LinkedHashMap<>();
+			boolean flat = true;
+			for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				JsonNode value = field.getValue();
+				if (value.isContainerNode()) {
+					flat = false;
+					break;
+				}
+				columns.put(field.getKey(), value.isNull() ? null : value.asText());
+			}
+			if (flat) {
+				handler.row(row, columns);
+			} else {
+				handler.malformed(row, "Values should be strings, numbers or null.");
+			}
+		}
+	}
+}
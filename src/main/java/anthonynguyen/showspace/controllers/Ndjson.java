@@ -0,0 +1,51 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writes newline-delimited JSON, one row at a time as the source produces
+ * them, so an export never builds the whole collection in memory. The rows are
+ * written from an async request, so spring.mvc.async.request-timeout bounds how
+ * long a stream can run.
+ */
+final class Ndjson {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private Ndjson() {
+	}
+
+	static <T> ResponseEntity<StreamingResponseBody> stream(ObjectWriter writer, Consumer<Consumer<T>> source) {
+		ObjectWriter rowWriter = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		StreamingResponseBody body = out -> {
+			OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+			try {
+				source.accept(row -> {
+					try {
+						rowWriter.writeValue(buffered, row);
+						buffered.write('\n');
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			buffered.flush();
+		};
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+}
@@ -0,0 +1,54 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * One flat JSON object per line, keyed by column name. Dates and times are ISO
+ * 8601 strings.
+ */
+final class NdjsonExportWriter<T> implements ExportWriter<T> {
+
+	private final JsonGenerator json;
+	private final List<ExportColumn<T>> columns;
+	private boolean written;
+
+	NdjsonExportWriter(OutputStream out, List<ExportColumn<T>> columns, JsonFactory factory) throws IOException {
+		this.json = factory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.json.setRootValueSeparator(new SerializedString("\n"));
+		this.columns = columns;
+	}
+
+	@Override
+	public void write(T row) throws IOException {
+		json.writeStartObject();
+		for (ExportColumn<T> column : columns) {
+			Object value = column.value().apply(row);
+			json.writeFieldName(column.name());
+			if (value == null) {
+				json.writeNull();
+			} else if (column.type() == ExportColumn.Type.LONG) {
+				json.writeNumber(((Number) value).longValue());
+			} else if (column.type() == ExportColumn.Type.DOUBLE) {
+				json.writeNumber(((Number) value).doubleValue());
+			} else {
+				json.writeString(value.toString());
+			}
+		}
+		json.writeEndObject();
+		written = true;
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (written) {
+			json.writeRaw('\n');
+		}
+		json.flush();
+	}
+}
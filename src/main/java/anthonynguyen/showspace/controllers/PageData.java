@@ -0,0 +1,122 @@
+package anthonynguyen.showspace.controllers;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Loads the independent parts of a page at the same time, so a page takes as
+ * long as its slowest part rather than the sum of them all.
+ *
+ * Each part is a named source with a timeout, showspace.page.timeout-ms or
+ * showspace.page.timeouts.{source}. A source that fails or runs out of time is
+ * shown with its fallback, usually an empty list, and the rest of the page
+ * still renders. Loads run on a fixed pool with a bounded queue; once both are
+ * full the request thread loads the part itself. Each load is timed as
+ * showspace.page.source{source, outcome}, and the pool reports the usual
+ * executor.* metrics as page-data.
+ */
+@Component
+public class PageData {
+
+	private final static Logger log = LoggerFactory.getLogger(PageData.class);
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+	@Autowired
+	private Environment env;
+
+	@Value("${showspace.page.threads:16}")
+	private int threads;
+
+	@Value("${showspace.page.queue-capacity:200}")
+	private int queueCapacity;
+
+	@Value("${showspace.page.timeout-ms:2000}")
+	private long defaultTimeoutMs;
+
+	private MeterRegistry meterRegistry;
+	private ExecutorService executor;
+
+	@PostConstruct
+	void init() {
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = runnable -> {
+			Thread thread = new Thread(runnable, "page-data-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), factory, new ThreadPoolExecutor.CallerRunsPolicy());
+		pool.allowCoreThreadTimeOut(true);
+
+		meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+		executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "page-data");
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Start loading one part of a page.
+	 *
+	 * @param source   name of the part, used for its timeout and metrics
+	 * @param loader   loads the part
+	 * @param fallback shown instead if the loader fails or times out
+	 * @return the part, or the fallback; never completes exceptionally
+	 */
+	public <T> CompletableFuture<T> load(String source, Supplier<T> loader, T fallback) {
+		return tryLoad(source, loader).thenApply(value -> value.orElse(fallback));
+	}
+
+	/**
+	 * Start loading one part of a page, for callers that need to tell a
+	 * fallback from real data, e.g. so as not to cache it.
+	 *
+	 * @return the part, or empty if the loader failed or timed out
+	 */
+	public <T> CompletableFuture<Optional<T>> tryLoad(String source, Supplier<T> loader) {
+		long timeoutMs = env.getProperty("showspace.page.timeouts." + source, Long.class, defaultTimeoutMs);
+		long start = System.nanoTime();
+
+		return CompletableFuture.supplyAsync(loader, executor).orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+				.handle((value, failure) -> {
+					Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+					String outcome = cause == null ? "success" : cause instanceof TimeoutException ? "timeout" : "error";
+					Timer.builder("showspace.page.source").tag("source", source).tag("outcome", outcome)
+							.register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+					if (cause != null) {
+						log.warn("Showing fallback for " + source + " (" + outcome + "): " + cause);
+						return Optional.<T>empty();
+					}
+					return Optional.ofNullable(value);
+				});
+	}
+}
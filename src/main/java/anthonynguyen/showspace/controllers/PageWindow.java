@@ -0,0 +1,59 @@
+package anthonynguyen.showspace.controllers;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. The services are asked for one row
+ * more than the page size, and the extra row tells us whether there is
+ * another page in the direction we were reading.
+ */
+final class PageWindow<T> {
+
+	private final List<T> items;
+	private final boolean hasNext;
+	private final boolean hasPrev;
+
+	private PageWindow(List<T> items, boolean hasNext, boolean hasPrev) {
+		this.items = items;
+		this.hasNext = hasNext;
+		this.hasPrev = hasPrev;
+	}
+
+	/**
+	 * Rows read forwards, either from the start or after a cursor.
+	 */
+	static <T> PageWindow<T> forward(List<T> rows, int size, boolean fromCursor) {
+		boolean more = rows.size() > size;
+		List<T> items = more ? rows.subList(0, size) : rows;
+		return new PageWindow<>(items, more, fromCursor && !items.isEmpty());
+	}
+
+	/**
+	 * Rows read backwards from a cursor, already put back in listing order.
+	 */
+	static <T> PageWindow<T> backward(List<T> rows, int size) {
+		boolean more = rows.size() > size;
+		List<T> items = more ? rows.subList(rows.size() - size, rows.size()) : rows;
+		return new PageWindow<>(items, !items.isEmpty(), more);
+	}
+
+	List<T> getItems() {
+		return items;
+	}
+
+	boolean hasNext() {
+		return hasNext;
+	}
+
+	boolean hasPrev() {
+		return hasPrev;
+	}
+
+	T first() {
+		return items.get(0);
+	}
+
+	T last() {
+		return items.get(items.size() - 1);
+	}
+}
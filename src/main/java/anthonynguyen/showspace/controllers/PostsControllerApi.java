@@ -0,0 +1,47 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import anthonynguyen.showspace.dao.MastodonPostService;
+import anthonynguyen.showspace.entities.MastodonPost;
+import anthonynguyen.showspace.exceptions.PostNotFoundException;
+
+/**
+ * Delivery status of posts queued for Mastodon.
+ */
+@RestController
+@RequestMapping(value = "/api/posts", produces = { MediaType.APPLICATION_JSON_VALUE, MediaTypes.HAL_JSON_VALUE })
+public class PostsControllerApi {
+
+	private static final String NOT_FOUND_MSG = "{ \"error\": \"%s\", \"id\": %d }";
+
+	@Autowired
+	private MastodonPostService mastodonPostService;
+
+	@ExceptionHandler(PostNotFoundException.class)
+	public ResponseEntity<?> postNotFoundHandler(PostNotFoundException ex) {
+		return ResponseEntity.status(HttpStatus.NOT_FOUND)
+				.body(String.format(NOT_FOUND_MSG, ex.getMessage(), ex.getId()));
+	}
+
+	@GetMapping("/{id}")
+	public EntityModel<MastodonPost> getPost(@PathVariable("id") long id) {
+		MastodonPost post = mastodonPostService.findById(id);
+		if (post == null)
+			throw new PostNotFoundException(id);
+		return EntityModel.of(post, linkTo(PostsControllerApi.class).slash(id).withSelfRel(),
+				linkTo(EventsControllerApi.class).slash(post.getEventId()).withRel("event"));
+	}
+}
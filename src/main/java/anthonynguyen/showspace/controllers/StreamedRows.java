@@ -0,0 +1,86 @@
+package anthonynguyen.showspace.controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import org.springframework.web.context.request.NativeWebRequest;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rows of a keyset-paginated listing for a th:each, read a page at a time as
+ * the template gets to them rather than before it starts. Only the page being
+ * written is held in memory.
+ *
+ * Before each page is read, whatever the template has written so far is
+ * flushed, so the browser has the top of the page while the query runs. Once
+ * that has happened the response is committed: a query that fails part way
+ * leaves the page cut short instead of showing the error page, and nothing
+ * rendered after the listing can set a header or start a session.
+ */
+final class StreamedRows<T> implements Iterable<T> {
+
+	private final Function<T, List<T>> pageAfter;
+	private final int pageSize;
+	private final Runnable flush;
+
+	/**
+	 * @param pageAfter reads the page after a row, or the first page for null
+	 * @param pageSize  rows asked for in each page; a shorter page is the last
+	 * @param flush     sends what has been written so far
+	 */
+	StreamedRows(Function<T, List<T>> pageAfter, int pageSize, Runnable flush) {
+		this.pageAfter = pageAfter;
+		this.pageSize = pageSize;
+		this.flush = flush;
+	}
+
+	/**
+	 * Flushes the response a request is being answered with.
+	 */
+	static Runnable flushing(NativeWebRequest request) {
+		HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+		return () -> {
+			try {
+				response.flushBuffer();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		};
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+
+			private Iterator<T> page = Collections.emptyIterator();
+			private T last;
+			private boolean lastPage;
+
+			@Override
+			public boolean hasNext() {
+				if (!page.hasNext() && !lastPage) {
+					flush.run();
+					List<T> rows = pageAfter.apply(last);
+					lastPage = rows.size() < pageSize;
+					page = rows.iterator();
+				}
+				return page.hasNext();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				last = page.next();
+				return last;
+			}
+		};
+	}
+}
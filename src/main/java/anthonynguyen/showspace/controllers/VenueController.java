@@ -7,13 +7,17 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.validation.BindingResult;
 import jakarta.validation.Valid;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import anthonynguyen.showspace.entities.Venue;
-import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.DataVersions.Version;
+import anthonynguyen.showspace.dao.EventListItem;
 import anthonynguyen.showspace.dao.VenueService;
 import anthonynguyen.showspace.dao.EventService;
 import anthonynguyen.showspace.exceptions.VenueNotFoundException;
@@ -33,6 +37,12 @@ public class VenueController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private FragmentCache fragmentCache;
+
     @ExceptionHandler(VenueNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public String venueNotFoundHandler(VenueNotFoundException ex, Model model) {
@@ -42,21 +52,36 @@ public class VenueController {
    
 
     @GetMapping
-    public String getAllVenues(@RequestParam(value = "search", required = false) String search, Model model) {
-        List<Venue> venues;
-    	
-        if (search != null && !search.isEmpty()) {
-			venues = venueService.findByNameContainingIgnoreCase(search);
-		} else {
-			venues = venueService.findAll();
-		}
-        
-    	model.addAttribute("venues", venues);
+    public String getAllVenues(@RequestParam(value = "search", required = false) String search, Model model,
+            NativeWebRequest request) {
+        Version version = dataVersions.global();
+        if (ConditionalGet.pageNotModified(request, dataVersions, version)) {
+            return null;
+        }
+        FragmentCache.Key key = fragmentCache.key("fragments/venues", "venue-table", version.getCounter(), search);
+        String venuesHtml = fragmentCache.get(key);
+
+        if (venuesHtml == null) {
+            List<Venue> venues;
+
+            if (search != null && !search.isEmpty()) {
+                venues = venueService.search(search);
+            } else {
+                venues = venueService.findAll();
+            }
+            venuesHtml = fragmentCache.render(request, key, Map.of("venues", venues), true);
+        }
+
+    	model.addAttribute("venuesHtml", venuesHtml);
         return "venues/index"; 
     }
 
     @GetMapping("/{id}")
-    public String getVenue(@PathVariable("id") long id, Model model) {
+    public String getVenue(@PathVariable("id") long id, Model model, NativeWebRequest request) {
+        if (ConditionalGet.pageNotModified(request, dataVersions, dataVersions.global())) {
+            return null;
+        }
+
     	// If venue is null, throw a VenueNotFoundException
     	Venue venue = venueService.findById(id);
         if (venue == null) {
@@ -65,7 +90,7 @@ public class VenueController {
 
         // Fetch upcoming events linked to this venue
         LocalDate today = LocalDate.now();
-        List<Event> upcomingEvents = new ArrayList<>();
+        List<EventListItem> upcomingEvents = new ArrayList<>();
         try {
             upcomingEvents = eventService.findUpcomingEventsByVenue(id, today);
         } catch (Exception e) {
@@ -3,12 +3,17 @@ package anthonynguyen.showspace.controllers;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,12 +21,26 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import anthonynguyen.showspace.assemblers.VenueModelAssembler;
+import anthonynguyen.showspace.dao.BoundingBox;
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.DataVersions.Kind;
+import anthonynguyen.showspace.dao.VenueCursor;
+import anthonynguyen.showspace.dao.VenueLocation;
 import anthonynguyen.showspace.dao.VenueService;
 import anthonynguyen.showspace.entities.Event;
 import anthonynguyen.showspace.entities.Venue;
+import anthonynguyen.showspace.exceptions.InvalidBoundingBoxException;
+import anthonynguyen.showspace.exceptions.InvalidCursorException;
 import anthonynguyen.showspace.exceptions.VenueNotFoundException;
 
 @RestController
@@ -30,6 +49,10 @@ public class VenuesControllerApi {
 
     private static final String NOT_FOUND_MSG = "{ \"error\": \"%s\", \"id\": %d }";
 
+    private static final String BAD_CURSOR_MSG = "{ \"error\": \"%s\", \"cursor\": \"%s\" }";
+
+    private static final String BAD_BBOX_MSG = "{ \"error\": \"%s\" }";
+
     @Autowired
     private VenueService venueService;
     
@@ -37,14 +60,51 @@ public class VenuesControllerApi {
     @Autowired
     private VenueModelAssembler venueAssembler;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Value("${showspace.api.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${showspace.api.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${showspace.api.geo.max-age-seconds:60}")
+    private long geoMaxAgeSeconds;
+
+    // Streamed venues are flat rows; their events are a separate stream.
+    @JsonIgnoreProperties("events")
+    private abstract static class VenueRow {
+    }
+
     @ExceptionHandler(VenueNotFoundException.class)
     public ResponseEntity<?> venueNotFoundHandler(VenueNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(String.format(NOT_FOUND_MSG, ex.getMessage(), ex.getId()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> invalidCursorHandler(InvalidCursorException ex) {
+        String cursor = ex.getCursor() != null && ex.getCursor().matches("[A-Za-z0-9_-]*") ? ex.getCursor() : "";
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(String.format(BAD_CURSOR_MSG, "Invalid page cursor", cursor));
+    }
+
+    @ExceptionHandler(InvalidBoundingBoxException.class)
+    public ResponseEntity<?> invalidBoundingBoxHandler(InvalidBoundingBoxException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                .body(String.format(BAD_BBOX_MSG, "Invalid bounding box, expected west,south,east,north"));
+    }
+
     @GetMapping("/{id}")
-    public EntityModel<Venue> getVenue(@PathVariable("id") long id) {
+    public EntityModel<Venue> getVenue(@PathVariable("id") long id, NativeWebRequest request) {
+        // A venue is shown with its events.
+        if (ConditionalGet.notModified(request, dataVersions, dataVersions.global())) {
+            return null;
+        }
     	Venue venue = venueService.findById(id);
     	if (venue == null)
     		throw new VenueNotFoundException(id);
@@ -52,7 +112,10 @@ public class VenuesControllerApi {
     }
 
     @GetMapping("/{id}/next3events")
-    public ResponseEntity<?> getNextThreeEvents(@PathVariable("id") long id) {
+    public ResponseEntity<?> getNextThreeEvents(@PathVariable("id") long id, NativeWebRequest request) {
+        if (ConditionalGet.notModified(request, dataVersions, dataVersions.global())) {
+            return null;
+        }
         Venue venue = venueService.findById(id);
         if (venue == null) {
             throw new VenueNotFoundException(id);
@@ -61,10 +124,81 @@ public class VenuesControllerApi {
         return ResponseEntity.ok(nextThreeEvents);
     }
 
+    /**
+     * A page of venues in (name, id) order. Pages are walked with the opaque
+     * cursors in the next/prev links; if both after and before are given,
+     * after wins.
+     */
     @GetMapping
-    public CollectionModel<EntityModel<Venue>> getAllVenues() {
-        return venueAssembler.toCollectionModel(venueService.findAll())
-                .add(linkTo(methodOn(VenuesControllerApi.class).getAllVenues()).withSelfRel());
+    public CollectionModel<EntityModel<Venue>> getAllVenues(@RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", required = false) Integer size, NativeWebRequest request) {
+        if (ConditionalGet.notModified(request, dataVersions, dataVersions.global())) {
+            return null;
+        }
+        int limit = pageSize(size);
+
+        PageWindow<Venue> page;
+        if (after == null && before != null) {
+            page = PageWindow.backward(venueService.findPageBefore(VenueCursor.decode(before), limit + 1), limit);
+        } else {
+            VenueCursor cursor = after == null ? null : VenueCursor.decode(after);
+            page = PageWindow.forward(venueService.findPage(cursor, limit + 1), limit, cursor != null);
+        }
+
+        CollectionModel<EntityModel<Venue>> model = venueAssembler.toCollectionModel(page.getItems())
+                .add(linkTo(methodOn(VenuesControllerApi.class).getAllVenues(after, before, size, null)).withSelfRel());
+        if (page.hasNext()) {
+            String next = VenueCursor.of(page.last()).encode();
+            model.add(linkTo(methodOn(VenuesControllerApi.class).getAllVenues(next, null, size, null))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        if (page.hasPrev()) {
+            String prev = VenueCursor.of(page.first()).encode();
+            model.add(linkTo(methodOn(VenuesControllerApi.class).getAllVenues(null, prev, size, null))
+                    .withRel(IanaLinkRelations.PREV));
+        }
+        return model;
+    }
+
+    /**
+     * Every venue as newline-delimited JSON, written as rows come back from
+     * the database.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllVenues() {
+        ObjectMapper rows = objectMapper.copy().addMixIn(Venue.class, VenueRow.class);
+        return Ndjson.<Venue>stream(rows.writerFor(Venue.class), venueService::streamAll);
+    }
+
+    /**
+     * Venues with upcoming events as a GeoJSON FeatureCollection, for the
+     * events map. Events and venues both go into the version, and what's
+     * upcoming changes at midnight, so a client revalidating with
+     * If-None-Match gets a 304 without the query running.
+     *
+     * @param bbox optional "west,south,east,north" box to restrict venues to
+     */
+    @GetMapping(value = "/geo", produces = { GeoJson.MEDIA_TYPE_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<byte[]> getVenuesGeoJson(@RequestParam(value = "bbox", required = false) String bbox,
+            NativeWebRequest request) throws JsonProcessingException {
+        BoundingBox within = bbox == null ? null : BoundingBox.parse(bbox);
+        if (ConditionalGet.notModifiedToday(request, dataVersions,
+                dataVersions.of(Kind.VENUES).and(dataVersions.of(Kind.EVENTS)),
+                CacheControl.maxAge(geoMaxAgeSeconds, TimeUnit.SECONDS).mustRevalidate(), bbox)) {
+            return null;
+        }
+        List<VenueLocation> venues = venueService.findUpcomingLocations(LocalDate.now(), within);
+
+        byte[] body = objectMapper.writeValueAsBytes(GeoJson.featureCollection(venues));
+        return ResponseEntity.ok().contentType(GeoJson.MEDIA_TYPE).body(body);
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
     }
 
 }
@@ -0,0 +1,61 @@
+package anthonynguyen.showspace.dao;
+
+import anthonynguyen.showspace.exceptions.InvalidBoundingBoxException;
+
+/**
+ * A longitude/latitude rectangle, written as "west,south,east,north" like a
+ * GeoJSON bbox. Boxes crossing the antimeridian aren't supported.
+ */
+public final class BoundingBox {
+
+	private final double west;
+	private final double south;
+	private final double east;
+	private final double north;
+
+	public BoundingBox(double west, double south, double east, double north) {
+		this.west = west;
+		this.south = south;
+		this.east = east;
+		this.north = north;
+	}
+
+	public static BoundingBox parse(String bbox) {
+		String[] parts = bbox.split(",");
+		if (parts.length != 4) {
+			throw new InvalidBoundingBoxException(bbox);
+		}
+
+		double[] values = new double[4];
+		try {
+			for (int i = 0; i < 4; i++) {
+				values[i] = Double.parseDouble(parts[i].trim());
+			}
+		} catch (NumberFormatException e) {
+			throw new InvalidBoundingBoxException(bbox);
+		}
+
+		BoundingBox box = new BoundingBox(values[0], values[1], values[2], values[3]);
+		if (!(box.west <= box.east && box.south <= box.north && box.west >= -180 && box.east <= 180
+				&& box.south >= -90 && box.north <= 90)) {
+			throw new InvalidBoundingBoxException(bbox);
+		}
+		return box;
+	}
+
+	public double getWest() {
+		return west;
+	}
+
+	public double getSouth() {
+		return south;
+	}
+
+	public double getEast() {
+		return east;
+	}
+
+	public double getNorth() {
+		return north;
+	}
+}
@@ -0,0 +1,80 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops calling a remote service after repeated failures.
+ *
+ * After {@code failureThreshold} failures in a row the breaker opens and
+ * refuses calls until {@code openMillis} have passed. It then lets a single
+ * trial call through: success closes the breaker again, failure re-opens it.
+ */
+public class CircuitBreaker {
+
+	private final static Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final String name;
+	private final int failureThreshold;
+	private final long openMillis;
+	private final LongSupplier clock;
+
+	private State state = State.CLOSED;
+	private int failures;
+	private long openedAt;
+
+	public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+		this(name, failureThreshold, openMillis, System::currentTimeMillis);
+	}
+
+	public CircuitBreaker(String name, int failureThreshold, long openMillis, LongSupplier clock) {
+		this.name = name;
+		this.failureThreshold = Math.max(1, failureThreshold);
+		this.openMillis = openMillis;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return true if the caller may go ahead with a remote call, in which
+	 *         case it must report the outcome with recordSuccess/recordFailure
+	 */
+	public synchronized boolean allowRequest() {
+		if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+			state = State.HALF_OPEN;
+			log.info("Circuit " + name + " half-open, trying one call");
+			return true;
+		}
+		return state == State.CLOSED;
+	}
+
+	public synchronized void recordSuccess() {
+		if (state != State.CLOSED) {
+			log.info("Circuit " + name + " closed");
+		}
+		state = State.CLOSED;
+		failures = 0;
+	}
+
+	public synchronized void recordFailure() {
+		failures++;
+		if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+			state = State.OPEN;
+			openedAt = clock.getAsLong();
+			log.warn("Circuit " + name + " opened after " + failures + " failures, retrying in " + openMillis + " ms");
+		}
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
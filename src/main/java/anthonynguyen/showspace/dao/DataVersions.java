@@ -0,0 +1,163 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Modification counters behind the ETag and Last-Modified headers.
+ *
+ * There is a counter for everything, one for each kind of entity and one for
+ * each entity, bumped once the save or delete that changed it has committed.
+ * A page or API response takes its validators from the counters it depends
+ * on, so a client revalidating with If-None-Match can be answered with a 304
+ * before any of its queries run.
+ *
+ * Counters start again from zero on every start, so validators also carry
+ * {@link #getEpoch()}, the time this instance started.
+ *
+ * Only entities that have changed since then have a counter of their own, and
+ * a delete drops it. The rest share one per kind, which a delete moves past
+ * the deleted entity's, so a validator taken before the delete never matches
+ * again.
+ */
+@Component
+public class DataVersions {
+
+	public enum Kind {
+		EVENTS, VENUES
+	}
+
+	/**
+	 * How many changes there have been, and when the last one was.
+	 */
+	public static final class Version {
+
+		private final long counter;
+		private final long lastModified;
+
+		Version(long counter, long lastModified) {
+			this.counter = counter;
+			this.lastModified = lastModified;
+		}
+
+		public long getCounter() {
+			return counter;
+		}
+
+		/** Milliseconds since the epoch. */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * A version that changes whenever either of these does.
+		 */
+		public Version and(Version other) {
+			return new Version(counter + other.counter, Math.max(lastModified, other.lastModified));
+		}
+
+		private Version next() {
+			return new Version(counter + 1, Math.max(lastModified, System.currentTimeMillis()));
+		}
+	}
+
+	private final long epoch = System.currentTimeMillis();
+	private final Version initial = new Version(0, epoch);
+
+	private volatile Version global = initial;
+	private final Map<Kind, Version> kinds = new EnumMap<>(Kind.class);
+	private final Map<Kind, ConcurrentMap<Long, Version>> entities = new EnumMap<>(Kind.class);
+	private final Map<Kind, Version> unchanged = new EnumMap<>(Kind.class);
+
+	public DataVersions() {
+		for (Kind kind : Kind.values()) {
+			kinds.put(kind, initial);
+			entities.put(kind, new ConcurrentHashMap<>());
+			unchanged.put(kind, initial);
+		}
+	}
+
+	public long getEpoch() {
+		return epoch;
+	}
+
+	/** Changes with every save or delete. */
+	public Version global() {
+		return global;
+	}
+
+	public synchronized Version of(Kind kind) {
+		return kinds.get(kind);
+	}
+
+	/** Changes when this one entity is saved or deleted. */
+	public synchronized Version of(Kind kind, long id) {
+		Version version = entities.get(kind).get(id);
+		return version == null ? unchanged.get(kind) : version;
+	}
+
+	public synchronized void changed(Kind kind) {
+		kinds.put(kind, kinds.get(kind).next());
+		global = global.next();
+	}
+
+	public synchronized void changed(Kind kind, long id) {
+		entities.get(kind).compute(id, (key, version) -> (version == null ? unchanged.get(kind) : version).next());
+		changed(kind);
+	}
+
+	public synchronized void deleted(Kind kind, long id) {
+		Version last = entities.get(kind).remove(id);
+		Version shared = unchanged.get(kind);
+		unchanged.put(kind, (last == null || last.counter < shared.counter ? shared : last).next());
+		changed(kind);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEventSaved(EventSaved saved) {
+		changed(Kind.EVENTS, saved.getEventId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEventDeleted(EventDeleted deleted) {
+		deleted(Kind.EVENTS, deleted.getEventId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenueSaved(VenueSaved saved) {
+		changed(Kind.VENUES, saved.getVenueId());
+	}
+
+	// The venue's events go with it. Their ids aren't known here, so their
+	// counters stay until the next start; their validators still change, as
+	// each event's takes in the venues' counter.
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenueDeleted(VenueDeleted deleted) {
+		deleted(Kind.VENUES, deleted.getVenueId());
+		changed(Kind.EVENTS);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenueGeocoded(VenueGeocoded geocoded) {
+		for (long venueId : geocoded.getVenueIds()) {
+			changed(Kind.VENUES, venueId);
+		}
+	}
+
+	// New rows have no counter of their own to bump.
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenuesImported(VenuesImported imported) {
+		changed(Kind.VENUES);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEventsImported(EventsImported imported) {
+		changed(Kind.EVENTS);
+	}
+}
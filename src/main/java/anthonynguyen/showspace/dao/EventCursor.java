@@ -0,0 +1,63 @@
+package anthonynguyen.showspace.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import anthonynguyen.showspace.exceptions.InvalidCursorException;
+
+/**
+ * Position in the event listing, which is ordered by (date, time, id) with
+ * untimed events first on each date. Encoded as an opaque URL-safe string for
+ * use in API links.
+ */
+public final class EventCursor {
+
+	private final LocalDate date;
+	private final LocalTime time;
+	private final long id;
+
+	public EventCursor(LocalDate date, LocalTime time, long id) {
+		this.date = date;
+		this.time = time;
+		this.id = id;
+	}
+
+	public static EventCursor of(EventSummary event) {
+		return new EventCursor(event.getDate(), event.getTime(), event.getId());
+	}
+
+	public String encode() {
+		String key = date + "|" + (time == null ? "" : time.toString()) + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static EventCursor decode(String cursor) {
+		try {
+			String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = key.split("\\|", -1);
+			if (parts.length != 3) {
+				throw new InvalidCursorException(cursor);
+			}
+
+			LocalTime time = parts[1].isEmpty() ? null : LocalTime.parse(parts[1]);
+			return new EventCursor(LocalDate.parse(parts[0]), time, Long.parseLong(parts[2]));
+		} catch (IllegalArgumentException | DateTimeException e) {
+			throw new InvalidCursorException(cursor);
+		}
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public LocalTime getTime() {
+		return time;
+	}
+
+	public long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,17 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * Published when an event is deleted.
+ */
+public class EventDeleted {
+
+	private final long eventId;
+
+	public EventDeleted(long eventId) {
+		this.eventId = eventId;
+	}
+
+	public long getEventId() {
+		return eventId;
+	}
+}
@@ -0,0 +1,11 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An event as exported, with its venue's id and name.
+ */
+public record EventExportRow(long id, String name, String description, LocalDate date, LocalTime time, long venueId,
+		String venueName) {
+}
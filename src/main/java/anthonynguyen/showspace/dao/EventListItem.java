@@ -0,0 +1,51 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An event as the HTML listings show it, with just its venue's id and name,
+ * read without loading either entity.
+ */
+public final class EventListItem {
+
+	private final long id;
+	private final String name;
+	private final LocalDate date;
+	private final LocalTime time;
+	private final Long venueId;
+	private final String venueName;
+
+	public EventListItem(long id, String name, LocalDate date, LocalTime time, Long venueId, String venueName) {
+		this.id = id;
+		this.name = name;
+		this.date = date;
+		this.time = time;
+		this.venueId = venueId;
+		this.venueName = venueName;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public LocalTime getTime() {
+		return time;
+	}
+
+	public Long getVenueId() {
+		return venueId;
+	}
+
+	public String getVenueName() {
+		return venueName;
+	}
+}
@@ -3,30 +3,123 @@ package anthonynguyen.showspace.dao;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import anthonynguyen.showspace.entities.Event;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventRepository extends CrudRepository<Event, Long> {
+
+	// Projections for pages that only show a few columns, so neither the event
+	// nor its eager venue is loaded, snapshotted or held in the session.
+
+	String LIST_ITEM = "SELECT new anthonynguyen.showspace.dao.EventListItem(e.id, e.name, e.date, e.time, v.id, v.name) "
+			+ "FROM Event e LEFT JOIN e.venue v ";
+
+	String SUMMARY = "SELECT new anthonynguyen.showspace.dao.EventSummary(e.id, e.name, e.description, e.date, e.time) "
+			+ "FROM Event e ";
+
+	// The venue is lazy everywhere else; a single event is shown with it.
+	@Override
+	@EntityGraph("Event.venue")
+	Optional<Event> findById(Long id);
 	
 	List<Event> findAllByOrderByDateAscTimeAsc();
 
 	List<Event> findByNameContainingIgnoreCase(String name);
-    
-	List<Event> findByDateAfterOrDateOrderByDateAscNameAsc(LocalDate today, LocalDate todayAgain);
+
+	@Query(LIST_ITEM + "ORDER BY e.date ASC, e.name ASC")
+	List<EventListItem> findTimeline();
+
+	@Query(LIST_ITEM + "WHERE LOCATE(UPPER(:name), UPPER(e.name)) > 0 ORDER BY e.date ASC, e.name ASC")
+	List<EventListItem> findTimelineByName(@Param("name") String name);
+
+	List<Event> findByDateGreaterThanEqualOrderByDateAscNameAsc(LocalDate today);
 
 	List<Event> findByDateBeforeOrderByDateDescNameAsc(LocalDate today);
 
-    @Query("SELECT e FROM Event e WHERE e.venue.id = :venueId AND e.date >= :today ORDER BY e.date ASC")
-    List<Event> findUpcomingEventsByVenue(@Param("venueId") long venueId, @Param("today") LocalDate today);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(LIST_ITEM + "WHERE v.id = :venueId AND e.date >= :today ORDER BY e.date ASC")
+    List<EventListItem> findUpcomingEventsByVenue(@Param("venueId") long venueId, @Param("today") LocalDate today);
 
     boolean existsByVenueId(long venueId);
+
+    @Query("SELECT e.venue.id FROM Event e WHERE e.id = :id")
+    Optional<Long> findVenueIdById(@Param("id") long id);
     
     boolean existsByVenueIdAndDateAfter(long venueId, LocalDate currentDate);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Event> findTop3ByVenueIdAndDateAfterOrderByDateAsc(long venueId, LocalDate date);
 
+    // Keyset pages in (date, time, id) order, untimed events first on each date.
+    // Untimed cursors need their own predicates since NULL never compares. The
+    // API doesn't write out the venue, so it isn't joined. The leading date
+    // bound is redundant but lets the database use the date index, which it
+    // can't for the OR on its own.
+
+    @Query(SUMMARY + "ORDER BY e.date ASC, e.time ASC NULLS FIRST, e.id ASC")
+    List<EventSummary> findFirstPage(Pageable pageable);
+
+    @Query(SUMMARY + "WHERE e.date >= :date AND (e.date > :date OR (e.date = :date AND (e.time > :time OR (e.time = :time AND e.id > :id)))) "
+            + "ORDER BY e.date ASC, e.time ASC NULLS FIRST, e.id ASC")
+    List<EventSummary> findPageAfter(@Param("date") LocalDate date, @Param("time") LocalTime time, @Param("id") long id,
+            Pageable pageable);
+
+    @Query(SUMMARY + "WHERE e.date >= :date AND (e.date > :date OR (e.date = :date AND (e.time IS NOT NULL OR e.id > :id))) "
+            + "ORDER BY e.date ASC, e.time ASC NULLS FIRST, e.id ASC")
+    List<EventSummary> findPageAfterUntimed(@Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE e.date <= :date AND (e.date < :date OR (e.date = :date AND (e.time IS NULL OR e.time < :time OR (e.time = :time AND e.id < :id)))) "
+            + "ORDER BY e.date DESC, e.time DESC NULLS LAST, e.id DESC")
+    List<EventSummary> findPageBefore(@Param("date") LocalDate date, @Param("time") LocalTime time, @Param("id") long id,
+            Pageable pageable);
+
+    @Query(SUMMARY + "WHERE e.date <= :date AND (e.date < :date OR (e.date = :date AND e.time IS NULL AND e.id < :id)) "
+            + "ORDER BY e.date DESC, e.time DESC NULLS LAST, e.id DESC")
+    List<EventSummary> findPageBeforeUntimed(@Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Event e ORDER BY e.date ASC, e.time ASC NULLS FIRST, e.id ASC")
+    Stream<Event> streamAllInPageOrder();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new anthonynguyen.showspace.dao.EventSearchText(e.id, e.name, e.description) FROM Event e")
+    Stream<EventSearchText> streamSearchText();
+
+    @Query(LIST_ITEM + "WHERE e.id IN :ids ORDER BY e.date ASC, e.name ASC")
+    List<EventListItem> findTimelineByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages of the timeline for streaming it into the page: upcoming in
+    // (date, name, id) order and past by date descending, then (name, id). Each
+    // order has an index to read it from, so a page costs the same wherever it
+    // starts.
+
+    @Query(LIST_ITEM + "WHERE e.date >= :today ORDER BY e.date ASC, e.name ASC, e.id ASC")
+    List<EventListItem> findUpcomingFirstPage(@Param("today") LocalDate today, Pageable pageable);
+
+    @Query(LIST_ITEM + "WHERE e.date >= :date AND (e.date > :date OR (e.date = :date AND (e.name > :name OR (e.name = :name AND e.id > :id)))) "
+            + "ORDER BY e.date ASC, e.name ASC, e.id ASC")
+    List<EventListItem> findUpcomingPageAfter(@Param("date") LocalDate date, @Param("name") String name,
+            @Param("id") long id, Pageable pageable);
+
+    @Query(LIST_ITEM + "WHERE e.date < :today ORDER BY e.date DESC, e.name ASC, e.id ASC")
+    List<EventListItem> findPastFirstPage(@Param("today") LocalDate today, Pageable pageable);
+
+    @Query(LIST_ITEM + "WHERE e.date <= :date AND (e.date < :date OR (e.date = :date AND (e.name > :name OR (e.name = :name AND e.id > :id)))) "
+            + "ORDER BY e.date DESC, e.name ASC, e.id ASC")
+    List<EventListItem> findPastPageAfter(@Param("date") LocalDate date, @Param("name") String name,
+            @Param("id") long id, Pageable pageable);
+
 }
 
@@ -0,0 +1,31 @@
+package anthonynguyen.showspace.dao;
+
+import anthonynguyen.showspace.entities.Event;
+
+/**
+ * Published when an event is created or updated.
+ */
+public class EventSaved {
+
+	private final long eventId;
+	private final String name;
+	private final String description;
+
+	public EventSaved(Event event) {
+		this.eventId = event.getId();
+		this.name = event.getName();
+		this.description = event.getDescription();
+	}
+
+	public long getEventId() {
+		return eventId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+}
@@ -0,0 +1,7 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * The searchable text of an event, read without loading the entity.
+ */
+public record EventSearchText(long id, String name, String description) {
+}
@@ -3,6 +3,7 @@ package anthonynguyen.showspace.dao;
 import anthonynguyen.showspace.entities.Event;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 public interface EventService {
@@ -11,7 +12,7 @@ public interface EventService {
 
 	public List<Event> findAll();
 	
-	public Event save(Event event);
+	public Event save(Event event);
 
 	public boolean existsById(long id);
 
@@ -22,10 +23,61 @@ public interface EventService {
 	List<Event> findUpcomingEvents(LocalDate today);
 
 	List<Event> findPastEvents(LocalDate today);
-    
+
+	/**
+	 * Upcoming and past events matching an optional name search, loaded with a
+	 * single ordered query.
+	 *
+	 * @param search part of an event name, or null/empty for all events
+	 * @param today  the first day that counts as upcoming
+	 * @return the partitioned events
+	 */
+	EventTimeline findTimeline(String search, LocalDate today);
+
+	/**
+	 * A page of the unfiltered timeline's upcoming events, in the same order.
+	 *
+	 * @param after the last event of the previous page, or null for the first
+	 *              page
+	 */
+	List<EventListItem> findUpcomingPage(LocalDate today, EventListItem after, int size);
+
+	/**
+	 * A page of the unfiltered timeline's past events, in the same order.
+	 *
+	 * @param after the last event of the previous page, or null for the first
+	 *              page
+	 */
+	List<EventListItem> findPastPage(LocalDate today, EventListItem after, int size);
+
+	/**
+	 * A page of events in (date, time, id) order.
+	 *
+	 * @param after position to start after, or null for the first page
+	 * @param size  maximum number of events to return
+	 */
+	List<EventSummary> findPage(EventCursor after, int size);
+
+	/**
+	 * The page of events immediately before a position, still in (date, time,
+	 * id) order.
+	 */
+	List<EventSummary> findPageBefore(EventCursor before, int size);
+
+	/**
+	 * Pass every event to an action in page order as it is read, without
+	 * holding the whole table in memory.
+	 */
+	void streamAll(Consumer<Event> action);
+
+	/**
+	 * The event with its venue loaded. Events from the other finders come back
+	 * without their venue, which is lazy and can't be loaded once the
+	 * transaction has ended.
+	 */
     Event findById(Long id);
     
-    public List<Event> findUpcomingEventsByVenue(long venueId, LocalDate date);
+    public List<EventListItem> findUpcomingEventsByVenue(long venueId, LocalDate date);
    
     boolean existsByVenueId(long venueId);
     
@@ -37,4 +89,4 @@ public interface EventService {
 }
     
 
-
+
@@ -1,12 +1,25 @@
 package anthonynguyen.showspace.dao;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import anthonynguyen.showspace.entities.Event;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import java.time.LocalDate;
 
@@ -18,6 +31,15 @@ public class EventServiceImpl implements EventService {
 	@Autowired
 	private EventRepository eventRepository;
 
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private SiteSearch siteSearch;
+
 	@Override
 	public long count() {
 		return eventRepository.count();
@@ -31,8 +53,21 @@ public class EventServiceImpl implements EventService {
 	@Override
 	@Transactional
 	public Event save(Event event) {
-		return eventRepository.save(event);
+		// The venue it had before, for the venue ranking.
+		Long previousVenueId = event.getId() == 0 ? null : eventRepository.findVenueIdById(event.getId()).orElse(null);
+		Event saved = eventRepository.save(event);
+		eventPublisher.publishEvent(new EventSaved(saved));
 
+		Long venueId = saved.getVenue() == null ? null : saved.getVenue().getId();
+		if (!Objects.equals(previousVenueId, venueId)) {
+			if (previousVenueId != null) {
+				eventPublisher.publishEvent(new VenueEventCountChanged(previousVenueId, -1));
+			}
+			if (venueId != null) {
+				eventPublisher.publishEvent(new VenueEventCountChanged(venueId, 1));
+			}
+		}
+		return saved;
 	}
 
 	@Override
@@ -41,8 +76,12 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
+    @Transactional
     public void deleteById(long id) {
+        Optional<Long> venueId = eventRepository.findVenueIdById(id);
         eventRepository.deleteById(id);
+        eventPublisher.publishEvent(new EventDeleted(id));
+        venueId.ifPresent(venue -> eventPublisher.publishEvent(new VenueEventCountChanged(venue, -1)));
     }
 
 
@@ -53,7 +92,7 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public List<Event> findUpcomingEvents(LocalDate today) {
-        return eventRepository.findByDateAfterOrDateOrderByDateAscNameAsc(today, today);
+        return eventRepository.findByDateGreaterThanEqualOrderByDateAscNameAsc(today);
     }
 
     @Override
@@ -62,13 +101,93 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
+    public EventTimeline findTimeline(String search, LocalDate today) {
+        List<EventListItem> events;
+        if (siteSearch.canAnswer(search)) {
+            // The most relevant matches, listed in date order like the rest.
+            List<Long> ids = siteSearch.searchEvents(search);
+            events = ids.isEmpty() ? List.of() : eventRepository.findTimelineByIdIn(ids);
+        } else if (search != null && !search.isEmpty()) {
+            events = eventRepository.findTimelineByName(search);
+        } else {
+            events = eventRepository.findTimeline();
+        }
+        return EventTimeline.partition(events, today);
+    }
+
+    @Override
+    public List<EventListItem> findUpcomingPage(LocalDate today, EventListItem after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        if (after == null) {
+            return eventRepository.findUpcomingFirstPage(today, limit);
+        }
+        return eventRepository.findUpcomingPageAfter(after.getDate(), after.getName(), after.getId(), limit);
+    }
+
+    @Override
+    public List<EventListItem> findPastPage(LocalDate today, EventListItem after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        if (after == null) {
+            return eventRepository.findPastFirstPage(today, limit);
+        }
+        return eventRepository.findPastPageAfter(after.getDate(), after.getName(), after.getId(), limit);
+    }
+
+    @Override
+    public List<EventSummary> findPage(EventCursor after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        if (after == null) {
+            return eventRepository.findFirstPage(limit);
+        }
+        if (after.getTime() == null) {
+            return eventRepository.findPageAfterUntimed(after.getDate(), after.getId(), limit);
+        }
+        return eventRepository.findPageAfter(after.getDate(), after.getTime(), after.getId(), limit);
+    }
+
+    @Override
+    public List<EventSummary> findPageBefore(EventCursor before, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        List<EventSummary> page;
+        if (before.getTime() == null) {
+            page = eventRepository.findPageBeforeUntimed(before.getDate(), before.getId(), limit);
+        } else {
+            page = eventRepository.findPageBefore(before.getDate(), before.getTime(), before.getId(), limit);
+        }
+
+        // Read backwards from the cursor, hand back in listing order.
+        page = new ArrayList<>(page);
+        Collections.reverse(page);
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Event> action) {
+        try (Stream<Event> events = eventRepository.streamAllInPageOrder()) {
+            events.forEach(event -> {
+                action.accept(event);
+                // Don't let the persistence context grow with the table.
+                entityManager.detach(event);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Event findById(Long id) {
     	log.info("Fetching event with ID: " + id);
-    	return eventRepository.findById(id).orElse(null);
+    	Event event = eventRepository.findById(id).orElse(null);
+    	if (event != null) {
+    		// An event found in the second-level cache comes back without the
+    		// fetch graph applied; its venue is then read from the venue cache.
+    		Hibernate.initialize(event.getVenue());
+    	}
+    	return event;
     }
-    
+    
     // Exceptions should be handled by the controller
-    public List<Event> findUpcomingEventsByVenue(long venueId, LocalDate today) {
+    public List<EventListItem> findUpcomingEventsByVenue(long venueId, LocalDate today) {
         // Ensure that the query here works and returns events
         return eventRepository.findUpcomingEventsByVenue(venueId, today);
     }
@@ -0,0 +1,55 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.springframework.hateoas.server.core.Relation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * The columns of an event that the API writes out, read without loading the
+ * entity or its venue. Serialises the same as Event, and keeps the "events"
+ * relation name in collections.
+ */
+@Relation(itemRelation = "event", collectionRelation = "events")
+public final class EventSummary {
+
+	private final long id;
+	private final String name;
+	private final String description;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING)
+	private final LocalDate date;
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING)
+	private final LocalTime time;
+
+	public EventSummary(long id, String name, String description, LocalDate date, LocalTime time) {
+		this.id = id;
+		this.name = name;
+		this.description = description;
+		this.date = date;
+		this.time = time;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public LocalTime getTime() {
+		return time;
+	}
+}
@@ -0,0 +1,67 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Upcoming and past events split from a single list that is ordered by date
+ * then name.
+ */
+public class EventTimeline {
+
+	private final List<EventListItem> upcoming;
+	private final List<EventListItem> past;
+
+	public EventTimeline(List<EventListItem> upcoming, List<EventListItem> past) {
+		this.upcoming = upcoming;
+		this.past = past;
+	}
+
+	/**
+	 * Partition events in one pass. Upcoming events (today onwards) keep the
+	 * ascending order of the input; past events are returned newest date first,
+	 * still by name within a date.
+	 *
+	 * @param ordered events ordered by date ascending, then name ascending
+	 * @param today   the first day that counts as upcoming
+	 * @return the partitioned timeline
+	 */
+	public static EventTimeline partition(List<EventListItem> ordered, LocalDate today) {
+		int split = 0;
+		while (split < ordered.size() && ordered.get(split).getDate().isBefore(today)) {
+			split++;
+		}
+
+		List<EventListItem> upcoming = new ArrayList<>(ordered.subList(split, ordered.size()));
+
+		// Walk the past events backwards one date at a time, keeping name order
+		// within each date.
+		List<EventListItem> past = new ArrayList<>(split);
+		int end = split;
+		while (end > 0) {
+			LocalDate date = ordered.get(end - 1).getDate();
+			int start = end - 1;
+			while (start > 0 && ordered.get(start - 1).getDate().equals(date)) {
+				start--;
+			}
+			past.addAll(ordered.subList(start, end));
+			end = start;
+		}
+
+		return new EventTimeline(upcoming, past);
+	}
+
+	public static EventTimeline empty() {
+		return new EventTimeline(Collections.emptyList(), Collections.emptyList());
+	}
+
+	public List<EventListItem> getUpcoming() {
+		return upcoming;
+	}
+
+	public List<EventListItem> getPast() {
+		return past;
+	}
+}
@@ -0,0 +1,20 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.List;
+
+/**
+ * Published when a batch of events is inserted by an import, in place of an
+ * EventSaved for each of them.
+ */
+public class EventsImported {
+
+	private final List<EventSearchText> events;
+
+	public EventsImported(List<EventSearchText> events) {
+		this.events = events;
+	}
+
+	public List<EventSearchText> getEvents() {
+		return events;
+	}
+}
@@ -0,0 +1,25 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Reads whole tables for export, passing each row on as it comes off the
+ * cursor so nothing is held in memory but the row being written.
+ */
+public interface ExportService {
+
+	/**
+	 * Events in (date, time, id) order.
+	 *
+	 * @param from    only events on or after this date, or null
+	 * @param to      only events on or before this date, or null
+	 * @param venueId only events at this venue, or null
+	 */
+	void exportEvents(LocalDate from, LocalDate to, Long venueId, Consumer<EventExportRow> action);
+
+	/**
+	 * Venues in id order.
+	 */
+	void exportVenues(Consumer<VenueExportRow> action);
+}
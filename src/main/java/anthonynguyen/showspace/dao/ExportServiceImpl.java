@@ -0,0 +1,87 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Exports read straight from JDBC with a forward-only, read-only cursor, a
+ * fetch size's worth of rows at a time, rather than through the entity
+ * manager, so there are no entities or persistence context to keep small.
+ *
+ * Filters go into the WHERE clause, only the ones given, so each combination
+ * can use its index: (date, time, id) for a date range, (venue_id, date) for
+ * a venue.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+	private static final String EVENT_SQL = "SELECT e.id, e.name, e.description, e.date, e.time, v.id, v.name "
+			+ "FROM events e JOIN venues v ON v.id = e.venue_id";
+	private static final String EVENT_ORDER = " ORDER BY e.date, e.time NULLS FIRST, e.id";
+	private static final String VENUE_SQL = "SELECT id, name, roadName, postcode, capacity, latitude, longitude, geocodeState "
+			+ "FROM venues ORDER BY id";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Value("${showspace.export.fetch-size:1000}")
+	private int fetchSize;
+
+	private NamedParameterJdbcTemplate cursor;
+
+	@PostConstruct
+	void init() {
+		JdbcTemplate template = new JdbcTemplate(dataSource);
+		template.setFetchSize(fetchSize);
+		cursor = new NamedParameterJdbcTemplate(template);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportEvents(LocalDate from, LocalDate to, Long venueId, Consumer<EventExportRow> action) {
+		List<String> where = new ArrayList<>();
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		if (from != null) {
+			where.add("e.date >= :from");
+			params.addValue("from", from);
+		}
+		if (to != null) {
+			where.add("e.date <= :to");
+			params.addValue("to", to);
+		}
+		if (venueId != null) {
+			where.add("e.venue_id = :venueId");
+			params.addValue("venueId", venueId);
+		}
+		String sql = EVENT_SQL + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where)) + EVENT_ORDER;
+
+		cursor.query(sql, params, (RowCallbackHandler) rs -> action.accept(new EventExportRow(rs.getLong(1),
+				rs.getString(2), rs.getString(3), rs.getObject(4, LocalDate.class), rs.getObject(5, LocalTime.class),
+				rs.getLong(6), rs.getString(7))));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportVenues(Consumer<VenueExportRow> action) {
+		cursor.query(VENUE_SQL, new MapSqlParameterSource(),
+				(RowCallbackHandler) rs -> action.accept(new VenueExportRow(rs.getLong(1), rs.getString(2),
+						rs.getString(3), rs.getString(4), rs.getObject(5, Integer.class), rs.getDouble(6),
+						rs.getDouble(7), rs.getString(8))));
+	}
+}
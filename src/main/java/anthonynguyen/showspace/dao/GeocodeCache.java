@@ -0,0 +1,92 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import anthonynguyen.showspace.entities.GeocodeCacheEntry;
+
+/**
+ * Database-backed cache of geocoding results by road and postcode.
+ *
+ * Entries expire {@code geocoding.cache.ttl-days} after they were looked up.
+ * Each hit records when the entry was last used, and once the table grows past
+ * {@code geocoding.cache.max-entries} the least recently used entries go first.
+ */
+@Component
+public class GeocodeCache {
+
+	private final static Logger log = LoggerFactory.getLogger(GeocodeCache.class);
+
+	@Autowired
+	private GeocodeCacheRepository cacheRepository;
+
+	@Value("${geocoding.cache.ttl-days:90}")
+	private long ttlDays;
+
+	@Value("${geocoding.cache.max-entries:10000}")
+	private int maxEntries;
+
+	/**
+	 * Cache key for an address: upper case, single spaces in the road name and
+	 * no spaces in the postcode, so "m1 1aa" and "M11AA" share an entry.
+	 */
+	public static String key(String roadName, String postcode) {
+		String road = roadName == null ? "" : roadName.trim().replaceAll("\\s+", " ");
+		String code = postcode == null ? "" : postcode.replaceAll("\\s+", "");
+		return (road + "|" + code).toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * Fetch the unexpired entries for a batch of keys in one query.
+	 */
+	public Map<String, GeocodeCacheEntry> lookupAll(Collection<String> keys) {
+		Map<String, GeocodeCacheEntry> hits = new HashMap<>();
+		if (keys.isEmpty()) {
+			return hits;
+		}
+
+		Instant now = Instant.now();
+		for (GeocodeCacheEntry entry : cacheRepository.findByLookupKeyInAndResolvedAtAfter(keys, expiredBefore(now))) {
+			hits.put(entry.getLookupKey(), entry);
+		}
+		if (!hits.isEmpty()) {
+			cacheRepository.touch(hits.keySet(), now);
+		}
+		return hits;
+	}
+
+	public void putAll(Collection<GeocodeCacheEntry> entries) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		cacheRepository.saveAll(entries);
+
+		long excess = cacheRepository.count() - maxEntries;
+		if (excess > 0) {
+			cacheRepository.deleteAllById(cacheRepository.findLeastRecentlyUsed(PageRequest.of(0, (int) excess)));
+			log.info("Evicted " + excess + " least recently used geocode cache entries");
+		}
+	}
+
+	public void evictExpired() {
+		int expired = cacheRepository.deleteExpired(expiredBefore(Instant.now()));
+		if (expired > 0) {
+			log.info("Removed " + expired + " expired geocode cache entries");
+		}
+	}
+
+	private Instant expiredBefore(Instant now) {
+		return now.minus(Duration.ofDays(ttlDays));
+	}
+}
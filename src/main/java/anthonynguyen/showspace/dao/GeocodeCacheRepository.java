@@ -0,0 +1,34 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import anthonynguyen.showspace.entities.GeocodeCacheEntry;
+
+@Repository
+public interface GeocodeCacheRepository extends CrudRepository<GeocodeCacheEntry, String> {
+
+	List<GeocodeCacheEntry> findByLookupKeyInAndResolvedAtAfter(Collection<String> lookupKeys, Instant resolvedAfter);
+
+	@Query("SELECT e.lookupKey FROM GeocodeCacheEntry e ORDER BY e.lastUsedAt ASC")
+	List<String> findLeastRecentlyUsed(Pageable pageable);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE GeocodeCacheEntry e SET e.lastUsedAt = :now WHERE e.lookupKey IN :lookupKeys")
+	int touch(@Param("lookupKeys") Collection<String> lookupKeys, @Param("now") Instant now);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM GeocodeCacheEntry e WHERE e.resolvedAt < :resolvedBefore")
+	int deleteExpired(@Param("resolvedBefore") Instant resolvedBefore);
+}
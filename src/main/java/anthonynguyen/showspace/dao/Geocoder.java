@@ -0,0 +1,16 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * Turns a postal address into coordinates. The Mapbox implementation is used
+ * unless a profile provides its own (tests use a local fake).
+ */
+public interface Geocoder {
+
+	/**
+	 * @param address free-text address, e.g. "Oxford Road, M13 9PL, UK"
+	 * @return {latitude, longitude}, or null if the address isn't known
+	 * @throws anthonynguyen.showspace.exceptions.GeocodingException if the
+	 *         lookup failed and is worth trying again later
+	 */
+	double[] geocode(String address);
+}
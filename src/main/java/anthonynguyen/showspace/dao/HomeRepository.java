@@ -1,12 +1,15 @@
 package anthonynguyen.showspace.dao;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import anthonynguyen.showspace.entities.Event;
-import anthonynguyen.showspace.entities.Venue;
+import jakarta.persistence.QueryHint;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -14,12 +17,9 @@ import java.util.List;
 @Repository
 public interface HomeRepository extends CrudRepository<Event, Long> {
 
-    List<Event> findTop3ByDateAfterOrderByDateAsc(LocalDate today);
+    // Asked for on every home page view; results are dropped whenever events change.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(EventRepository.LIST_ITEM + "WHERE e.date > :today ORDER BY e.date ASC, e.time ASC NULLS FIRST, e.id ASC")
+    List<EventListItem> findFeaturedEvents(@Param("today") LocalDate today, Pageable limit);
 
-
-    @Query(value = "SELECT v FROM Venue v " +
-            "LEFT JOIN Event e ON v.id = e.venue.id " +
-            "GROUP BY v.id, v.name " +
-            "ORDER BY COUNT(e.id) DESC")
-    List<Venue> findTopVenuesByEventCount(Pageable pageable);
 }
\ No newline at end of file
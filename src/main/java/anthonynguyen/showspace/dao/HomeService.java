@@ -1,8 +1,6 @@
 package anthonynguyen.showspace.dao;
 
 import java.util.List;
-import anthonynguyen.showspace.entities.Event;
-import anthonynguyen.showspace.entities.Venue;
 
 public interface HomeService {
     /**
@@ -10,12 +8,12 @@ public interface HomeService {
      *
      * @return list of featured events
      */
-    List<Event> getFeaturedUpcomingEvents();
+    List<EventListItem> getFeaturedUpcomingEvents();
 
     /**
      * Retrieve the top venues by number of events
      * @param limit maximum number of venues to retrieve
-     * @return list of top venues
+     * @return list of top venues with their event counts
      */
-    List<Venue> getTopVenuesByEventCount(int limit);
+    List<VenueEventCount> getTopVenuesByEventCount(int limit);
 }
\ No newline at end of file
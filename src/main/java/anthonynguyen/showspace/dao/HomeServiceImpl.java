@@ -3,10 +3,6 @@ package anthonynguyen.showspace.dao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import anthonynguyen.showspace.entities.Event;
-import anthonynguyen.showspace.entities.Venue;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -17,18 +13,17 @@ public class HomeServiceImpl implements HomeService {
     @Autowired
     private HomeRepository homeRepository;
 
+    @Autowired
+    private VenueRanking venueRanking;
+
     @Override
-    public List<Event> getFeaturedUpcomingEvents() {
+    public List<EventListItem> getFeaturedUpcomingEvents() {
         LocalDate today = LocalDate.now();
-        return homeRepository.findTop3ByDateAfterOrderByDateAsc(today);
+        return homeRepository.findFeaturedEvents(today, PageRequest.of(0, 3));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<Venue> getTopVenuesByEventCount(int limit) {
-        List<Venue> venues = homeRepository.findTopVenuesByEventCount(PageRequest.of(0, limit));
-        // Eagerly initialize the events collection to avoid LazyInitializationException
-        venues.forEach(venue -> venue.getEvents().size());
-        return venues;
+    public List<VenueEventCount> getTopVenuesByEventCount(int limit) {
+        return venueRanking.top(limit);
     }
 }
\ No newline at end of file
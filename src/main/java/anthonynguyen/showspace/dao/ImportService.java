@@ -0,0 +1,29 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.List;
+import java.util.Set;
+
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+
+/**
+ * Inserts batches of venues and events from a bulk import. Rows are expected
+ * to have been validated already; each call is one transaction and one JDBC
+ * batch.
+ */
+public interface ImportService {
+
+	/**
+	 * Insert a batch of new venues. Their ids are set from the venue sequence,
+	 * and their addresses are geocoded together after the transaction commits.
+	 */
+	void importVenues(List<Venue> venues);
+
+	/**
+	 * Insert a batch of new events. Events whose venue doesn't exist are
+	 * skipped.
+	 *
+	 * @return ids of the venues that weren't found
+	 */
+	Set<Long> importEvents(List<Event> events);
+}
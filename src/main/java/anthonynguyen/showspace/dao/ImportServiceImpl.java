@@ -0,0 +1,155 @@
+package anthonynguyen.showspace.dao;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Rows go in with one JDBC batch per call rather than through the entity
+ * manager, which would keep every entity of an import in the persistence
+ * context and flush them one statement at a time.
+ *
+ * Ids still come from Hibernate's own generator for each entity, so they are
+ * taken from the same pooled sequence allocation as entities saved through
+ * the forms and never collide with them. Venues are inserted PENDING and
+ * geocoded by VenueGeocodingWorker after the commit.
+ *
+ * Nothing here goes through Hibernate, so instead of a VenueSaved or
+ * EventSaved for each row, one VenuesImported or EventsImported is published
+ * for the batch and the second-level cache entries the rows could be missing
+ * from are dropped once it has committed.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+	private static final String VENUE_SQL = "INSERT INTO venues (id, name, roadName, postcode, capacity, latitude, longitude, addressChanged, geocodeState) VALUES (?, ?, ?, ?, ?, 0, 0, TRUE, 'PENDING')";
+	private static final String EVENT_SQL = "INSERT INTO events (id, name, description, date, time, venue_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional
+	public void importVenues(List<Venue> venues) {
+		if (venues.isEmpty()) {
+			return;
+		}
+		IdGenerator ids = new IdGenerator(Venue.class);
+		List<Object[]> rows = new ArrayList<>(venues.size());
+		List<VenueSearchText> imported = new ArrayList<>(venues.size());
+		List<Long> pending = new ArrayList<>(venues.size());
+		for (Venue venue : venues) {
+			venue.setId(ids.next());
+			rows.add(new Object[] { venue.getId(), venue.getName(), venue.getRoadName(), venue.getPostcode(),
+					venue.getCapacity() });
+			imported.add(new VenueSearchText(venue.getId(), venue.getName(), venue.getRoadName(), venue.getPostcode()));
+			pending.add(venue.getId());
+		}
+		jdbc.getJdbcTemplate().batchUpdate(VENUE_SQL, rows);
+
+		eventPublisher.publishEvent(new VenuesImported(imported));
+		eventPublisher.publishEvent(new VenueGeocodeRequested(pending));
+	}
+
+	@Override
+	@Transactional
+	public Set<Long> importEvents(List<Event> events) {
+		if (events.isEmpty()) {
+			return Set.of();
+		}
+		Set<Long> venueIds = new HashSet<>();
+		for (Event event : events) {
+			venueIds.add(event.getVenue().getId());
+		}
+		Set<Long> missing = new HashSet<>(venueIds);
+		venueRepository.findExistingIds(venueIds).forEach(missing::remove);
+
+		IdGenerator ids = new IdGenerator(Event.class);
+		List<Object[]> rows = new ArrayList<>(events.size());
+		List<EventSearchText> imported = new ArrayList<>(events.size());
+		for (Event event : events) {
+			if (missing.contains(event.getVenue().getId())) {
+				continue;
+			}
+			event.setId(ids.next());
+			rows.add(new Object[] { event.getId(), event.getName(), event.getDescription(),
+					Date.valueOf(event.getDate()), event.getTime() == null ? null : Time.valueOf(event.getTime()),
+					event.getVenue().getId() });
+			imported.add(new EventSearchText(event.getId(), event.getName(), event.getDescription()));
+		}
+		if (!rows.isEmpty()) {
+			jdbc.getJdbcTemplate().batchUpdate(EVENT_SQL, rows);
+			eventPublisher.publishEvent(new EventsImported(imported));
+		}
+		return missing;
+	}
+
+	// Cached query results may be missing the new rows. New venues can't be in
+	// any cached event list yet, but existing venues' lists can be missing the
+	// new events.
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenuesImported(VenuesImported imported) {
+		secondLevelCache().evictQueryRegions();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEventsImported(EventsImported imported) {
+		Cache cache = secondLevelCache();
+		cache.evictQueryRegions();
+		cache.evictCollectionData(Venue.class.getName() + ".events");
+	}
+
+	private Cache secondLevelCache() {
+		return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+	}
+
+	/**
+	 * Hands out ids from an entity's generator in the current transaction's
+	 * session; with a pooled sequence only every allocation-size'th call goes
+	 * to the database.
+	 */
+	private final class IdGenerator {
+
+		private final SharedSessionContractImplementor session;
+		private final IdentifierGenerator generator;
+
+		IdGenerator(Class<?> entity) {
+			session = entityManager.unwrap(SharedSessionContractImplementor.class);
+			generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel().getEntityDescriptor(entity)
+					.getGenerator();
+		}
+
+		long next() {
+			return ((Number) generator.generate(session, null)).longValue();
+		}
+	}
+}
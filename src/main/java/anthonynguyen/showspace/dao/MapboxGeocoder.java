@@ -0,0 +1,85 @@
+package anthonynguyen.showspace.dao;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mapbox.api.geocoding.v5.MapboxGeocoding;
+import com.mapbox.api.geocoding.v5.models.CarmenFeature;
+import com.mapbox.api.geocoding.v5.models.GeocodingResponse;
+import com.mapbox.geojson.Point;
+
+import anthonynguyen.showspace.config.MapBoxConfig;
+import anthonynguyen.showspace.config.Metrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import anthonynguyen.showspace.exceptions.GeocodingException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import okhttp3.OkHttpClient;
+import retrofit2.Response;
+
+/**
+ * Geocodes with the Mapbox Geocoding API. Every request goes through one
+ * shared OkHttpClient, so connections are pooled instead of each lookup
+ * building its own client.
+ */
+@Component
+public class MapboxGeocoder implements Geocoder {
+
+	@Autowired
+	private MapBoxConfig mapBoxConfig;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${geocoding.http.connect-timeout-ms:2000}")
+	private long connectTimeoutMs;
+
+	@Value("${geocoding.http.read-timeout-ms:5000}")
+	private long readTimeoutMs;
+
+	private OkHttpClient httpClient;
+
+	@PostConstruct
+	void init() {
+		// The address is in the path, so every lookup shares one uri tag.
+		httpClient = new OkHttpClient.Builder().connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+				.readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+				.eventListener(Metrics.httpClientListener(meterRegistry, "mapbox", request -> "/geocoding/v5/{query}"))
+				.build();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		httpClient.dispatcher().executorService().shutdown();
+		httpClient.connectionPool().evictAll();
+	}
+
+	@Override
+	public double[] geocode(String address) {
+		MapboxGeocoding request = MapboxGeocoding.builder().accessToken(mapBoxConfig.getMapboxAccessToken())
+				.query(address).limit(1).build();
+		request.setCallFactory(httpClient);
+
+		Response<GeocodingResponse> response;
+		try {
+			response = request.executeCall();
+		} catch (IOException e) {
+			throw new GeocodingException("Mapbox lookup failed: " + e.getMessage(), e);
+		}
+		if (!response.isSuccessful()) {
+			throw new GeocodingException("Mapbox lookup failed with HTTP " + response.code(), null);
+		}
+
+		List<CarmenFeature> features = response.body() == null ? null : response.body().features();
+		if (features == null || features.isEmpty()) {
+			return null;
+		}
+		Point point = features.get(0).center();
+		return new double[] { point.latitude(), point.longitude() };
+	}
+}
@@ -0,0 +1,47 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import anthonynguyen.showspace.entities.MastodonPost;
+import anthonynguyen.showspace.entities.MastodonPost.State;
+
+@Repository
+public interface MastodonPostRepository extends CrudRepository<MastodonPost, Long> {
+
+	List<MastodonPost> findByStateAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(State state, Instant now,
+			Pageable pageable);
+
+	long countByState(State state);
+
+	// Compare-and-set on the state, so only one worker (on any instance) gets a post.
+	@Transactional
+	@Modifying
+	@Query("UPDATE MastodonPost p SET p.state = :to WHERE p.id = :id AND p.state = :from")
+	int transition(@Param("id") long id, @Param("from") State from, @Param("to") State to);
+
+	// Writes the outcome of a send, but only while the post is still in the
+	// claimed state: if the claim was released (say by a restart) the row
+	// belongs to someone else now.
+	@Transactional
+	@Modifying
+	@Query("UPDATE MastodonPost p SET p.state = :state, p.attempts = :attempts, p.nextAttemptAt = :nextAttemptAt, "
+			+ "p.sentAt = :sentAt, p.remoteId = :remoteId, p.lastError = :lastError "
+			+ "WHERE p.id = :id AND p.state = :from")
+	int finishSend(@Param("id") long id, @Param("from") State from, @Param("state") State state, @Param("attempts") int attempts,
+			@Param("nextAttemptAt") Instant nextAttemptAt, @Param("sentAt") Instant sentAt,
+			@Param("remoteId") Long remoteId, @Param("lastError") String lastError);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE MastodonPost p SET p.state = :to WHERE p.state = :from")
+	int transitionAll(@Param("from") State from, @Param("to") State to);
+}
@@ -0,0 +1,22 @@
+package anthonynguyen.showspace.dao;
+
+import anthonynguyen.showspace.entities.MastodonPost;
+
+public interface MastodonPostService {
+
+	/**
+	 * Add a post to the outbox. Joins the caller's transaction if there is one,
+	 * so the post is only queued if the rest of the request commits.
+	 */
+	MastodonPost queuePost(long eventId, String content);
+
+	MastodonPost findById(long id);
+
+	/**
+	 * Send one batch of due posts on the worker pool and wait for them. The
+	 * scheduled drain doesn't wait, so it never holds up the scheduler thread.
+	 *
+	 * @return how many posts were attempted
+	 */
+	int drain();
+}
@@ -0,0 +1,268 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import anthonynguyen.showspace.entities.MastodonPost;
+import anthonynguyen.showspace.entities.MastodonPost.State;
+import anthonynguyen.showspace.exceptions.MastodonPostException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Outbox for posts to Mastodon.
+ *
+ * Requests only insert a PENDING row. A scheduled drainer claims due rows
+ * (PENDING to SENDING, so each is sent by one worker) and sends them on a small
+ * pool, no faster than the rate limit. Failures that may succeed later are
+ * retried with exponential backoff and jitter; refused posts and posts out of
+ * attempts are dead-lettered. Delivery is at-least-once: a post sent just
+ * before a crash is sent again when its claim is released on startup.
+ */
+@Service
+public class MastodonPostServiceImpl implements MastodonPostService {
+
+	private final static Logger log = LoggerFactory.getLogger(MastodonPostServiceImpl.class);
+
+	private final static int MAX_ERROR_LENGTH = 500;
+
+	@Autowired
+	private MastodonPostRepository postRepository;
+
+	@Autowired
+	private MastodonService mastodonService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${mastodon.outbox.enabled:true}")
+	private boolean enabled;
+
+	@Value("${mastodon.outbox.batch-size:20}")
+	private int batchSize;
+
+	@Value("${mastodon.outbox.workers:2}")
+	private int workers;
+
+	@Value("${mastodon.outbox.rate-per-second:1}")
+	private double ratePerSecond;
+
+	@Value("${mastodon.outbox.burst:5}")
+	private int burst;
+
+	@Value("${mastodon.outbox.max-attempts:8}")
+	private int maxAttempts;
+
+	@Value("${mastodon.outbox.backoff-initial-ms:5000}")
+	private long backoffInitialMs;
+
+	@Value("${mastodon.outbox.backoff-max-ms:3600000}")
+	private long backoffMaxMs;
+
+	private ExecutorService workerPool;
+	private RateLimiter rateLimiter;
+	private final AtomicLong pending = new AtomicLong();
+	// Set while a scheduled batch is still being sent.
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	private Counter queuedCount;
+	private Counter sentCount;
+	private Counter retriedCount;
+	private Counter deadCount;
+	private Timer sendSuccess;
+	private Timer sendFailure;
+	private Timer deliveryDelay;
+
+	@PostConstruct
+	void init() {
+		AtomicInteger threads = new AtomicInteger();
+		ThreadFactory factory = runnable -> {
+			Thread thread = new Thread(runnable, "mastodon-outbox-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		workerPool = Executors.newFixedThreadPool(Math.max(1, workers), factory);
+		rateLimiter = new RateLimiter(ratePerSecond, burst);
+
+		queuedCount = postCounter("queued");
+		sentCount = postCounter("sent");
+		retriedCount = postCounter("retried");
+		deadCount = postCounter("dead");
+		sendSuccess = sendTimer("success");
+		sendFailure = sendTimer("failure");
+		deliveryDelay = Timer.builder("showspace.mastodon.outbox.delay")
+				.description("Time from a post being queued to it being sent").register(meterRegistry);
+		Gauge.builder("showspace.mastodon.outbox.pending", pending, AtomicLong::get)
+				.description("Posts waiting in the outbox as of the last drain").register(meterRegistry);
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		workerPool.shutdown();
+		workerPool.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	// Single instance app, so anything still SENDING was cut off by a restart.
+	@EventListener(ApplicationReadyEvent.class)
+	public void releaseClaimedPosts() {
+		int released = postRepository.transitionAll(State.SENDING, State.PENDING);
+		if (released > 0) {
+			log.info("Requeued " + released + " Mastodon posts that were being sent at shutdown");
+		}
+	}
+
+	@Override
+	@Transactional
+	public MastodonPost queuePost(long eventId, String content) {
+		MastodonPost post = postRepository.save(new MastodonPost(eventId, content, Instant.now()));
+		queuedCount.increment();
+		return post;
+	}
+
+	@Override
+	public MastodonPost findById(long id) {
+		return postRepository.findById(id).orElse(null);
+	}
+
+	// Hands the batch to the worker pool and returns, since sends can take
+	// many seconds behind the rate limit and the scheduler thread is shared
+	// with the feed refresh, geocoding sweep and ranking rebuild. The next
+	// batch isn't claimed until this one is done.
+	@Scheduled(fixedDelayString = "${mastodon.outbox.poll-interval-ms:2000}")
+	public void scheduledDrain() {
+		if (!enabled || !draining.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			claimAndSend().whenComplete((sent, e) -> draining.set(false));
+		} catch (RuntimeException e) {
+			draining.set(false);
+			throw e;
+		}
+	}
+
+	@Override
+	public int drain() {
+		return claimAndSend().join();
+	}
+
+	private CompletableFuture<Integer> claimAndSend() {
+		List<MastodonPost> due = postRepository.findByStateAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+				State.PENDING, Instant.now(), PageRequest.of(0, batchSize));
+
+		List<CompletableFuture<Void>> sends = new ArrayList<>();
+		for (MastodonPost post : due) {
+			if (postRepository.transition(post.getId(), State.PENDING, State.SENDING) == 1) {
+				post.setState(State.SENDING);
+				sends.add(CompletableFuture.runAsync(() -> send(post), workerPool));
+			}
+		}
+		return CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).thenApply(done -> {
+			pending.set(postRepository.countByState(State.PENDING));
+			return sends.size();
+		});
+	}
+
+	private void send(MastodonPost post) {
+		try {
+			rateLimiter.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			post.setState(State.PENDING);
+			finish(post);
+			return;
+		}
+
+		post.setAttempts(post.getAttempts() + 1);
+		long start = System.nanoTime();
+		try {
+			long remoteId = mastodonService.createPost(post.getContent());
+			sendSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+			Instant now = Instant.now();
+			post.setState(State.SENT);
+			post.setRemoteId(remoteId);
+			post.setSentAt(now);
+			post.setNextAttemptAt(null);
+			post.setLastError(null);
+			sentCount.increment();
+			deliveryDelay.record(Duration.between(post.getCreatedAt(), now));
+		} catch (RuntimeException e) {
+			sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			failed(post, e);
+		}
+		finish(post);
+	}
+
+	private void finish(MastodonPost post) {
+		if (postRepository.finishSend(post.getId(), State.SENDING, post.getState(), post.getAttempts(), post.getNextAttemptAt(),
+				post.getSentAt(), post.getRemoteId(), post.getLastError()) == 0) {
+			log.warn("Mastodon post " + post.getId() + " was no longer claimed, outcome " + post.getState()
+					+ " not recorded");
+		}
+	}
+
+	private void failed(MastodonPost post, RuntimeException e) {
+		boolean retryable = !(e instanceof MastodonPostException refused) || refused.isRetryable();
+		String error = String.valueOf(e.getMessage());
+		post.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+		if (retryable && post.getAttempts() < maxAttempts) {
+			long delay = backoffMillis(post.getAttempts());
+			post.setState(State.PENDING);
+			post.setNextAttemptAt(Instant.now().plusMillis(delay));
+			retriedCount.increment();
+			log.info("Mastodon post " + post.getId() + " failed (attempt " + post.getAttempts() + "), retrying in "
+					+ delay + " ms: " + error);
+		} else {
+			post.setState(State.DEAD);
+			post.setNextAttemptAt(null);
+			deadCount.increment();
+			log.warn("Mastodon post " + post.getId() + " dead-lettered after " + post.getAttempts() + " attempts: "
+					+ error);
+		}
+	}
+
+	// initial * 2^(attempt - 1), capped, then spread over the upper half so
+	// posts that failed together don't all come back together.
+	private long backoffMillis(int attempt) {
+		long delay = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempt - 1, 20));
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+	}
+
+	private Counter postCounter(String outcome) {
+		return Counter.builder("showspace.mastodon.outbox.posts").tag("outcome", outcome)
+				.description("Posts through the Mastodon outbox").register(meterRegistry);
+	}
+
+	private Timer sendTimer(String outcome) {
+		return Timer.builder("showspace.mastodon.outbox.send").tag("outcome", outcome)
+				.description("Time taken by calls to post a status").register(meterRegistry);
+	}
+}
@@ -6,10 +6,15 @@ import java.util.List;
 
 public interface MastodonService {
 
-    // This function should return recent 3 posts
+    // This function should return recent 3 posts, from the cached snapshot
     List<Status> getHomeFeed();
 
-    // This should let you share a post with a text input
-    void createPost(String content);
+    // Fetch new posts from the instance into the snapshot. Runs on a schedule.
+    void refreshFeed();
+
+    // Sends a post straight away and returns the id of the new status.
+    // Throws MastodonPostException if the instance didn't accept it; users'
+    // posts should go through MastodonPostService, which queues and retries.
+    long createPost(String content);
 
 }
@@ -3,59 +3,228 @@ package anthonynguyen.showspace.dao;
 import com.sys1yagi.mastodon4j.MastodonClient;
 import com.sys1yagi.mastodon4j.MastodonRequest;
 import com.sys1yagi.mastodon4j.api.Pageable;
+import com.sys1yagi.mastodon4j.api.Range;
 import com.sys1yagi.mastodon4j.api.entity.Status;
 import com.sys1yagi.mastodon4j.api.exception.Mastodon4jRequestException;
 import com.sys1yagi.mastodon4j.api.method.Statuses;
 import com.sys1yagi.mastodon4j.api.method.Timelines;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import anthonynguyen.showspace.exceptions.MastodonPostException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Serves the #showspace home feed from an in-memory snapshot.
+ *
+ * The snapshot is refreshed in the background on a fixed delay and, when a page
+ * view finds it older than the stale limit, straight away on the scheduler
+ * while the page gets the old snapshot (stale-while-revalidate). Refreshes only
+ * ask for statuses newer than the newest one already seen, and stop calling the
+ * instance while the circuit breaker is open.
+ */
 @Service
 public class MastodonServiceImpl implements MastodonService {
+
+    private final static Logger log = LoggerFactory.getLogger(MastodonServiceImpl.class);
+
+    private final static String TAG = "showspace";
+
+    // Most statuses Mastodon returns in one timeline request.
+    private final static int FETCH_LIMIT = 40;
+
     private final MastodonClient mastodonClient;
     private final Timelines timelines;
     private final Statuses statuses;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mastodon.feed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mastodon.feed.capacity:20}")
+    private int capacity;
+
+    @Value("${mastodon.feed.page-size:3}")
+    private int pageSize;
+
+    @Value("${mastodon.feed.stale-after-ms:180000}")
+    private long staleAfterMs;
+
+    @Value("${mastodon.feed.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${mastodon.feed.circuit-open-ms:120000}")
+    private long circuitOpenMs;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private CircuitBreaker circuitBreaker;
+    private Timer refreshSuccess;
+    private Timer refreshFailure;
 
     @Autowired
-    public MastodonServiceImpl(MastodonClient mastodonClient) {
+    public MastodonServiceImpl(MastodonClient mastodonClient, TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
         this.mastodonClient = mastodonClient;
         this.timelines = new Timelines(mastodonClient);
         this.statuses = new Statuses(mastodonClient);
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker("mastodon", failureThreshold, circuitOpenMs);
+
+        refreshSuccess = Timer.builder("showspace.mastodon.feed.refresh").tag("outcome", "success")
+                .description("Time taken to refresh the Mastodon feed snapshot").register(meterRegistry);
+        refreshFailure = Timer.builder("showspace.mastodon.feed.refresh").tag("outcome", "failure")
+                .description("Time taken to refresh the Mastodon feed snapshot").register(meterRegistry);
+        Gauge.builder("showspace.mastodon.feed.staleness", this, MastodonServiceImpl::stalenessSeconds)
+                .description("Seconds since the Mastodon feed snapshot was last refreshed").baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("showspace.mastodon.feed.circuit.open", circuitBreaker,
+                breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("Whether calls to the Mastodon instance are currently refused").register(meterRegistry);
     }
 
     @Override
     public List<Status> getHomeFeed() {
+        Snapshot current = snapshot;
+        if (enabled && current.isOlderThan(staleAfterMs) && !refreshing.get()) {
+            taskScheduler.schedule(this::refreshFeed, Instant.now());
+        }
+        return current.page;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${mastodon.feed.refresh-interval-ms:60000}",
+            initialDelayString = "${mastodon.feed.initial-delay-ms:0}")
+    public void refreshFeed() {
+        if (!enabled || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            // Get the request object
-            MastodonRequest<Pageable<Status>> request = timelines.getHome();
-            // Execute the request to get the statuses
-            Pageable<Status> pageableStatus = request.execute();
-            // Get the statuses from the pageable object into a list
-            List<Status> statusList = pageableStatus.getPart();
-            // Filter out unwanted content and limit to top 3 posts
-            return statusList.stream()
-                    .filter(status -> status.getTags().stream().anyMatch(tag -> tag.getName().equalsIgnoreCase("showspace")))
-                    .limit(3) // Limit to top 3 posts
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            // Log error and handle appropriately
-            return Collections.emptyList();
+            if (!circuitBreaker.allowRequest()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                Snapshot current = snapshot;
+                Range range = new Range(null, current.newestSeenId, FETCH_LIMIT);
+                MastodonRequest<Pageable<Status>> request = timelines.getHome(range);
+                List<Status> fetched = request.execute().getPart();
+
+                snapshot = current.merge(fetched, capacity, pageSize);
+                circuitBreaker.recordSuccess();
+                refreshSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                circuitBreaker.recordFailure();
+                refreshFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.warn("Mastodon feed refresh failed, serving previous snapshot: " + e.getMessage());
+            }
+        } finally {
+            refreshing.set(false);
         }
     }
 
     @Override
-    public void createPost(String content) {
+    public long createPost(String content) {
         try {
-        	
             Status status = statuses.postStatus(content, null, null, false, null).execute();
-
+            return status.getId();
         } catch (Mastodon4jRequestException e) {
-            // Log the error and handle appropriately
+            // No response means a network problem. 429 and 5xx are worth another
+            // try, any other status means the post itself was refused.
+            int code = e.getResponse() == null ? 0 : e.getResponse().code();
+            boolean retryable = code == 0 || code == 429 || code >= 500;
+            throw new MastodonPostException("Mastodon post failed" + (code == 0 ? "" : " with HTTP " + code),
+                    retryable, e);
+        }
+    }
+
+    private double stalenessSeconds() {
+        Snapshot current = snapshot;
+        if (current.refreshedAt == 0) {
+            return Double.NaN;
+        }
+        return (System.currentTimeMillis() - current.refreshedAt) / 1000.0;
+    }
+
+    private static boolean isTagged(Status status) {
+        return status.getTags().stream().anyMatch(tag -> tag.getName().equalsIgnoreCase(TAG));
+    }
+
+    /**
+     * Immutable view of the feed: the newest tagged statuses (bounded by the
+     * capacity), the slice shown on the page and the newest status id seen on
+     * the timeline, tagged or not, for the next incremental fetch.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), Collections.emptyList(), null, 0);
+
+        final List<Status> tagged;
+        final List<Status> page;
+        final Long newestSeenId;
+        final long refreshedAt;
+
+        Snapshot(List<Status> tagged, List<Status> page, Long newestSeenId, long refreshedAt) {
+            this.tagged = tagged;
+            this.page = page;
+            this.newestSeenId = newestSeenId;
+            this.refreshedAt = refreshedAt;
+        }
+
+        boolean isOlderThan(long millis) {
+            return System.currentTimeMillis() - refreshedAt > millis;
+        }
+
+        Snapshot merge(List<Status> fetched, int capacity, int pageSize) {
+            Long newest = newestSeenId;
+            Map<Long, Status> byId = new LinkedHashMap<>();
+            for (Status status : fetched) {
+                if (newest == null || status.getId() > newest) {
+                    newest = status.getId();
+                }
+                if (isTagged(status)) {
+                    byId.put(status.getId(), status);
+                }
+            }
+            for (Status status : tagged) {
+                byId.putIfAbsent(status.getId(), status);
+            }
+
+            List<Status> merged = new ArrayList<>(byId.values());
+            merged.sort((a, b) -> Long.compare(b.getId(), a.getId()));
+            if (merged.size() > capacity) {
+                merged = merged.subList(0, capacity);
+            }
+            merged = Collections.unmodifiableList(new ArrayList<>(merged));
+
+            List<Status> page = merged.subList(0, Math.min(pageSize, merged.size()));
+            return new Snapshot(merged, page, newest, System.currentTimeMillis());
         }
     }
-}
\ No newline at end of file
+}
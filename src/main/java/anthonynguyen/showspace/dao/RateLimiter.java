@@ -0,0 +1,45 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by threads calling a rate-limited remote API. Permits
+ * refill continuously at {@code permitsPerSecond}, and up to {@code burst} of
+ * them can be saved up while idle.
+ */
+public class RateLimiter {
+
+	private final double permitsPerNano;
+	private final double burst;
+
+	private double tokens;
+	private long refilledAt;
+
+	public RateLimiter(double permitsPerSecond, int burst) {
+		this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.burst = Math.max(1, burst);
+		this.tokens = this.burst;
+		this.refilledAt = System.nanoTime();
+	}
+
+	/**
+	 * Wait until a permit is available and take it.
+	 */
+	public void acquire() throws InterruptedException {
+		long waitNanos = reserve();
+		if (waitNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+
+	// Takes a permit now, going into debt if need be, and returns how long
+	// the caller has to wait for the debt to be paid off.
+	private synchronized long reserve() {
+		long now = System.nanoTime();
+		tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+		refilledAt = now;
+
+		tokens -= 1;
+		return tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+	}
+}
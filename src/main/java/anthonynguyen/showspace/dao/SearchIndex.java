@@ -0,0 +1,373 @@
+package anthonynguyen.showspace.dao;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over a few weighted text fields per document.
+ *
+ * Each term maps to a posting list of (document, weight) pairs. Documents get
+ * a new internal number every time they are indexed, so posting lists only
+ * ever grow at the end and stay sorted; replaced and removed documents are
+ * tombstoned and dropped from the lists once there are enough of them.
+ *
+ * Every query word has to match (exactly, as a prefix of a longer term, or
+ * within a small edit distance if nothing else matches), and results are
+ * ranked by TF-IDF with exact matches counting for more than prefix and fuzzy
+ * ones. Matching starts from the rarest word and only checks the remaining
+ * candidates against the other words, so common words stay cheap.
+ */
+public class SearchIndex {
+
+	private static final float EXACT = 1.0f;
+	private static final float PREFIX = 0.6f;
+	private static final float FUZZY = 0.4f;
+
+	// Per query word, so a short prefix can't pull in half the dictionary.
+	private static final int MAX_EXPANSIONS = 64;
+
+	// Tombstones tolerated before posting lists are compacted.
+	private static final int MIN_COMPACT = 1024;
+
+	public static final class Field {
+		private final String text;
+		private final float weight;
+
+		private Field(String text, float weight) {
+			this.text = text;
+			this.weight = weight;
+		}
+	}
+
+	public static Field field(String text, float weight) {
+		return new Field(text, weight);
+	}
+
+	private static final class Postings {
+		private int[] docs = new int[2];
+		private float[] weights = new float[2];
+		private int size;
+
+		void add(int doc, float weight) {
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			docs[size] = doc;
+			weights[size] = weight;
+			size++;
+		}
+
+		float weightOf(int doc) {
+			int i = Arrays.binarySearch(docs, 0, size, doc);
+			return i < 0 ? 0 : weights[i];
+		}
+
+		void removeAll(BitSet deleted) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (!deleted.get(docs[i])) {
+					docs[kept] = docs[i];
+					weights[kept] = weights[i];
+					kept++;
+				}
+			}
+			size = kept;
+		}
+	}
+
+	private record Expansion(Postings postings, float boost) {
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final TreeMap<String, Postings> terms = new TreeMap<>();
+	private final Map<Long, Integer> docById = new HashMap<>();
+	private long[] idByDoc = new long[16];
+	private final BitSet deleted = new BitSet();
+	private int nextDoc;
+	private int tombstones;
+
+	/**
+	 * Index a document, replacing whatever was indexed under its id before.
+	 */
+	public void put(long id, Field... fields) {
+		Map<String, Float> weighted = new HashMap<>();
+		int length = 0;
+		for (Field field : fields) {
+			for (String term : tokenize(field.text)) {
+				weighted.merge(term, field.weight, Float::sum);
+				length++;
+			}
+		}
+
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+			if (weighted.isEmpty()) {
+				return;
+			}
+
+			int doc = nextDoc++;
+			if (doc == idByDoc.length) {
+				idByDoc = Arrays.copyOf(idByDoc, doc * 2);
+			}
+			idByDoc[doc] = id;
+			docById.put(id, doc);
+
+			float norm = (float) (1.0 / Math.sqrt(length));
+			for (Map.Entry<String, Float> term : weighted.entrySet()) {
+				float weight = (float) (1.0 + Math.log(Math.max(1.0f, term.getValue()))) * norm;
+				terms.computeIfAbsent(term.getKey(), t -> new Postings()).add(doc, weight);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids of the documents matching every word of the query, best first.
+	 */
+	public List<Long> search(String query, int limit) {
+		List<String> words = tokenize(query);
+		if (words.isEmpty() || limit <= 0) {
+			return List.of();
+		}
+
+		lock.readLock().lock();
+		try {
+			List<List<Expansion>> expanded = new ArrayList<>(words.size());
+			for (String word : words) {
+				List<Expansion> expansions = expand(word);
+				if (expansions.isEmpty()) {
+					return List.of();
+				}
+				expanded.add(expansions);
+			}
+			expanded.sort(Comparator.comparingLong(SearchIndex::cost));
+
+			// Candidates from the rarest word, then narrowed by the others.
+			Map<Integer, Float> scores = new HashMap<>();
+			for (Expansion expansion : expanded.get(0)) {
+				Postings postings = expansion.postings();
+				float idf = idf(postings);
+				for (int i = 0; i < postings.size; i++) {
+					int doc = postings.docs[i];
+					if (!deleted.get(doc)) {
+						scores.merge(doc, postings.weights[i] * idf * expansion.boost(), Math::max);
+					}
+				}
+			}
+			for (List<Expansion> expansions : expanded.subList(1, expanded.size())) {
+				Iterator<Map.Entry<Integer, Float>> it = scores.entrySet().iterator();
+				while (it.hasNext()) {
+					Map.Entry<Integer, Float> candidate = it.next();
+					float best = 0;
+					for (Expansion expansion : expansions) {
+						float weight = expansion.postings().weightOf(candidate.getKey());
+						if (weight > 0) {
+							best = Math.max(best, weight * idf(expansion.postings()) * expansion.boost());
+						}
+					}
+					if (best == 0) {
+						it.remove();
+					} else {
+						candidate.setValue(candidate.getValue() + best);
+					}
+				}
+			}
+
+			return top(scores, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private List<Long> top(Map<Integer, Float> scores, int limit) {
+		Comparator<Map.Entry<Integer, Float>> order = Map.Entry.<Integer, Float>comparingByValue()
+				.thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+		PriorityQueue<Map.Entry<Integer, Float>> best = new PriorityQueue<>(order);
+		for (Map.Entry<Integer, Float> score : scores.entrySet()) {
+			best.add(score);
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+
+		Long[] ids = new Long[best.size()];
+		for (int i = ids.length - 1; i >= 0; i--) {
+			ids[i] = idByDoc[best.poll().getKey()];
+		}
+		return Arrays.asList(ids);
+	}
+
+	private List<Expansion> expand(String word) {
+		List<Expansion> expansions = new ArrayList<>();
+		Postings exact = terms.get(word);
+		if (exact != null) {
+			expansions.add(new Expansion(exact, EXACT));
+		}
+
+		SortedMap<String, Postings> longer = terms.subMap(word + Character.MIN_VALUE, word + Character.MAX_VALUE);
+		for (Postings postings : longer.values()) {
+			if (expansions.size() == MAX_EXPANSIONS) {
+				break;
+			}
+			expansions.add(new Expansion(postings, PREFIX));
+		}
+
+		if (expansions.isEmpty()) {
+			expandFuzzy(word, expansions);
+		}
+		return expansions;
+	}
+
+	// Typos in the first letter are rare, so only terms sharing it are checked.
+	private void expandFuzzy(String word, List<Expansion> expansions) {
+		int maxEdits = word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+		if (maxEdits == 0) {
+			return;
+		}
+
+		char first = word.charAt(0);
+		SortedMap<String, Postings> sameFirst = terms.subMap(String.valueOf(first), String.valueOf((char) (first + 1)));
+		for (Map.Entry<String, Postings> term : sameFirst.entrySet()) {
+			if (Math.abs(term.getKey().length() - word.length()) <= maxEdits
+					&& withinEdits(word, term.getKey(), maxEdits)) {
+				expansions.add(new Expansion(term.getValue(), FUZZY));
+				if (expansions.size() == MAX_EXPANSIONS) {
+					return;
+				}
+			}
+		}
+	}
+
+	private static long cost(List<Expansion> expansions) {
+		long cost = 0;
+		for (Expansion expansion : expansions) {
+			cost += expansion.postings().size;
+		}
+		return cost;
+	}
+
+	private float idf(Postings postings) {
+		return (float) Math.log(1.0 + (double) docById.size() / Math.max(1, postings.size));
+	}
+
+	private void removeLocked(long id) {
+		Integer doc = docById.remove(id);
+		if (doc == null) {
+			return;
+		}
+		deleted.set(doc);
+		tombstones++;
+
+		if (tombstones >= Math.max(MIN_COMPACT, docById.size() / 4)) {
+			compact();
+		}
+	}
+
+	private void compact() {
+		Iterator<Postings> it = terms.values().iterator();
+		while (it.hasNext()) {
+			Postings postings = it.next();
+			postings.removeAll(deleted);
+			if (postings.size == 0) {
+				it.remove();
+			}
+		}
+		deleted.clear();
+		tombstones = 0;
+	}
+
+	/**
+	 * Lower case words and numbers, with accents stripped, e.g. "Café M13 9PL"
+	 * becomes [cafe, m13, 9pl].
+	 */
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+
+		String folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "")
+				.toLowerCase(Locale.ROOT);
+		int start = -1;
+		for (int i = 0; i <= folded.length(); i++) {
+			boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				tokens.add(folded.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Edit distance of at most maxEdits, counting a swap of two neighbouring
+	 * letters as one edit ("comdey" is one away from "comedy"). Gives up as
+	 * soon as a whole row is over the limit.
+	 */
+	static boolean withinEdits(String a, String b, int maxEdits) {
+		int[] twoBack = new int[b.length() + 1];
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int substitute = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+				current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					current[j] = Math.min(current[j], twoBack[j - 2] + 1);
+				}
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if (rowMin > maxEdits) {
+				return false;
+			}
+			int[] swap = twoBack;
+			twoBack = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()] <= maxEdits;
+	}
+}
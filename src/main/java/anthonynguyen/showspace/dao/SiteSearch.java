@@ -0,0 +1,166 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Search indexes for the event and venue listings: event name and
+ * description, venue name, road name and postcode.
+ *
+ * Both indexes are built from the database once the application is ready and
+ * then kept up to date as events and venues are saved and deleted. Until the
+ * first build finishes, or for queries too short to be worth ranking,
+ * {@link #canAnswer(String)} is false and callers fall back to a name scan.
+ */
+@Component
+public class SiteSearch {
+
+	private final static Logger log = LoggerFactory.getLogger(SiteSearch.class);
+
+	private static final float NAME = 3.0f;
+	private static final float POSTCODE = 2.0f;
+	private static final float TEXT = 1.0f;
+
+	@Autowired
+	private EventRepository eventRepository;
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${showspace.search.min-query-length:3}")
+	private int minQueryLength;
+
+	@Value("${showspace.search.max-results:1000}")
+	private int maxResults;
+
+	private TransactionTemplate readOnly;
+
+	private volatile SearchIndex events = new SearchIndex();
+	private volatile SearchIndex venues = new SearchIndex();
+	private volatile boolean ready;
+
+	// Changes seen while a rebuild is reading the database, replayed onto the
+	// new indexes before they replace the old ones.
+	private List<Runnable> duringRebuild;
+
+	@PostConstruct
+	void init() {
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	public boolean canAnswer(String query) {
+		return ready && query != null && query.trim().length() >= minQueryLength;
+	}
+
+	/**
+	 * Ids of matching events, most relevant first.
+	 */
+	public List<Long> searchEvents(String query) {
+		return events.search(query, maxResults);
+	}
+
+	/**
+	 * Ids of matching venues, most relevant first.
+	 */
+	public List<Long> searchVenues(String query) {
+		return venues.search(query, maxResults);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		synchronized (this) {
+			duringRebuild = new ArrayList<>();
+		}
+
+		SearchIndex newEvents = new SearchIndex();
+		SearchIndex newVenues = new SearchIndex();
+		readOnly.executeWithoutResult(status -> {
+			try (Stream<EventSearchText> rows = eventRepository.streamSearchText()) {
+				rows.forEach(row -> newEvents.put(row.id(), eventFields(row.name(), row.description())));
+			}
+			try (Stream<VenueSearchText> rows = venueRepository.streamSearchText()) {
+				rows.forEach(row -> newVenues.put(row.id(), venueFields(row.name(), row.roadName(), row.postcode())));
+			}
+		});
+
+		synchronized (this) {
+			events = newEvents;
+			venues = newVenues;
+			duringRebuild.forEach(Runnable::run);
+			duringRebuild = null;
+			ready = true;
+		}
+		log.info("Indexed " + newEvents.size() + " events and " + newVenues.size() + " venues for search in "
+				+ (System.currentTimeMillis() - start) + " ms");
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onEventSaved(EventSaved saved) {
+		apply(() -> events.put(saved.getEventId(), eventFields(saved.getName(), saved.getDescription())));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onEventDeleted(EventDeleted deleted) {
+		apply(() -> events.remove(deleted.getEventId()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenueSaved(VenueSaved saved) {
+		apply(() -> venues.put(saved.getVenueId(),
+				venueFields(saved.getName(), saved.getRoadName(), saved.getPostcode())));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenueDeleted(VenueDeleted deleted) {
+		apply(() -> venues.remove(deleted.getVenueId()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenuesImported(VenuesImported imported) {
+		apply(() -> imported.getVenues().forEach(
+				row -> venues.put(row.id(), venueFields(row.name(), row.roadName(), row.postcode()))));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onEventsImported(EventsImported imported) {
+		apply(() -> imported.getEvents().forEach(row -> events.put(row.id(), eventFields(row.name(), row.description()))));
+	}
+
+	private void apply(Runnable change) {
+		change.run();
+		if (duringRebuild != null) {
+			duringRebuild.add(change);
+		}
+	}
+
+	private static SearchIndex.Field[] eventFields(String name, String description) {
+		return new SearchIndex.Field[] { SearchIndex.field(name, NAME), SearchIndex.field(description, TEXT) };
+	}
+
+	// Postcodes are indexed with and without the space, so "M13 9PL" and
+	// "M139PL" both match.
+	private static SearchIndex.Field[] venueFields(String name, String roadName, String postcode) {
+		String compact = postcode == null || !postcode.matches(".*\\s.*") ? null : postcode.replaceAll("\\s+", "");
+		return new SearchIndex.Field[] { SearchIndex.field(name, NAME), SearchIndex.field(roadName, TEXT),
+				SearchIndex.field(postcode, POSTCODE), SearchIndex.field(compact, POSTCODE) };
+	}
+}
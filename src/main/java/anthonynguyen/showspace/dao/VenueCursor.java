@@ -0,0 +1,54 @@
+package anthonynguyen.showspace.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import anthonynguyen.showspace.entities.Venue;
+import anthonynguyen.showspace.exceptions.InvalidCursorException;
+
+/**
+ * Position in the venue listing, which is ordered by (name, id). Encoded as an
+ * opaque URL-safe string for use in API links.
+ */
+public final class VenueCursor {
+
+	private final String name;
+	private final long id;
+
+	public VenueCursor(String name, long id) {
+		this.name = name;
+		this.id = id;
+	}
+
+	public static VenueCursor of(Venue venue) {
+		return new VenueCursor(venue.getName(), venue.getId());
+	}
+
+	public String encode() {
+		// Id first, the name may contain anything.
+		String key = id + "|" + name;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static VenueCursor decode(String cursor) {
+		try {
+			String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = key.split("\\|", 2);
+			if (parts.length != 2) {
+				throw new InvalidCursorException(cursor);
+			}
+
+			return new VenueCursor(parts[1], Long.parseLong(parts[0]));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException(cursor);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getId() {
+		return id;
+	}
+}
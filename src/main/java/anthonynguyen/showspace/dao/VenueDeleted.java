@@ -0,0 +1,17 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * Published when a venue, and with it all of its events, is deleted.
+ */
+public class VenueDeleted {
+
+	private final long venueId;
+
+	public VenueDeleted(long venueId) {
+		this.venueId = venueId;
+	}
+
+	public long getVenueId() {
+		return venueId;
+	}
+}
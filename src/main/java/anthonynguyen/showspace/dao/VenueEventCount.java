@@ -0,0 +1,37 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * A venue's name and how many events it hosts, without loading the events.
+ */
+public final class VenueEventCount {
+
+	private final long id;
+	private final String name;
+	private final long eventCount;
+
+	public VenueEventCount(long id, String name, long eventCount) {
+		this.id = id;
+		this.name = name;
+		this.eventCount = eventCount;
+	}
+
+	VenueEventCount withName(String name) {
+		return new VenueEventCount(id, name, eventCount);
+	}
+
+	VenueEventCount plus(long delta) {
+		return new VenueEventCount(id, name, Math.max(0, eventCount + delta));
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getEventCount() {
+		return eventCount;
+	}
+}
@@ -0,0 +1,23 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * Published when events are added to or removed from a venue.
+ */
+public class VenueEventCountChanged {
+
+	private final long venueId;
+	private final int delta;
+
+	public VenueEventCountChanged(long venueId, int delta) {
+		this.venueId = venueId;
+		this.delta = delta;
+	}
+
+	public long getVenueId() {
+		return venueId;
+	}
+
+	public int getDelta() {
+		return delta;
+	}
+}
@@ -0,0 +1,11 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One row of the venue/upcoming event join behind the events map.
+ */
+public record VenueEventRow(long venueId, String venueName, double latitude, double longitude, long eventId,
+		String eventName, LocalDate date, LocalTime time) {
+}
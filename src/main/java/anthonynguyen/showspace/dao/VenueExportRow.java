@@ -0,0 +1,9 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * A venue as exported. Coordinates are only meaningful once the geocode state
+ * is RESOLVED.
+ */
+public record VenueExportRow(long id, String name, String roadName, String postcode, Integer capacity,
+		double latitude, double longitude, String geocodeState) {
+}
@@ -0,0 +1,20 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.List;
+
+/**
+ * Published when venues are saved with an address that needs geocoding.
+ * Handled by VenueGeocodingWorker once the saving transaction commits.
+ */
+public class VenueGeocodeRequested {
+
+	private final List<Long> venueIds;
+
+	public VenueGeocodeRequested(List<Long> venueIds) {
+		this.venueIds = venueIds;
+	}
+
+	public List<Long> getVenueIds() {
+		return venueIds;
+	}
+}
@@ -0,0 +1,20 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.List;
+
+/**
+ * Published when VenueGeocodingWorker writes coordinates (or a failed lookup)
+ * for a batch of venues.
+ */
+public class VenueGeocoded {
+
+	private final List<Long> venueIds;
+
+	public VenueGeocoded(List<Long> venueIds) {
+		this.venueIds = venueIds;
+	}
+
+	public List<Long> getVenueIds() {
+		return venueIds;
+	}
+}
@@ -0,0 +1,207 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import anthonynguyen.showspace.entities.GeocodeCacheEntry;
+import anthonynguyen.showspace.entities.Venue;
+import anthonynguyen.showspace.entities.Venue.GeocodeState;
+import anthonynguyen.showspace.exceptions.GeocodingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Fills in coordinates for venues saved with a PENDING geocode state.
+ *
+ * Runs off the request thread once the save has committed, and on a sweep for
+ * anything left behind (lookups that failed, or a restart). The sweep only
+ * picks out a batch and hands it to the async executor, so slow lookups never
+ * hold up the scheduler thread the other @Scheduled jobs share. Venues are handled
+ * in batches: one query loads the venues, one query checks the cache for all
+ * of their addresses, and only the distinct misses go to the geocoder. Calls
+ * stop while the circuit breaker is open, leaving venues PENDING for the next
+ * sweep.
+ */
+@Component
+public class VenueGeocodingWorker {
+
+	private final static Logger log = LoggerFactory.getLogger(VenueGeocodingWorker.class);
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private Geocoder geocoder;
+
+	@Autowired
+	private GeocodeCache geocodeCache;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${geocoding.batch-size:50}")
+	private int batchSize;
+
+	@Value("${geocoding.failure-threshold:5}")
+	private int failureThreshold;
+
+	@Value("${geocoding.circuit-open-ms:300000}")
+	private long circuitOpenMs;
+
+	private CircuitBreaker circuitBreaker;
+	private TransactionTemplate transactionTemplate;
+	private Counter cacheHits;
+	private Counter cacheMisses;
+	private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+	@PostConstruct
+	void init() {
+		circuitBreaker = new CircuitBreaker("geocoder", failureThreshold, circuitOpenMs);
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		cacheHits = Counter.builder("showspace.geocoding.cache").tag("result", "hit").register(meterRegistry);
+		cacheMisses = Counter.builder("showspace.geocoding.cache").tag("result", "miss").register(meterRegistry);
+	}
+
+	@Async
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onGeocodeRequested(VenueGeocodeRequested request) {
+		geocode(request.getVenueIds());
+	}
+
+	// Handled by onGeocodeRequested, on the async executor.
+	@Scheduled(fixedDelayString = "${geocoding.sweep-interval-ms:60000}",
+			initialDelayString = "${geocoding.sweep-initial-delay-ms:30000}")
+	public void sweep() {
+		geocodeCache.evictExpired();
+		List<Long> ids = venueRepository.findIdsByGeocodeState(GeocodeState.PENDING, PageRequest.of(0, batchSize));
+		if (!ids.isEmpty()) {
+			eventPublisher.publishEvent(new VenueGeocodeRequested(ids));
+		}
+	}
+
+	// Venues already being geocoded are skipped, so the save listener and the
+	// sweep don't geocode the same venue twice, without either waiting on the
+	// other.
+	public void geocode(Collection<Long> venueIds) {
+		List<Long> ids = new ArrayList<>();
+		for (Long id : venueIds) {
+			if (inProgress.add(id)) {
+				ids.add(id);
+			}
+		}
+		try {
+			for (int from = 0; from < ids.size(); from += batchSize) {
+				geocodeBatch(ids.subList(from, Math.min(from + batchSize, ids.size())));
+			}
+		} finally {
+			inProgress.removeAll(ids);
+		}
+	}
+
+	private void geocodeBatch(List<Long> ids) {
+		Map<String, List<Venue>> byKey = new LinkedHashMap<>();
+		for (Venue venue : venueRepository.findAllById(ids)) {
+			if (venue.getGeocodeState() == GeocodeState.PENDING) {
+				byKey.computeIfAbsent(GeocodeCache.key(venue.getRoadName(), venue.getPostcode()), k -> new ArrayList<>())
+						.add(venue);
+			}
+		}
+		if (byKey.isEmpty()) {
+			return;
+		}
+
+		Map<String, GeocodeCacheEntry> results = geocodeCache.lookupAll(byKey.keySet());
+		cacheHits.increment(results.size());
+
+		List<GeocodeCacheEntry> looked = new ArrayList<>();
+		for (Map.Entry<String, List<Venue>> pending : byKey.entrySet()) {
+			if (results.containsKey(pending.getKey())) {
+				continue;
+			}
+			if (!circuitBreaker.allowRequest()) {
+				break;
+			}
+			cacheMisses.increment();
+
+			Venue venue = pending.getValue().get(0);
+			GeocodeCacheEntry entry = lookup(pending.getKey(), venue.getRoadName() + ", " + venue.getPostcode() + ", UK");
+			if (entry != null) {
+				looked.add(entry);
+				results.put(entry.getLookupKey(), entry);
+			}
+		}
+		geocodeCache.putAll(looked);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Long> applied = new ArrayList<>();
+			for (Map.Entry<String, GeocodeCacheEntry> result : results.entrySet()) {
+				for (Venue venue : byKey.get(result.getKey())) {
+					apply(venue, result.getValue());
+					applied.add(venue.getId());
+				}
+			}
+			if (!applied.isEmpty()) {
+				eventPublisher.publishEvent(new VenueGeocoded(applied));
+			}
+		});
+	}
+
+	private GeocodeCacheEntry lookup(String key, String address) {
+		long start = System.nanoTime();
+		try {
+			double[] point = geocoder.geocode(address);
+			circuitBreaker.recordSuccess();
+			record(point == null ? "not_found" : "found", start);
+			return new GeocodeCacheEntry(key, point, Instant.now());
+		} catch (GeocodingException e) {
+			circuitBreaker.recordFailure();
+			record("error", start);
+			log.warn("Geocoding failed for " + address + ", will retry: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private void apply(Venue venue, GeocodeCacheEntry entry) {
+		String postcode = venue.getPostcode() == null ? "" : venue.getPostcode();
+		if (entry.isFound()) {
+			venueRepository.applyGeocode(venue.getId(), venue.getRoadName(), postcode, entry.getLatitude(),
+					entry.getLongitude(), GeocodeState.RESOLVED);
+		} else {
+			venueRepository.applyGeocode(venue.getId(), venue.getRoadName(), postcode, 0.0, 0.0,
+					GeocodeState.FAILED);
+		}
+	}
+
+	private void record(String outcome, long start) {
+		Timer.builder("showspace.geocoding.lookup").tag("outcome", outcome).register(meterRegistry)
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+}
@@ -0,0 +1,66 @@
+package anthonynguyen.showspace.dao;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A venue on the events map, with its upcoming events in date order.
+ */
+public final class VenueLocation {
+
+	public record UpcomingEvent(long id, String name, LocalDate date, LocalTime time) {
+	}
+
+	private final long id;
+	private final String name;
+	private final double latitude;
+	private final double longitude;
+	private final List<UpcomingEvent> events = new ArrayList<>();
+
+	private VenueLocation(VenueEventRow row) {
+		this.id = row.venueId();
+		this.name = row.venueName();
+		this.latitude = row.latitude();
+		this.longitude = row.longitude();
+	}
+
+	/**
+	 * Gather join rows, which must be ordered by venue, into one location per
+	 * venue.
+	 */
+	public static List<VenueLocation> group(List<VenueEventRow> rows) {
+		List<VenueLocation> locations = new ArrayList<>();
+		VenueLocation current = null;
+		for (VenueEventRow row : rows) {
+			if (current == null || current.id != row.venueId()) {
+				current = new VenueLocation(row);
+				locations.add(current);
+			}
+			current.events.add(new UpcomingEvent(row.eventId(), row.eventName(), row.date(), row.time()));
+		}
+		return locations;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public List<UpcomingEvent> getEvents() {
+		return Collections.unmodifiableList(events);
+	}
+}
@@ -0,0 +1,184 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Venues ranked by how many events they host, kept in memory for the home
+ * page.
+ *
+ * The ranking is built from one aggregate query on first use, then adjusted
+ * as events and venues are saved and deleted, once those transactions have
+ * committed. Reading the top N walks N entries of a sorted set, so no events
+ * are loaded or counted per page view. A periodic rebuild corrects any drift,
+ * e.g. from rows written straight to the database.
+ *
+ * The aggregate query runs without holding the ranking, so changes keep
+ * arriving while it reads. Those are recorded and replayed onto the new counts,
+ * as SiteSearch does; a change committed just before the query started but
+ * seen just after can still count twice, until the next rebuild.
+ */
+@Component
+public class VenueRanking {
+
+	private final static Logger log = LoggerFactory.getLogger(VenueRanking.class);
+
+	// Most events first, ties by name then id so the order is stable.
+	private static final Comparator<VenueEventCount> ORDER = Comparator
+			.comparingLong(VenueEventCount::getEventCount).reversed()
+			.thenComparing(VenueEventCount::getName, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparingLong(VenueEventCount::getId);
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	private final Map<Long, VenueEventCount> byVenue = new HashMap<>();
+	private final TreeSet<VenueEventCount> ranked = new TreeSet<>(ORDER);
+	private boolean loaded;
+
+	// Bumped whenever the counts are thrown away, so a load whose query was
+	// already running when that happened doesn't mark the ranking loaded.
+	private long generation;
+
+	// Changes seen while a load is reading the database, replayed onto the
+	// new counts before they replace the old ones.
+	private List<Runnable> duringLoad;
+
+	// One aggregate query at a time.
+	private final Object loading = new Object();
+
+	public List<VenueEventCount> top(int limit) {
+		synchronized (this) {
+			if (loaded) {
+				return first(limit);
+			}
+		}
+		load(false);
+		synchronized (this) {
+			return first(limit);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${showspace.ranking.rebuild-interval-ms:600000}",
+			initialDelayString = "${showspace.ranking.rebuild-interval-ms:600000}")
+	public void rebuild() {
+		int venues = load(true);
+		log.info("Rebuilt venue ranking for " + venues + " venues");
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onEventCountChanged(VenueEventCountChanged change) {
+		// Until the first load the counts come straight from the database.
+		apply(() -> {
+			VenueEventCount current = byVenue.get(change.getVenueId());
+			if (current != null) {
+				replace(current, current.plus(change.getDelta()));
+			}
+		});
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenueSaved(VenueSaved saved) {
+		apply(() -> {
+			VenueEventCount current = byVenue.get(saved.getVenueId());
+			if (current == null) {
+				replace(null, new VenueEventCount(saved.getVenueId(), saved.getName(), 0));
+			} else {
+				replace(current, current.withName(saved.getName()));
+			}
+		});
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenueDeleted(VenueDeleted deleted) {
+		apply(() -> {
+			VenueEventCount current = byVenue.remove(deleted.getVenueId());
+			if (current != null) {
+				ranked.remove(current);
+			}
+		});
+	}
+
+	// Too many venues' counts change at once to adjust one by one, so the next
+	// read reloads them.
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onVenuesImported(VenuesImported imported) {
+		invalidate();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onEventsImported(EventsImported imported) {
+		invalidate();
+	}
+
+	// Unless always, does nothing if another caller loaded the counts first.
+	private int load(boolean always) {
+		synchronized (loading) {
+			long started;
+			synchronized (this) {
+				if (loaded && !always) {
+					return byVenue.size();
+				}
+				started = generation;
+				duringLoad = new ArrayList<>();
+			}
+
+			List<VenueEventCount> counts = venueRepository.countEventsByVenue();
+
+			synchronized (this) {
+				byVenue.clear();
+				ranked.clear();
+				for (VenueEventCount count : counts) {
+					byVenue.put(count.getId(), count);
+					ranked.add(count);
+				}
+				duringLoad.forEach(Runnable::run);
+				duringLoad = null;
+				loaded = generation == started;
+				return byVenue.size();
+			}
+		}
+	}
+
+	private void invalidate() {
+		loaded = false;
+		generation++;
+	}
+
+	private void apply(Runnable change) {
+		change.run();
+		if (duringLoad != null) {
+			duringLoad.add(change);
+		}
+	}
+
+	private List<VenueEventCount> first(int limit) {
+		List<VenueEventCount> top = new ArrayList<>(Math.min(limit, ranked.size()));
+		Iterator<VenueEventCount> it = ranked.iterator();
+		while (top.size() < limit && it.hasNext()) {
+			top.add(it.next());
+		}
+		return top;
+	}
+
+	private void replace(VenueEventCount old, VenueEventCount updated) {
+		if (old != null) {
+			ranked.remove(old);
+		}
+		byVenue.put(updated.getId(), updated);
+		ranked.add(updated);
+	}
+}
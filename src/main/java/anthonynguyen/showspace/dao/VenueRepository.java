@@ -1,12 +1,24 @@
 package anthonynguyen.showspace.dao;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import anthonynguyen.showspace.entities.Event;
 import anthonynguyen.showspace.entities.Venue;
+import anthonynguyen.showspace.entities.Venue.GeocodeState;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface VenueRepository extends CrudRepository<Venue, Long> {
@@ -15,4 +27,60 @@ public interface VenueRepository extends CrudRepository<Venue, Long> {
 	
 	List<Venue> findByNameContainingIgnoreCase(String name);
 
+	// Keyset pages in (name, id) order, bounded on name so the name index is used.
+
+	@Query("SELECT v FROM Venue v ORDER BY v.name ASC, v.id ASC")
+	List<Venue> findFirstPage(Pageable pageable);
+
+	@Query("SELECT v FROM Venue v WHERE v.name >= :name AND (v.name > :name OR (v.name = :name AND v.id > :id)) ORDER BY v.name ASC, v.id ASC")
+	List<Venue> findPageAfter(@Param("name") String name, @Param("id") long id, Pageable pageable);
+
+	@Query("SELECT v FROM Venue v WHERE v.name <= :name AND (v.name < :name OR (v.name = :name AND v.id < :id)) ORDER BY v.name DESC, v.id DESC")
+	List<Venue> findPageBefore(@Param("name") String name, @Param("id") long id, Pageable pageable);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT v FROM Venue v ORDER BY v.name ASC, v.id ASC")
+	Stream<Venue> streamAllInPageOrder();
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new anthonynguyen.showspace.dao.VenueSearchText(v.id, v.name, v.roadName, v.postcode) FROM Venue v")
+	Stream<VenueSearchText> streamSearchText();
+
+	@Query("SELECT new anthonynguyen.showspace.dao.VenueSummary(v.id, v.name, v.latitude, v.longitude) FROM Venue v ORDER BY v.name ASC, v.id ASC")
+	List<VenueSummary> findSummaries();
+
+	// Venues with upcoming events for the events map, one row per event, grouped
+	// by venue. Venues still waiting on (or failed) geocoding are left off.
+	@Query("SELECT new anthonynguyen.showspace.dao.VenueEventRow(v.id, v.name, v.latitude, v.longitude, e.id, e.name, e.date, e.time) "
+			+ "FROM Event e JOIN e.venue v WHERE e.date >= :from AND (v.geocodeState IS NULL OR v.geocodeState = :resolved) "
+			+ "ORDER BY v.id, e.date, e.time NULLS FIRST, e.id")
+	List<VenueEventRow> findUpcomingEventRows(@Param("from") LocalDate from, @Param("resolved") GeocodeState resolved);
+
+	@Query("SELECT new anthonynguyen.showspace.dao.VenueEventRow(v.id, v.name, v.latitude, v.longitude, e.id, e.name, e.date, e.time) "
+			+ "FROM Event e JOIN e.venue v WHERE e.date >= :from AND (v.geocodeState IS NULL OR v.geocodeState = :resolved) "
+			+ "AND v.longitude BETWEEN :west AND :east AND v.latitude BETWEEN :south AND :north "
+			+ "ORDER BY v.id, e.date, e.time NULLS FIRST, e.id")
+	List<VenueEventRow> findUpcomingEventRowsWithin(@Param("from") LocalDate from,
+			@Param("resolved") GeocodeState resolved, @Param("west") double west, @Param("south") double south,
+			@Param("east") double east, @Param("north") double north);
+
+	@Query("SELECT new anthonynguyen.showspace.dao.VenueEventCount(v.id, v.name, COUNT(e.id)) "
+			+ "FROM Venue v LEFT JOIN v.events e GROUP BY v.id, v.name")
+	List<VenueEventCount> countEventsByVenue();
+
+	@Query("SELECT v.id FROM Venue v WHERE v.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT v.id FROM Venue v WHERE v.geocodeState = :state ORDER BY v.id")
+	List<Long> findIdsByGeocodeState(@Param("state") GeocodeState state, Pageable pageable);
+
+	// Only applies if the address is still the one that was looked up.
+	@Transactional
+	@Modifying
+	@Query("UPDATE Venue v SET v.latitude = :latitude, v.longitude = :longitude, v.geocodeState = :state, "
+			+ "v.addressChanged = false WHERE v.id = :id AND v.roadName = :roadName AND COALESCE(v.postcode, '') = :postcode")
+	int applyGeocode(@Param("id") long id, @Param("roadName") String roadName, @Param("postcode") String postcode,
+			@Param("latitude") double latitude, @Param("longitude") double longitude,
+			@Param("state") GeocodeState state);
+
 }
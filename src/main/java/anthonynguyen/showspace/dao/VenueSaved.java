@@ -0,0 +1,37 @@
+package anthonynguyen.showspace.dao;
+
+import anthonynguyen.showspace.entities.Venue;
+
+/**
+ * Published when a venue is created or updated.
+ */
+public class VenueSaved {
+
+	private final long venueId;
+	private final String name;
+	private final String roadName;
+	private final String postcode;
+
+	public VenueSaved(Venue venue) {
+		this.venueId = venue.getId();
+		this.name = venue.getName();
+		this.roadName = venue.getRoadName();
+		this.postcode = venue.getPostcode();
+	}
+
+	public long getVenueId() {
+		return venueId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getRoadName() {
+		return roadName;
+	}
+
+	public String getPostcode() {
+		return postcode;
+	}
+}
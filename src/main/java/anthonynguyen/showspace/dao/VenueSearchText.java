@@ -0,0 +1,7 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * The searchable text of a venue, read without loading the entity.
+ */
+public record VenueSearchText(long id, String name, String roadName, String postcode) {
+}
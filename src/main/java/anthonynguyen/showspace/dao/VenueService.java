@@ -1,7 +1,9 @@
 package anthonynguyen.showspace.dao;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import anthonynguyen.showspace.entities.Event;
 import anthonynguyen.showspace.entities.Venue;
@@ -11,11 +13,29 @@ public interface VenueService {
 	public long count();
 
 	public List<Venue> findAll();
+
+	/**
+	 * Every venue's id, name and coordinates in name order, e.g. for a venue
+	 * picker. Cached until a venue changes.
+	 */
+	public List<VenueSummary> findSummaries();
 	
 	public List<Venue> findByNameContainingIgnoreCase(String name);
+
+	/**
+	 * Venues matching a search on name, road name and postcode, most relevant
+	 * first.
+	 */
+	public List<Venue> search(String query);
 	
 	public void save(Venue venue);
 
+	/**
+	 * Save a batch of venues, e.g. from an import. Their addresses are
+	 * geocoded together after the transaction commits.
+	 */
+	public void saveAll(Collection<Venue> venues);
+
 	public boolean existsById(long id);
 
     public void deleteById(long id);
@@ -23,6 +43,34 @@ public interface VenueService {
     Venue findById(Long id);
     
     List<Event> findNextThreeEventsForVenue(long venueId);
+
+    /**
+     * A page of venues in (name, id) order.
+     *
+     * @param after position to start after, or null for the first page
+     * @param size  maximum number of venues to return
+     */
+    List<Venue> findPage(VenueCursor after, int size);
+
+    /**
+     * The page of venues immediately before a position, still in (name, id)
+     * order.
+     */
+    List<Venue> findPageBefore(VenueCursor before, int size);
+
+    /**
+     * Pass every venue to an action in page order as it is read, without
+     * holding the whole table in memory.
+     */
+    void streamAll(Consumer<Venue> action);
+
+    /**
+     * Venues with events on or after a date, each with those events in date
+     * order, read in one query.
+     *
+     * @param within only venues inside this box, or null for everywhere
+     */
+    List<VenueLocation> findUpcomingLocations(LocalDate from, BoundingBox within);
     
     
     
@@ -13,18 +13,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Value;
-import com.mapbox.api.geocoding.v5.MapboxGeocoding;
-import com.mapbox.api.geocoding.v5.models.GeocodingResponse;
-import com.mapbox.geojson.Point;
-import com.mapbox.api.geocoding.v5.models.CarmenFeature;
-import retrofit2.Response;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import anthonynguyen.showspace.entities.Event;
 
 import anthonynguyen.showspace.entities.Venue;
+import anthonynguyen.showspace.entities.Venue.GeocodeState;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class VenueServiceImpl implements VenueService {
@@ -36,6 +43,18 @@ public class VenueServiceImpl implements VenueService {
 	
 	@Autowired
 	private EventService eventService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private SiteSearch siteSearch;
+
+	@Autowired
+	private VenueSummaryCache venueSummaryCache;
+
+	@PersistenceContext
+	private EntityManager entityManager;
 	
 	@Override
 	public long count() {
@@ -46,27 +65,81 @@ public class VenueServiceImpl implements VenueService {
 	public List<Venue> findAll() {
 		return venueRepository.findAllByOrderByNameAsc();
 	}
+
+	@Override
+	public List<VenueSummary> findSummaries() {
+		return venueSummaryCache.all();
+	}
 	
 	@Override
 	public List<Venue> findByNameContainingIgnoreCase(String name){
 		return venueRepository.findByNameContainingIgnoreCase(name);
 	}
 	
+	@Override
+	public List<Venue> search(String query) {
+		if (!siteSearch.canAnswer(query)) {
+			return findByNameContainingIgnoreCase(query);
+		}
+
+		List<Long> ids = siteSearch.searchVenues(query);
+		Map<Long, Venue> byId = new HashMap<>();
+		venueRepository.findAllById(ids).forEach(venue -> byId.put(venue.getId(), venue));
+
+		List<Venue> ranked = new ArrayList<>(byId.size());
+		for (Long id : ids) {
+			Venue venue = byId.get(id);
+			if (venue != null) {
+				ranked.add(venue);
+			}
+		}
+		return ranked;
+	}
+
 	@Override
 	@Transactional
 	public void save(Venue venue) {
-        // Only call API if address has changed to preserve API calls
+        // Only geocode if address has changed to preserve API calls. The lookup
+        // happens in VenueGeocodingWorker after commit, not in this transaction.
 		if (venue.isAddressChanged()) {
-            double[] coordinates = getCoordinatesFromAddress(venue.getRoadName(), venue.getPostcode());
-            venue.setLatitude(coordinates[0]);
-            venue.setLongitude(coordinates[1]);
+            venue.setGeocodeState(GeocodeState.PENDING);
         }
         venueRepository.save(venue);
+        eventPublisher.publishEvent(new VenueSaved(venue));
+
+        if (venue.getGeocodeState() == GeocodeState.PENDING) {
+            eventPublisher.publishEvent(new VenueGeocodeRequested(List.of(venue.getId())));
+        }
+	}
+
+	@Override
+	@Transactional
+	public void saveAll(Collection<Venue> venues) {
+		List<Long> pending = new ArrayList<>();
+		for (Venue venue : venues) {
+			if (venue.isAddressChanged()) {
+				venue.setGeocodeState(GeocodeState.PENDING);
+			}
+		}
+		venueRepository.saveAll(venues);
+
+		for (Venue venue : venues) {
+			eventPublisher.publishEvent(new VenueSaved(venue));
+			if (venue.getGeocodeState() == GeocodeState.PENDING) {
+				pending.add(venue.getId());
+			}
+		}
+		// One request for the lot, so the worker can batch the lookups.
+		if (!pending.isEmpty()) {
+			eventPublisher.publishEvent(new VenueGeocodeRequested(pending));
+		}
 	}
 	
 	@Override
+	@Transactional
     public void deleteById(long id) {
         venueRepository.deleteById(id);
+        eventPublisher.publishEvent(new VenueDeleted(id));
     }
 
     @Override
@@ -83,44 +156,45 @@ public class VenueServiceImpl implements VenueService {
     public List<Event> findNextThreeEventsForVenue(long venueId) {
         return eventService.findNextThreeEventsByVenue(venueId);
     }
-    
-    
 
-
-    private double[] getCoordinatesFromAddress(String roadName, String postcode) {
-        String address = roadName + ", " + postcode + ", UK";
-
-        // Geocoding using Mapbox API
-        MapboxGeocoding mapboxGeocoding = MapboxGeocoding.builder()
-                .accessToken("pk.eyJ1IjoiYXFpYmZhcnVxdWkiLCJhIjoiY204ZWdwNmw4MDFiODJxcXd0cnAwc3JnOCJ9.10N0eEkD95aNtypda1RLnA")
-                .query(address)
-                .limit(1)  // Limit results to 1
-                .build();
-
-        try {
-            // Execute geocoding request and get response
-            Response<GeocodingResponse> response = mapboxGeocoding.executeCall();
-
-            // Check if the response is successful and contains a body
-            if (response.isSuccessful() && response.body() != null) {
-                GeocodingResponse geocodingResponse = response.body();
-
-                // Check if we got any features (locations)
-                List<CarmenFeature> features = geocodingResponse.features();
-                if (features != null && !features.isEmpty()) {
-                    CarmenFeature feature = features.get(0);
-                    Point point = feature.center();
-                    double latitude = point.latitude();
-                    double longitude = point.longitude();
-                    return new double[]{latitude, longitude};
-                }
-            }
-        } catch (Exception e) {
-            // Handle geocoding errors gracefully
+    @Override
+    public List<Venue> findPage(VenueCursor after, int size) {
+        if (after == null) {
+            return venueRepository.findFirstPage(PageRequest.of(0, size));
         }
+        return venueRepository.findPageAfter(after.getName(), after.getId(), PageRequest.of(0, size));
+    }
 
-        // Return default coordinates if unable to find location
-        return new double[]{0.0, 0.0};
+    @Override
+    public List<Venue> findPageBefore(VenueCursor before, int size) {
+        List<Venue> page = new ArrayList<>(
+                venueRepository.findPageBefore(before.getName(), before.getId(), PageRequest.of(0, size)));
+        Collections.reverse(page);
+        return page;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<VenueLocation> findUpcomingLocations(LocalDate from, BoundingBox within) {
+        List<VenueEventRow> rows = within == null
+                ? venueRepository.findUpcomingEventRows(from, GeocodeState.RESOLVED)
+                : venueRepository.findUpcomingEventRowsWithin(from, GeocodeState.RESOLVED, within.getWest(),
+                        within.getSouth(), within.getEast(), within.getNorth());
+        return VenueLocation.group(rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Venue> action) {
+        try (Stream<Venue> venues = venueRepository.streamAllInPageOrder()) {
+            venues.forEach(venue -> {
+                action.accept(venue);
+                entityManager.detach(venue);
+            });
+        }
+    }
+    
+    
+
+
 }
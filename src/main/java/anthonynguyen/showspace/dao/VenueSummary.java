@@ -0,0 +1,36 @@
+package anthonynguyen.showspace.dao;
+
+/**
+ * The few columns of a venue needed to list it in a form's venue picker,
+ * read without loading the entity or its events.
+ */
+public final class VenueSummary {
+
+	private final long id;
+	private final String name;
+	private final double latitude;
+	private final double longitude;
+
+	public VenueSummary(long id, String name, double latitude, double longitude) {
+		this.id = id;
+		this.name = name;
+		this.latitude = latitude;
+		this.longitude = longitude;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+}
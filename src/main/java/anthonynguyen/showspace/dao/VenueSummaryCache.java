@@ -0,0 +1,80 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Every venue's summary in name order, for the venue pickers on the event
+ * forms.
+ *
+ * Read through: the list is loaded with one projection query on first use and
+ * handed out until a venue is saved, deleted, geocoded or imported, when it is
+ * dropped once that transaction has committed and the next caller reloads it.
+ * A load that overlaps a change is used but not kept, so a list read before
+ * the commit can't outlive it.
+ */
+@Component
+public class VenueSummaryCache {
+
+	private final static Logger log = LoggerFactory.getLogger(VenueSummaryCache.class);
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	private volatile List<VenueSummary> summaries;
+	private long generation;
+
+	public List<VenueSummary> all() {
+		List<VenueSummary> cached = summaries;
+		if (cached != null) {
+			return cached;
+		}
+
+		long loading;
+		synchronized (this) {
+			if (summaries != null) {
+				return summaries;
+			}
+			loading = generation;
+		}
+		List<VenueSummary> loaded = Collections.unmodifiableList(venueRepository.findSummaries());
+		synchronized (this) {
+			if (generation == loading) {
+				summaries = loaded;
+				log.info("Loaded " + loaded.size() + " venue summaries");
+			}
+		}
+		return loaded;
+	}
+
+	public synchronized void evict() {
+		generation++;
+		summaries = null;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenueSaved(VenueSaved saved) {
+		evict();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenueDeleted(VenueDeleted deleted) {
+		evict();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenueGeocoded(VenueGeocoded geocoded) {
+		evict();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVenuesImported(VenuesImported imported) {
+		evict();
+	}
+}
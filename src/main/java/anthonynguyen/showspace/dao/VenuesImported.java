@@ -0,0 +1,20 @@
+package anthonynguyen.showspace.dao;
+
+import java.util.List;
+
+/**
+ * Published when a batch of venues is inserted by an import, in place of a
+ * VenueSaved for each of them.
+ */
+public class VenuesImported {
+
+	private final List<VenueSearchText> venues;
+
+	public VenuesImported(List<VenueSearchText> venues) {
+		this.venues = venues;
+	}
+
+	public List<VenueSearchText> getVenues() {
+		return venues;
+	}
+}
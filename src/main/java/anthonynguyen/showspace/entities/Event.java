@@ -3,30 +3,47 @@ package anthonynguyen.showspace.entities;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Column;
 
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
+import anthonynguyen.showspace.config.ConfigurableSequence;
+
 @Entity
-@Table(name = "events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// (date, time, id) is the keyset page order, (venue_id, date) the upcoming
+// events at a venue, (date, name) the timeline and home page listings.
+@Table(name = "events", indexes = { @Index(name = "idx_events_date_time", columnList = "date, time, id"),
+		@Index(name = "idx_events_venue_date", columnList = "venue_id, date"),
+		@Index(name = "idx_events_date_name_id", columnList = "date, name, id"),
+		@Index(name = "idx_events_date_desc_name_id", columnList = "date DESC, name, id") })
+// The venue is only loaded by queries that ask for it with this graph.
+@NamedEntityGraph(name = "Event.venue", attributeNodes = @NamedAttributeNode("venue"))
 public class Event {
 
 	@Id
-	@GeneratedValue
+	// The sequence a plain @GeneratedValue used, so existing databases carry on.
+	@ConfigurableSequence(name = "events_SEQ")
 	private long id;
 
 	@NotBlank(message = "Please enter an event name.")
@@ -53,7 +70,7 @@ public class Event {
 
 
 	@NotNull(message = "Please select a venue.")
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "venue_id", referencedColumnName = "id")
 	@JsonBackReference
 	private Venue venue;
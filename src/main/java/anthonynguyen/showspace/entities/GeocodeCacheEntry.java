@@ -0,0 +1,97 @@
+package anthonynguyen.showspace.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A remembered geocoding result for a road and postcode, including addresses
+ * the geocoder didn't know, so neither is looked up again until it expires.
+ */
+@Entity
+@Table(name = "geocode_cache", indexes = @Index(name = "idx_geocode_cache_last_used", columnList = "lastUsedAt"))
+public class GeocodeCacheEntry {
+
+	// Normalised "ROAD|POSTCODE", see GeocodeCache.key
+	@Id
+	@Column(length = 400)
+	private String lookupKey;
+
+	private boolean found;
+
+	private double latitude;
+
+	private double longitude;
+
+	@Column(nullable = false)
+	private Instant resolvedAt;
+
+	@Column(nullable = false)
+	private Instant lastUsedAt;
+
+	public GeocodeCacheEntry() {
+	}
+
+	public GeocodeCacheEntry(String lookupKey, double[] point, Instant now) {
+		this.lookupKey = lookupKey;
+		this.found = point != null;
+		if (found) {
+			this.latitude = point[0];
+			this.longitude = point[1];
+		}
+		this.resolvedAt = now;
+		this.lastUsedAt = now;
+	}
+
+	public String getLookupKey() {
+		return lookupKey;
+	}
+
+	public void setLookupKey(String lookupKey) {
+		this.lookupKey = lookupKey;
+	}
+
+	public boolean isFound() {
+		return found;
+	}
+
+	public void setFound(boolean found) {
+		this.found = found;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public void setLatitude(double latitude) {
+		this.latitude = latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public void setLongitude(double longitude) {
+		this.longitude = longitude;
+	}
+
+	public Instant getResolvedAt() {
+		return resolvedAt;
+	}
+
+	public void setResolvedAt(Instant resolvedAt) {
+		this.resolvedAt = resolvedAt;
+	}
+
+	public Instant getLastUsedAt() {
+		return lastUsedAt;
+	}
+
+	public void setLastUsedAt(Instant lastUsedAt) {
+		this.lastUsedAt = lastUsedAt;
+	}
+}
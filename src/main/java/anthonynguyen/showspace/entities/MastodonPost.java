@@ -0,0 +1,156 @@
+package anthonynguyen.showspace.entities;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A post waiting to be sent to Mastodon, or the record of one that was.
+ *
+ * Rows are written when a user shares an event and worked through by the
+ * outbox drainer in MastodonPostServiceImpl.
+ */
+@Entity
+@Table(name = "mastodon_posts", indexes = @Index(name = "idx_mastodon_posts_state_next", columnList = "state, nextAttemptAt"))
+public class MastodonPost {
+
+	public enum State {
+		// Waiting for its next attempt
+		PENDING,
+		// Claimed by a worker
+		SENDING,
+		SENT,
+		// Gave up, see lastError
+		DEAD
+	}
+
+	@Id
+	@GeneratedValue
+	private long id;
+
+	private long eventId;
+
+	@Column(length = 1100, nullable = false)
+	private String content;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 10, nullable = false)
+	private State state = State.PENDING;
+
+	private int attempts;
+
+	@Column(nullable = false)
+	private Instant createdAt;
+
+	private Instant nextAttemptAt;
+
+	private Instant sentAt;
+
+	// Id of the status on the Mastodon instance once sent.
+	private Long remoteId;
+
+	// Not in /api/posts, which anyone can read: the error is the Mastodon
+	// instance's, and can say more about our setup than a poster needs.
+	@JsonIgnore
+	@Column(length = 500)
+	private String lastError;
+
+	public MastodonPost() {
+	}
+
+	public MastodonPost(long eventId, String content, Instant now) {
+		this.eventId = eventId;
+		this.content = content;
+		this.createdAt = now;
+		this.nextAttemptAt = now;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	public long getEventId() {
+		return eventId;
+	}
+
+	public void setEventId(long eventId) {
+		this.eventId = eventId;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public void setContent(String content) {
+		this.content = content;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public void setState(State state) {
+		this.state = state;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Instant getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public void setNextAttemptAt(Instant nextAttemptAt) {
+		this.nextAttemptAt = nextAttemptAt;
+	}
+
+	public Instant getSentAt() {
+		return sentAt;
+	}
+
+	public void setSentAt(Instant sentAt) {
+		this.sentAt = sentAt;
+	}
+
+	public Long getRemoteId() {
+		return remoteId;
+	}
+
+	public void setRemoteId(Long remoteId) {
+		this.remoteId = remoteId;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+}
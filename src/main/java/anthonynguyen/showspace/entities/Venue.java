@@ -4,9 +4,13 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import anthonynguyen.showspace.config.ConfigurableSequence;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
@@ -14,11 +18,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
 @Entity
-@Table(name = "venues")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// (name, id) is the listing and keyset page order.
+@Table(name = "venues", indexes = { @Index(name = "idx_venues_name", columnList = "name, id"),
+		@Index(name = "idx_venues_geocode_state", columnList = "geocodeState") })
 public class Venue {
 
 	@Id
-	@GeneratedValue
+	// The sequence a plain @GeneratedValue used, so existing databases carry on.
+	@ConfigurableSequence(name = "venues_SEQ")
 	private long id;
 	
 	private double longitude;
@@ -26,8 +35,22 @@ public class Venue {
 
 	@Column(columnDefinition = "boolean default true")
 	private boolean addressChanged = true;
+
+	public enum GeocodeState {
+		// Saved, coordinates not looked up yet
+		PENDING,
+		RESOLVED,
+		// The geocoder doesn't know the address
+		FAILED
+	}
+
+	// Null on venues geocoded before this was tracked.
+	@Enumerated(EnumType.STRING)
+	@Column(length = 10)
+	private GeocodeState geocodeState = GeocodeState.PENDING;
 	
 	@OneToMany(mappedBy = "venue", cascade = CascadeType.ALL, orphanRemoval = true)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@JsonManagedReference
 	private List<Event> events;
 	
@@ -122,6 +145,14 @@ public class Venue {
 	public boolean isAddressChanged() {
 		return addressChanged;
 	}
+
+	public GeocodeState getGeocodeState() {
+		return geocodeState;
+	}
+
+	public void setGeocodeState(GeocodeState geocodeState) {
+		this.geocodeState = geocodeState;
+	}
 	
 	
 
@@ -0,0 +1,14 @@
+package anthonynguyen.showspace.exceptions;
+
+/**
+ * A geocoding lookup failed in a way that may not happen next time, e.g. the
+ * service was unreachable or rate limited us.
+ */
+public class GeocodingException extends RuntimeException {
+
+	private static final long serialVersionUID = 3904475180263325017L;
+
+	public GeocodingException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
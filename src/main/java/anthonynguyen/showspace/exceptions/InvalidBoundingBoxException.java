@@ -0,0 +1,10 @@
+package anthonynguyen.showspace.exceptions;
+
+public class InvalidBoundingBoxException extends RuntimeException {
+
+	private static final long serialVersionUID = 6120938470551893214L;
+
+	public InvalidBoundingBoxException(String bbox) {
+		super("Invalid bounding box " + bbox);
+	}
+}
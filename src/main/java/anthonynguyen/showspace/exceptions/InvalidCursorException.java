@@ -0,0 +1,18 @@
+package anthonynguyen.showspace.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+
+	private static final long serialVersionUID = -3349021572630714316L;
+
+	private String cursor;
+
+	public InvalidCursorException(String cursor) {
+		super("Invalid page cursor " + cursor);
+
+		this.cursor = cursor;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+}
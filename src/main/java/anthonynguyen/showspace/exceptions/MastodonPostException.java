@@ -0,0 +1,22 @@
+package anthonynguyen.showspace.exceptions;
+
+public class MastodonPostException extends RuntimeException {
+
+	private static final long serialVersionUID = 7154622930811257380L;
+
+	private boolean retryable;
+
+	public MastodonPostException(String message, boolean retryable, Throwable cause) {
+		super(message, cause);
+
+		this.retryable = retryable;
+	}
+
+	/**
+	 * @return false when sending the same post again cannot succeed, e.g. the
+	 *         instance rejected it as invalid
+	 */
+	public boolean isRetryable() {
+		return retryable;
+	}
+}
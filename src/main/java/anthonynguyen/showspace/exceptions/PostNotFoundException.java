@@ -0,0 +1,18 @@
+package anthonynguyen.showspace.exceptions;
+
+public class PostNotFoundException extends RuntimeException {
+
+	private static final long serialVersionUID = -2287513370391565224L;
+
+	private long id;
+
+	public PostNotFoundException(long id) {
+		super("Could not find post " + id);
+
+		this.id = id;
+	}
+
+	public long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,106 @@
+package anthonynguyen.showspace.config;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.VenueService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Request;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class, properties = "showspace.metrics.methods.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext
+@ActiveProfiles("test")
+public class MetricsTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private VenueService venueService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	public void serviceCallsAreTimedWithRowCounts() {
+		eventService.findAll();
+		long before = serviceTimer("EventService", "findAll").count();
+
+		int events = eventService.findAll().size();
+
+		assertEquals(before + 1, serviceTimer("EventService", "findAll").count());
+		DistributionSummary rows = meterRegistry.get("showspace.method.rows").tag("type", "EventService")
+				.tag("method", "findAll").summary();
+		assertEquals(events, rows.max());
+	}
+
+	@Test
+	public void repositoryCallsAreTimed() {
+		eventService.findAll();
+
+		assertTrue(meterRegistry.find("showspace.method").tag("layer", "repository").tag("type", "EventRepository")
+				.timers().stream().anyMatch(timer -> timer.count() > 0));
+	}
+
+	@Test
+	public void failuresAreTimedSeparately() {
+		// Spring Data refuses a null id.
+		assertThrows(RuntimeException.class, () -> venueService.findById(null));
+
+		assertTrue(meterRegistry.find("showspace.method").tag("type", "VenueService").tag("method", "findById")
+				.tag("outcome", "error").timer().count() > 0);
+	}
+
+	@Test
+	@WithMockUser(roles = Security.ADMIN_ROLE)
+	public void prometheusEndpointServesMethodTimings() throws Exception {
+		eventService.findAll();
+
+		mvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+				.andExpect(content().string(containsString("showspace_method_seconds_bucket")));
+	}
+
+	@Test
+	public void prometheusEndpointNeedsAdministrator() throws Exception {
+		mvc.perform(get("/actuator/prometheus").accept("application/json")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	public void pathTemplateCollapsesIds() {
+		Request request = new Request.Builder().url("https://example.social/api/v1/statuses/12345/favourite").build();
+
+		assertEquals("/api/v1/statuses/{id}/favourite", Metrics.pathTemplate(request));
+	}
+
+	private Timer serviceTimer(String type, String method) {
+		return meterRegistry.get("showspace.method").tag("type", type).tag("method", method).tag("outcome", "success")
+				.timer();
+	}
+}
@@ -0,0 +1,72 @@
+package anthonynguyen.showspace.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.sql.Connection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PooledDataSourceTest {
+
+	private SimpleMeterRegistry registry;
+
+	private PooledDataSource dataSource;
+
+	@BeforeEach
+	public void setup() {
+		MockEnvironment env = new MockEnvironment()
+				.withProperty("showspace.datasource.write.maximum-pool-size", "3")
+				.withProperty("showspace.datasource.read.maximum-pool-size", "5");
+		registry = new SimpleMeterRegistry();
+		dataSource = PooledDataSource.create("jdbc:h2:mem:pool-test;DB_CLOSE_DELAY=-1", "h2", "spring", env,
+				registry);
+	}
+
+	@AfterEach
+	public void teardown() {
+		dataSource.close();
+	}
+
+	@Test
+	public void poolSizesComeFromEnvironment() {
+		assertEquals(3, dataSource.getWritePool().getMaximumPoolSize());
+		assertEquals(5, dataSource.getReadPool().getMaximumPoolSize());
+	}
+
+	@Test
+	public void readOnlyConnectionUsesReadPool() throws Exception {
+		try (Connection con = dataSource.getConnection()) {
+			con.setReadOnly(true);
+			con.createStatement().execute("SELECT 1");
+
+			assertEquals(1, dataSource.getReadPool().getHikariPoolMXBean().getActiveConnections());
+			assertEquals(0, dataSource.getWritePool().getHikariPoolMXBean().getActiveConnections());
+		}
+	}
+
+	@Test
+	public void writeConnectionUsesWritePool() throws Exception {
+		try (Connection con = dataSource.getConnection()) {
+			con.createStatement().execute("SELECT 1");
+
+			assertEquals(0, dataSource.getReadPool().getHikariPoolMXBean().getActiveConnections());
+			assertEquals(1, dataSource.getWritePool().getHikariPoolMXBean().getActiveConnections());
+		}
+	}
+
+	@Test
+	public void poolMetricsArePublished() {
+		for (String pool : new String[] { PooledDataSource.WRITE_POOL, PooledDataSource.READ_POOL }) {
+			assertNotNull(registry.find("hikaricp.connections.active").tag("pool", pool).gauge());
+			assertNotNull(registry.find("hikaricp.connections.idle").tag("pool", pool).gauge());
+			assertNotNull(registry.find("hikaricp.connections.pending").tag("pool", pool).gauge());
+			assertNotNull(registry.find("hikaricp.connections.acquire").tag("pool", pool).timer());
+		}
+	}
+}
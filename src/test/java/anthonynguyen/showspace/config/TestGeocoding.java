@@ -0,0 +1,20 @@
+package anthonynguyen.showspace.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import anthonynguyen.showspace.testutil.FakeGeocoder;
+
+@Configuration
+@Profile("test")
+public class TestGeocoding {
+
+	// Keep tests off the Mapbox API.
+	@Bean
+	@Primary
+	public FakeGeocoder fakeGeocoder() {
+		return new FakeGeocoder();
+	}
+}
@@ -6,11 +6,13 @@ import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -18,6 +20,8 @@ import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import anthonynguyen.showspace.testutil.CapturingStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.ValidationMode;
 
@@ -31,24 +35,28 @@ public class TestPersistence {
 	private final static String PACKAGES = "anthonynguyen.showspace.entities";
 
 	// Connection properties.
-	private final static String DB_PATH = "mem:showspace-test";
 	private final static String DB_OPTS = "DB_CLOSE_DELAY=-1";
 
 	// Hibernate properties.
-	private final static boolean H2_SHOW_SQL = true;
 	private final static String H2_HBM2DDL_AUTO = "create-drop";
 	private final static String H2_USERNAME = "h2";
 	private final static String H2_PASSWORD = "spring";
 
+	// In memory, unless a benchmark wants to measure writes to a file.
+	@Value("${showspace.test.db-path:mem:showspace-test}")
+	private String dbPath;
+
+	// Off for the JMH benchmarks, where it would swamp the output.
+	@Value("${showspace.test.show-sql:true}")
+	private boolean showSql;
+
 	@Bean
-	public DataSource dataSource() {
-		String dbUrl = "jdbc:h2:" + DB_PATH + ";" + DB_OPTS;
+	public DataSource dataSource(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+		String dbUrl = "jdbc:h2:" + dbPath + ";" + DB_OPTS;
 
-		DriverManagerDataSource dataSource = new DriverManagerDataSource();
-		dataSource.setDriverClassName("org.h2.Driver");
-		dataSource.setUrl(dbUrl);
-		dataSource.setUsername(H2_USERNAME);
-		dataSource.setPassword(H2_PASSWORD);
+		// Same pooled configuration as production so benchmarks measure the real thing.
+		DataSource dataSource = PooledDataSource.create(dbUrl, H2_USERNAME, H2_PASSWORD, env,
+				meterRegistry.getIfAvailable());
 
 		log.info("Database URL set: " + dbUrl);
 
@@ -56,12 +64,12 @@ public class TestPersistence {
 	}
 
 	@Bean
-	public EntityManagerFactory entityManagerFactory() {
+	public EntityManagerFactory entityManagerFactory(DataSource dataSource, Environment env) {
 		LocalContainerEntityManagerFactoryBean bean = new LocalContainerEntityManagerFactoryBean();
-		bean.setDataSource(dataSource());
+		bean.setDataSource(dataSource);
 		bean.setJpaVendorAdapter(jpaVendorAdapter());
 		bean.setPackagesToScan(PACKAGES);
-		bean.setJpaProperties(hibernateProperties());
+		bean.setJpaProperties(hibernateProperties(env));
 
 		// Entities are validated in controllers, don't need to do it twice.
 		bean.setValidationMode(ValidationMode.NONE);
@@ -74,7 +82,7 @@ public class TestPersistence {
 	public JpaVendorAdapter jpaVendorAdapter() {
 		HibernateJpaVendorAdapter adapter = new HibernateJpaVendorAdapter();
 		adapter.setDatabase(Database.H2);
-		adapter.setShowSql(H2_SHOW_SQL);
+		adapter.setShowSql(showSql);
 		adapter.setGenerateDdl(true);
 
 		return adapter;
@@ -93,9 +101,11 @@ public class TestPersistence {
 		return transactionManager;
 	}
 
-	private Properties hibernateProperties() {
-		Properties properties = new Properties();
+	private Properties hibernateProperties(Environment env) {
+		Properties properties = HibernateSettings.create(env);
 		properties.setProperty("hibernate.hbm2ddl.auto", H2_HBM2DDL_AUTO);
+		properties.setProperty("hibernate.session_factory.statement_inspector",
+				CapturingStatementInspector.class.getName());
 
 		return properties;
 	}
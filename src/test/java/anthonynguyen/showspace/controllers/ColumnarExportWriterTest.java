@@ -0,0 +1,161 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import anthonynguyen.showspace.controllers.ExportColumn.Type;
+
+public class ColumnarExportWriterTest {
+
+	private record Row(Long id, String name, LocalDate date, LocalTime time, Double price) {
+	}
+
+	private static final List<ExportColumn<Row>> COLUMNS = List.of(ExportColumn.of("id", Type.LONG, Row::id),
+			ExportColumn.of("name", Type.STRING, Row::name), ExportColumn.of("date", Type.DATE, Row::date),
+			ExportColumn.of("time", Type.TIME, Row::time), ExportColumn.of("price", Type.DOUBLE, Row::price));
+
+	@Test
+	public void readsBackWhatWasWritten() throws IOException {
+		List<Row> rows = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			rows.add(new Row(i % 4 == 0 ? -5L * i : 1000L + i, i == 3 ? null : "Row " + i + " \u00e9",
+					LocalDate.of(2025, 1, 1).plusDays(i * 3 - 10), i % 2 == 0 ? null : LocalTime.of(19, i),
+					i == 7 ? null : i * 1.5));
+		}
+
+		// Groups of three, so the last one is short.
+		List<Map<String, Object>> read = read(write(rows, 3));
+
+		assertEquals(rows.size(), read.size());
+		for (int i = 0; i < rows.size(); i++) {
+			Row row = rows.get(i);
+			Map<String, Object> columns = read.get(i);
+			assertEquals(row.id(), columns.get("id"));
+			assertEquals(row.name(), columns.get("name"));
+			assertEquals(row.date(), columns.get("date"));
+			assertEquals(row.time(), columns.get("time"));
+			assertEquals(row.price(), columns.get("price"));
+		}
+	}
+
+	@Test
+	public void writesHeaderAndEndForNoRows() throws IOException {
+		byte[] written = write(List.of(), 3);
+		assertEquals(List.of(), read(written));
+		assertArrayEquals(new byte[] { 'S', 'S', 'C', 'O', 'L', 1 }, Arrays.copyOf(written, 6));
+	}
+
+	@Test
+	public void orderedIdsTakeAByteEach() throws IOException {
+		List<Row> rows = new ArrayList<>();
+		for (long id = 1_000_000; id < 1_001_000; id++) {
+			rows.add(new Row(id, null, null, null, null));
+		}
+		List<ExportColumn<Row>> idOnly = List.of(ExportColumn.of("id", Type.LONG, Row::id));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ColumnarExportWriter<Row> writer = new ColumnarExportWriter<>(out, idOnly, 1000);
+		for (Row row : rows) {
+			writer.write(row);
+		}
+		writer.finish();
+
+		// Header, row count, null bitmap, the first id, then a byte for each.
+		assertEquals(11 + 2 + 125 + 3 + 999 + 1, out.size());
+	}
+
+	private static byte[] write(List<Row> rows, int groupSize) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ColumnarExportWriter<Row> writer = new ColumnarExportWriter<>(out, COLUMNS, groupSize);
+		for (Row row : rows) {
+			writer.write(row);
+		}
+		writer.finish();
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes the columnar export format into one map of column name to value
+	 * per row.
+	 */
+	static List<Map<String, Object>> read(byte[] bytes) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		byte[] magic = new byte[6];
+		in.readFully(magic);
+		assertArrayEquals(new byte[] { 'S', 'S', 'C', 'O', 'L', 1 }, magic);
+
+		int columnCount = (int) readVarint(in);
+		String[] names = new String[columnCount];
+		Type[] types = new Type[columnCount];
+		for (int c = 0; c < columnCount; c++) {
+			names[c] = readString(in);
+			types[c] = Type.values()[in.readByte()];
+		}
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		int rowCount;
+		while ((rowCount = (int) readVarint(in)) > 0) {
+			List<Map<String, Object>> group = new ArrayList<>();
+			for (int i = 0; i < rowCount; i++) {
+				group.add(new LinkedHashMap<>());
+			}
+			for (int c = 0; c < columnCount; c++) {
+				byte[] nulls = new byte[(rowCount + 7) / 8];
+				in.readFully(nulls);
+				long previous = 0;
+				for (int i = 0; i < rowCount; i++) {
+					Object value = null;
+					if ((nulls[i / 8] & (1 << (i % 8))) == 0) {
+						if (types[c] == Type.LONG || types[c] == Type.DATE) {
+							long encoded = readVarint(in);
+							previous += (encoded >>> 1) ^ -(encoded & 1);
+							value = types[c] == Type.DATE ? LocalDate.ofEpochDay(previous) : previous;
+						} else if (types[c] == Type.TIME) {
+							value = LocalTime.ofSecondOfDay(readVarint(in));
+						} else if (types[c] == Type.DOUBLE) {
+							value = in.readDouble();
+						} else {
+							value = readString(in);
+						}
+					}
+					group.get(i).put(names[c], value);
+				}
+			}
+			rows.addAll(group);
+		}
+		assertEquals(-1, in.read());
+		return rows;
+	}
+
+	private static long readVarint(DataInputStream in) throws IOException {
+		long value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[(int) readVarint(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.hamcrest.core.StringEndsWith.endsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,8 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.junit4.AbstractTransactionalJUnit4SpringContextTests;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import com.jayway.jsonpath.JsonPath;
+
 import anthonynguyen.showspace.ShowSpaceApplication;
 
 @ExtendWith(SpringExtension.class)
@@ -46,6 +49,27 @@ public class EventsControllerApiIntegrationTest extends AbstractTransactionalJUn
 				.jsonPath("$._embedded.events[2].name").isEqualTo("EVENT TWO")
 				.jsonPath("$._links.self.href").value(endsWith("/api/events"));
 	}
+
+	@Test
+	public void testPageThroughEvents() {
+		String body = client.get().uri("/events?size=2").accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isOk().expectBody(String.class).returnResult().getResponseBody();
+		assertEquals(2, JsonPath.<Integer>read(body, "$._embedded.events.length()").intValue());
+		String next = JsonPath.read(body, "$._links.next.href");
+
+		client.get().uri(next).accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isOk().expectBody()
+				.jsonPath("$._embedded.events.length()").value(equalTo(1))
+				.jsonPath("$._embedded.events[0].name").isEqualTo("EVENT TWO")
+				.jsonPath("$._links.next").doesNotExist()
+				.jsonPath("$._links.prev.href").exists();
+	}
+
+	@Test
+	public void testStreamAllEvents() {
+		client.get().uri("/events/stream").accept(MediaType.APPLICATION_NDJSON).exchange().expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON).expectBody(String.class)
+				.value(body -> assertEquals(3, body.lines().count()));
+	}
 	
 	@Test
 	public void getEvent() {
@@ -5,17 +5,31 @@ import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.handler;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 
 import org.junit.jupiter.api.Test;
@@ -24,19 +38,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import anthonynguyen.showspace.assemblers.EventModelAssembler;
+import anthonynguyen.showspace.assemblers.EventSummaryModelAssembler;
+import anthonynguyen.showspace.assemblers.VenueModelAssembler;
 import anthonynguyen.showspace.config.Security;
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.DataVersions.Kind;
+import anthonynguyen.showspace.dao.EventCursor;
 import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.EventSummary;
 import anthonynguyen.showspace.entities.Event;
 import anthonynguyen.showspace.entities.Venue;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(EventsControllerApi.class)
-@Import({ Security.class, EventModelAssembler.class })
+@Import({ Security.class, EventModelAssembler.class, EventSummaryModelAssembler.class, VenueModelAssembler.class,
+		DataVersions.class })
 public class EventsControllerApiTest {
 
 	@Autowired
@@ -45,41 +68,118 @@ public class EventsControllerApiTest {
 	@MockBean
 	private EventService eventService;
 
+	@Autowired
+	private DataVersions dataVersions;
+
 	@Test
 	public void getIndexWhenNoEvents() throws Exception {
-		when(eventService.findAll()).thenReturn(Collections.<Event>emptyList());
+		when(eventService.findPage(isNull(), anyInt())).thenReturn(Collections.<EventSummary>emptyList());
 
 		mvc.perform(get("/api/events").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(handler().methodName("getAllEvents")).andExpect(jsonPath("$.length()", equalTo(1)))
 				.andExpect(jsonPath("$._links.self.href", endsWith("/api/events")));
 
-		verify(eventService).findAll();
+		verify(eventService).findPage(null, 21);
 	}
 
 	@Test
 	public void getIndexWithEvents() throws Exception {
-		// Create a Venue Object because setting venue no longer takes ID
-		Venue venue = new Venue();
-		venue.setName("Venue");
-		venue.setId(1);
-
-		Event e = new Event();
-		e.setId(0);
-		e.setName("Event");
-		e.setDate(LocalDate.now());
-		e.setTime(LocalTime.now());
-		e.setVenue(venue);
-		when(eventService.findAll()).thenReturn(Collections.<Event>singletonList(e));
+		EventSummary e = new EventSummary(0, "Event", "About", LocalDate.now(), LocalTime.now());
+		when(eventService.findPage(isNull(), anyInt())).thenReturn(Collections.singletonList(e));
 
 		mvc.perform(get("/api/events").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(handler().methodName("getAllEvents")).andExpect(jsonPath("$.length()", equalTo(2)))
 				.andExpect(jsonPath("$._links.self.href", endsWith("/api/events")))
 				.andExpect(jsonPath("$._embedded.events.length()", equalTo(1)))
+				.andExpect(jsonPath("$._embedded.events[0].name", equalTo("Event")))
+				.andExpect(jsonPath("$._embedded.events[0].description", equalTo("About")))
+				.andExpect(jsonPath("$._embedded.events[0].date", equalTo(e.getDate().toString())))
 				.andExpect(jsonPath("$._embedded.events[0]._links.venue.href", not(empty())))
 				.andExpect(jsonPath("$._embedded.events[0]._links.venue.href", endsWith("/events/0/venue")));
 
 
-		verify(eventService).findAll();
+		verify(eventService).findPage(null, 21);
+	}
+
+	@Test
+	public void getIndexPageWithNextLink() throws Exception {
+		LocalDate date = LocalDate.of(2025, 5, 1);
+		EventSummary first = summary(1, date, LocalTime.of(10, 0));
+		EventSummary second = summary(2, date, LocalTime.of(12, 0));
+		EventSummary extra = summary(3, date, null);
+		when(eventService.findPage(isNull(), eq(3))).thenReturn(List.of(first, second, extra));
+
+		String next = new EventCursor(date, LocalTime.of(12, 0), 2).encode();
+
+		mvc.perform(get("/api/events?size=2").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$._embedded.events.length()", equalTo(2)))
+				.andExpect(jsonPath("$._links.next.href", endsWith("/api/events?after=" + next + "&size=2")))
+				.andExpect(jsonPath("$._links.prev").doesNotExist());
+	}
+
+	@Test
+	public void getIndexPageAfterCursor() throws Exception {
+		LocalDate date = LocalDate.of(2025, 5, 1);
+		String after = new EventCursor(date, null, 7).encode();
+		EventSummary only = summary(8, date, LocalTime.of(9, 30));
+		when(eventService.findPage(any(EventCursor.class), eq(3))).thenReturn(List.of(only));
+
+		String prev = new EventCursor(date, LocalTime.of(9, 30), 8).encode();
+
+		mvc.perform(get("/api/events?size=2&after=" + after).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$._embedded.events.length()", equalTo(1)))
+				.andExpect(jsonPath("$._links.next").doesNotExist())
+				.andExpect(jsonPath("$._links.prev.href", endsWith("/api/events?before=" + prev + "&size=2")));
+	}
+
+	@Test
+	public void getIndexWithBadCursor() throws Exception {
+		mvc.perform(get("/api/events?after=not-a-cursor").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.error", containsString("cursor")))
+				.andExpect(handler().methodName("getAllEvents"));
+	}
+
+	@Test
+	public void streamAllEvents() throws Exception {
+		Event first = event(1, LocalDate.of(2025, 5, 1), LocalTime.of(10, 0));
+		Event second = event(2, LocalDate.of(2025, 5, 2), null);
+		doAnswer(invocation -> {
+			Consumer<Event> action = invocation.getArgument(0);
+			action.accept(first);
+			action.accept(second);
+			return null;
+		}).when(eventService).streamAll(any());
+
+		MvcResult result = mvc.perform(get("/api/events/stream").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		mvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andExpect(content().string(containsString("\"name\":\"Event 1\"")))
+				.andExpect(content().string(endsWith("}\n")));
+	}
+
+	@Test
+	public void streamAllEventsWithExplicitTimeout() throws Exception {
+		MvcResult result = mvc.perform(get("/api/events/stream").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		// Not the container's 30 seconds.
+		assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+		mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+	}
+
+	private static Event event(long id, LocalDate date, LocalTime time) {
+		Event event = new Event();
+		event.setId(id);
+		event.setName("Event " + id);
+		event.setDate(date);
+		event.setTime(time);
+		return event;
+	}
+
+	private static EventSummary summary(long id, LocalDate date, LocalTime time) {
+		return new EventSummary(id, "Event " + id, null, date, time);
 	}
 
 	@Test
@@ -122,5 +222,73 @@ public class EventsControllerApiTest {
 		verify(eventService).findById(0L);
 	}
 
+	@Test
+	public void getEventVenue() throws Exception {
+		Venue venue = new Venue();
+		venue.setName("Venue");
+		venue.setId(1);
+
+		Event e = event(0, LocalDate.now(), null);
+		e.setVenue(venue);
+		when(eventService.findById(0L)).thenReturn(e);
+
+		mvc.perform(get("/api/events/0/venue").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(handler().methodName("getEventVenue")).andExpect(jsonPath("$.name", equalTo("Venue")))
+				.andExpect(jsonPath("$._links.self.href", endsWith("/api/venues/1")));
+	}
+
+	@Test
+	public void getEventVenueNotFound() throws Exception {
+		mvc.perform(get("/api/events/99/venue").accept(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.id", equalTo(99)));
+	}
+
+	@Test
+	public void getUnchangedEventIsNotModified() throws Exception {
+		when(eventService.findById(5L)).thenReturn(event(5, LocalDate.now(), null));
+
+		String etag = mvc.perform(get("/api/events/5").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mvc.perform(get("/api/events/5").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		verify(eventService, times(1)).findById(5L);
+
+		dataVersions.changed(Kind.EVENTS, 5);
+
+		mvc.perform(get("/api/events/5").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, not(equalTo(etag))));
+	}
+
+	@Test
+	public void otherEventsChangingKeepsEventValid() throws Exception {
+		when(eventService.findById(6L)).thenReturn(event(6, LocalDate.now(), null));
+
+		String etag = mvc.perform(get("/api/events/6").accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		dataVersions.changed(Kind.EVENTS, 7);
+
+		mvc.perform(get("/api/events/6").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void getIndexIsNotModifiedUntilEventsChange() throws Exception {
+		when(eventService.findPage(isNull(), anyInt())).thenReturn(Collections.<EventSummary>emptyList());
+
+		String etag = mvc.perform(get("/api/events").accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mvc.perform(get("/api/events").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		dataVersions.changed(Kind.EVENTS);
+
+		mvc.perform(get("/api/events").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+		verify(eventService, times(2)).findPage(null, 21);
+	}
+
 
 }
@@ -82,6 +82,17 @@ public class EventsControllerIntegrationTest extends AbstractTransactionalJUnit4
 					assertThat(result.getResponseBody(), not(containsString("EVENT THREE")));
 				});
 	}
+
+	@Test
+	public void getEventsWithIndexedSearch() {
+		// A misspelt word and a prefix, both matched by the search index.
+		client.get().uri("/events?search=evnt thre").accept(MediaType.TEXT_HTML).exchange().expectStatus().isOk()
+				.expectBody(String.class).consumeWith(result -> {
+					assertThat(result.getResponseBody(), containsString("EVENT THREE"));
+					assertThat(result.getResponseBody(), not(containsString("EVENT ONE")));
+					assertThat(result.getResponseBody(), not(containsString("EVENT TWO")));
+				});
+	}
 	
 	@Test
 	public void getEvent() {
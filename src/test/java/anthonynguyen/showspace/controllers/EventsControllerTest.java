@@ -1,5 +1,6 @@
 package anthonynguyen.showspace.controllers;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -23,6 +24,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
@@ -32,15 +34,21 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import anthonynguyen.showspace.config.MapBoxConfig;
 import anthonynguyen.showspace.config.Security;
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.EventListItem;
 import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.EventTimeline;
+import anthonynguyen.showspace.dao.MastodonPostService;
 import anthonynguyen.showspace.dao.MastodonService;
 import anthonynguyen.showspace.dao.VenueService;
+import anthonynguyen.showspace.dao.VenueSummary;
 import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.MastodonPost;
 import anthonynguyen.showspace.entities.Venue;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(EventsController.class)
-@Import({ Security.class, MapBoxConfig.class })
+@Import({ Security.class, MapBoxConfig.class, PageData.class, DataVersions.class, FragmentCache.class })
 public class EventsControllerTest {
 
 	@Autowired
@@ -60,12 +68,26 @@ public class EventsControllerTest {
 	
 	@MockBean
 	private MastodonService mastodonService;
+
+	@MockBean
+	private MastodonPostService mastodonPostService;
+
+	@Autowired
+	private DataVersions dataVersions;
+
+	@Autowired
+	private FragmentCache fragmentCache;
+
+	@BeforeEach
+	public void clearFragments() {
+		fragmentCache.invalidateAll();
+	}
 	
 	//GET TESTS
 
 	@Test
 	public void getIndexWhenNoEvents() throws Exception {
-		when(eventService.findAll()).thenReturn(Collections.<Event>emptyList());
+		when(eventService.findTimeline(any(), any(LocalDate.class))).thenReturn(EventTimeline.empty());
 
 
 		mvc.perform(get("/events").accept(MediaType.TEXT_HTML))
@@ -73,26 +95,83 @@ public class EventsControllerTest {
 								  .andExpect(view().name("events/index"))
 								  .andExpect(handler().methodName("getAllEvents"));
 
-		verify(eventService).findAll();
+		verify(eventService).findTimeline(any(), any(LocalDate.class));
 		verifyNoInteractions(event);
 	}
 
 	@Test
 	public void getIndexWithEvents() throws Exception {
-		when(venue.getName()).thenReturn("Kilburn Building");
-		when(venueService.findAll()).thenReturn(Collections.<Venue>singletonList(venue));
+		when(venueService.findSummaries())
+				.thenReturn(Collections.singletonList(new VenueSummary(1, "Kilburn Building", 53.467, -2.234)));
 
-		when(event.getVenue()).thenReturn(venue);
-		when(eventService.findAll()).thenReturn(Collections.<Event>singletonList(event));
+		EventListItem past = new EventListItem(1, "Past Event", LocalDate.now().minusDays(1), null, 1L,
+				"Kilburn Building");
+		when(eventService.findTimeline(any(), any(LocalDate.class)))
+				.thenReturn(new EventTimeline(Collections.<EventListItem>emptyList(), Collections.singletonList(past)));
 
 		mvc.perform(get("/events")
 			.accept(MediaType.TEXT_HTML))
 			.andExpect(status().isOk())
 			.andExpect(view().name("events/index"))
+			.andExpect(content().string(containsString("Kilburn Building")))
 			.andExpect(handler().methodName("getAllEvents"));
 
-		verify(eventService).findAll();
+		verify(eventService).findTimeline(any(), any(LocalDate.class));
+
+	}
+
+	@Test
+	public void getIndexWhenVenuesFail() throws Exception {
+		when(venueService.findSummaries()).thenThrow(new IllegalStateException("database unavailable"));
 
+		EventListItem past = new EventListItem(1, "Past Event", LocalDate.now().minusDays(1), null, 1L,
+				"Kilburn Building");
+		when(eventService.findTimeline(any(), any(LocalDate.class)))
+				.thenReturn(new EventTimeline(Collections.<EventListItem>emptyList(), Collections.singletonList(past)));
+
+		mvc.perform(get("/events").accept(MediaType.TEXT_HTML))
+			.andExpect(status().isOk())
+			.andExpect(view().name("events/index"))
+			.andExpect(model().attribute("venues", Collections.emptyList()))
+			.andExpect(content().string(containsString("Past Event")));
+	}
+
+	@Test
+	public void getUnchangedIndexIsNotModified() throws Exception {
+		when(eventService.findTimeline(any(), any(LocalDate.class))).thenReturn(EventTimeline.empty());
+
+		String etag = mvc.perform(get("/events").accept(MediaType.TEXT_HTML)).andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mvc.perform(get("/events").accept(MediaType.TEXT_HTML).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		verify(eventService, times(1)).findTimeline(any(), any(LocalDate.class));
+	}
+
+	@Test
+	public void getIndexAgainUsesRenderedTables() throws Exception {
+		EventListItem past = new EventListItem(1, "Past Event", LocalDate.now().minusDays(1), null, 1L,
+				"Kilburn Building");
+		when(eventService.findTimeline(any(), any(LocalDate.class)))
+				.thenReturn(new EventTimeline(Collections.<EventListItem>emptyList(), Collections.singletonList(past)));
+
+		for (int i = 0; i < 2; i++) {
+			mvc.perform(get("/events").accept(MediaType.TEXT_HTML))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Past Event")));
+		}
+		verify(eventService, times(1)).findTimeline(any(), any(LocalDate.class));
+	}
+
+	@Test
+	public void getIndexAfterChangeRendersTablesAgain() throws Exception {
+		when(eventService.findTimeline(any(), any(LocalDate.class))).thenReturn(EventTimeline.empty());
+
+		mvc.perform(get("/events").accept(MediaType.TEXT_HTML)).andExpect(status().isOk());
+		dataVersions.changed(DataVersions.Kind.EVENTS, 1L);
+		mvc.perform(get("/events").accept(MediaType.TEXT_HTML)).andExpect(status().isOk());
+
+		verify(eventService, times(2)).findTimeline(any(), any(LocalDate.class));
 	}
 
 	@Test
@@ -980,4 +1059,24 @@ public class EventsControllerTest {
 		).andExpect(status().isForbidden());
 	}
 
+	// Posts are queued rather than sent while the request waits
+	@Test
+	public void testPostToMastodonQueuesPost() throws Exception {
+		when(event.getName()).thenReturn("Big Gig");
+		when(eventService.findById(1L)).thenReturn(event);
+		MastodonPost queued = new MastodonPost(1L, "See you there #Big_Gig #showspace", null);
+		queued.setId(42);
+		when(mastodonPostService.queuePost(1L, "See you there #Big_Gig #showspace")).thenReturn(queued);
+
+		mvc.perform(post("/events/1")
+						.param("content", "See you there")
+						.with(SecurityMockMvcRequestPostProcessors.csrf())
+				).andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/events/1"))
+				.andExpect(flash().attribute("post_id", 42L));
+
+		verify(mastodonPostService).queuePost(1L, "See you there #Big_Gig #showspace");
+		verify(mastodonService, never()).createPost(any());
+	}
+
 }
@@ -0,0 +1,74 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.dao.EventListItem;
+import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.EventTimeline;
+import anthonynguyen.showspace.testutil.BenchmarkData;
+
+// Pages of two rows, so even the test data is streamed in several pages.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"showspace.events.streaming=true", "showspace.events.stream-page-size=2" })
+@DirtiesContext
+@ActiveProfiles("test")
+public class EventsStreamingTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Test
+	public void streamedTablesMatchTheTimeline() {
+		BenchmarkData data = new BenchmarkData(jdbc.getJdbcTemplate(), 42);
+		data.addVenues(3);
+		data.addEvents(30);
+
+		EntityExchangeResult<String> result = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build()
+				.get().uri("/events").accept(MediaType.TEXT_HTML).exchange().expectStatus().isOk()
+				.expectBody(String.class).returnResult();
+
+		// Written as it was read, so the length wasn't known up front.
+		assertNull(result.getResponseHeaders().getFirst(HttpHeaders.CONTENT_LENGTH));
+
+		EventTimeline timeline = eventService.findTimeline(null, LocalDate.now());
+		List<EventListItem> expected = new ArrayList<>(timeline.getUpcoming());
+		expected.addAll(timeline.getPast());
+
+		String body = result.getResponseBody();
+		int from = 0;
+		for (EventListItem event : expected) {
+			int at = body.indexOf(">" + event.getName() + "</a>", from);
+			assertTrue(at >= 0, event.getName() + " missing or out of order");
+			from = at;
+		}
+		assertEquals(expected.size(), body.split("href=\"/events/\\d+\"", -1).length - 1);
+	}
+}
@@ -0,0 +1,128 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.web.reactive.function.client.ExchangeFilterFunctions.basicAuthentication;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.jayway.jsonpath.JsonPath;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.dao.VenueService;
+import anthonynguyen.showspace.entities.Venue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+@ActiveProfiles("test")
+public class ExportControllerApiIntegrationTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private VenueService venueService;
+
+	private WebTestClient client;
+
+	@BeforeEach
+	public void setup() {
+		client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port + "/api")
+				.filter(basicAuthentication("Rob", "Haines")).build();
+	}
+
+	@Test
+	public void exportEventsAsCsv() {
+		String csv = client.get().uri("/export/events").exchange().expectStatus().isOk().expectHeader()
+				.contentType("text/csv").expectHeader()
+				.valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events.csv\"")
+				.expectBody(String.class).returnResult().getResponseBody();
+
+		List<String> lines = Arrays.asList(csv.split("\r\n"));
+		assertEquals("id,name,description,date,time,venueId,venueName", lines.get(0));
+		assertEquals(4, lines.size());
+		// In date order.
+		assertEquals(List.of("EVENT ONE", "EVENT THREE", "EVENT TWO"),
+				lines.subList(1, 4).stream().map(line -> line.split(",")[1]).collect(Collectors.toList()));
+		assertEquals("2024-06-10,12:15", lines.get(1).split(",")[3] + "," + lines.get(1).split(",")[4]);
+		assertEquals("TEST VENUE 1", lines.get(1).split(",")[6]);
+	}
+
+	@Test
+	public void exportEventsFiltered() {
+		String ndjson = client.get().uri("/export/events?format=ndjson&from=2025-01-01").exchange().expectStatus()
+				.isOk().expectHeader().contentType("application/x-ndjson").expectBody(String.class).returnResult()
+				.getResponseBody();
+		List<String> names = Arrays.stream(ndjson.split("\n")).map(line -> JsonPath.<String>read(line, "$.name"))
+				.collect(Collectors.toList());
+		assertEquals(List.of("EVENT THREE", "EVENT TWO"), names);
+
+		Venue venue = venueService.findByNameContainingIgnoreCase("TEST VENUE 2").get(0);
+		ndjson = client.get().uri("/export/events?format=ndjson&from=2024-01-01&to=2025-12-31&venue=" + venue.getId())
+				.exchange().expectStatus().isOk().expectBody(String.class).returnResult().getResponseBody();
+		assertEquals(1, ndjson.split("\n").length);
+		assertEquals("EVENT TWO", JsonPath.read(ndjson, "$.name"));
+		assertEquals(venue.getId(), JsonPath.<Number>read(ndjson, "$.venueId").longValue());
+		assertEquals("06:30", JsonPath.read(ndjson, "$.time"));
+
+		client.get().uri("/export/events?format=ndjson&to=2020-01-01").exchange().expectStatus().isOk()
+				.expectBody().isEmpty();
+	}
+
+	@Test
+	public void exportVenuesAsColumnar() throws IOException {
+		byte[] body = client.get().uri("/export/venues?format=columnar").exchange().expectStatus().isOk()
+				.expectHeader().contentType("application/vnd.showspace.columnar").expectBody().returnResult()
+				.getResponseBody();
+
+		List<Map<String, Object>> rows = ColumnarExportWriterTest.read(body);
+		assertEquals(3, rows.size());
+		assertEquals("TEST VENUE 1", rows.get(0).get("name"));
+		assertEquals(123L, rows.get(0).get("capacity"));
+		assertEquals(null, rows.get(1).get("roadName"));
+		assertEquals("TEST VENUE 3", rows.get(2).get("name"));
+	}
+
+	@Test
+	public void exportEventsAsColumnar() throws IOException {
+		byte[] body = client.get().uri("/export/events?format=columnar").exchange().expectStatus().isOk()
+				.expectBody().returnResult().getResponseBody();
+
+		List<Map<String, Object>> rows = ColumnarExportWriterTest.read(body);
+		assertEquals(3, rows.size());
+		assertEquals(LocalDate.parse("2024-06-10"), rows.get(0).get("date"));
+		assertEquals(LocalTime.parse("12:15"), rows.get(0).get("time"));
+		assertEquals("This is the description for EVENT ONE", rows.get(0).get("description"));
+	}
+
+	@Test
+	public void exportNoUser() {
+		WebTestClient anonymous = WebTestClient.bindToServer().baseUrl("http://localhost:" + port + "/api").build();
+		anonymous.get().uri("/export/events").exchange().expectStatus().isUnauthorized();
+		anonymous.get().uri("/export/venues?format=columnar").exchange().expectStatus().isUnauthorized();
+	}
+
+	@Test
+	public void exportUnknownFormat() {
+		client.get().uri("/export/events?format=xlsx").exchange().expectStatus().isBadRequest().expectBody()
+				.jsonPath("$.format").isEqualTo("xlsx");
+	}
+}
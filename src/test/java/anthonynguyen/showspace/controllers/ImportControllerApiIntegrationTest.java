@@ -0,0 +1,127 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.web.reactive.function.client.ExchangeFilterFunctions.basicAuthentication;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.dao.SiteSearch;
+import anthonynguyen.showspace.dao.VenueService;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+
+// Batches of two, so every upload is inserted in more than one batch.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"showspace.import.batch-size=2" })
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+public class ImportControllerApiIntegrationTest {
+
+	private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private VenueService venueService;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private SiteSearch siteSearch;
+
+	private WebTestClient client;
+
+	@BeforeEach
+	public void setup() {
+		client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port + "/api").build();
+	}
+
+	@Test
+	public void importVenuesFromCsv() {
+		long before = venueService.count();
+		String csv = "name,roadName,postcode,capacity\n" + "The Lantern,1 Mill Lane,M1 2AB,120\n"
+				+ "The Cellar,2 Canal Street,not a postcode,80\n" + "The Arches,3 Bridge Road,LS1 4CD,300\n"
+				+ ",4 Water Street,M4 5EF,50\n";
+
+		client.mutate().filter(basicAuthentication("Rob", "Haines")).build().post().uri("/import/venues")
+				.contentType(TEXT_CSV).bodyValue(csv).accept(MediaType.APPLICATION_JSON).exchange().expectStatus()
+				.isOk().expectBody().jsonPath("$.imported").isEqualTo(2).jsonPath("$.rejected").isEqualTo(2)
+				.jsonPath("$.errors[0].row").isEqualTo(2).jsonPath("$.errors[0].field").isEqualTo("postcode")
+				.jsonPath("$.errors[0].message").isEqualTo("Please enter a valid UK postcode.")
+				.jsonPath("$.errors[1].row").isEqualTo(4).jsonPath("$.errors[1].field").isEqualTo("name");
+
+		assertEquals(before + 2, venueService.count());
+		List<Venue> lanterns = venueService.findByNameContainingIgnoreCase("The Lantern");
+		assertEquals(1, lanterns.size());
+		assertEquals(120, lanterns.get(0).getCapacity());
+		assertEquals(1, siteSearch.searchVenues("Arches").size());
+	}
+
+	@Test
+	public void importEventsFromNdjson() {
+		long before = eventService.count();
+		long venueId = venueService.findAll().get(0).getId();
+		String future = LocalDate.now().plusDays(10).toString();
+		String ndjson = "{\"name\":\"Imported Jazz Night\",\"date\":\"" + future + "\",\"time\":\"19:30\",\"venueId\":"
+				+ venueId + "}\n" + "{\"name\":\"Nowhere Night\",\"date\":\"" + future + "\",\"venueId\":999999}\n"
+				+ "not json\n" + "\n" + "{\"name\":\"Old Night\",\"date\":\"2000-01-01\",\"venueId\":" + venueId + "}\n"
+				+ "{\"name\":\"Imported Folk Night\",\"date\":\"" + future + "\",\"venueId\":" + venueId + "}\n";
+
+		client.mutate().filter(basicAuthentication("Rob", "Haines")).build().post().uri("/import/events")
+				.contentType(MediaType.APPLICATION_NDJSON).bodyValue(ndjson).accept(MediaType.APPLICATION_JSON)
+				.exchange().expectStatus().isOk().expectBody().jsonPath("$.imported").isEqualTo(2)
+				.jsonPath("$.rejected").isEqualTo(3).jsonPath("$.errorsTruncated").isEqualTo(false)
+				.jsonPath("$.errors[0].row").isEqualTo(2).jsonPath("$.errors[0].field").isEqualTo("venueId")
+				.jsonPath("$.errors[1].row").isEqualTo(3).jsonPath("$.errors[1].field").isEmpty()
+				.jsonPath("$.errors[2].row").isEqualTo(4)
+				.jsonPath("$.errors[2].message").isEqualTo("Event date must be in the future.");
+
+		assertEquals(before + 2, eventService.count());
+		List<Long> found = siteSearch.searchEvents("Jazz");
+		assertEquals(1, found.size());
+		Event event = eventService.findById(found.get(0));
+		assertEquals(venueId, event.getVenue().getId());
+		assertEquals("19:30", event.getTime().toString());
+	}
+
+	@Test
+	public void importBadValue() {
+		client.mutate().filter(basicAuthentication("Rob", "Haines")).build().post().uri("/import/venues")
+				.contentType(TEXT_CSV).bodyValue("name,roadName,postcode,capacity\nThe Mill,1 Mill Lane,M1 2AB,lots\n")
+				.accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isOk().expectBody()
+				.jsonPath("$.imported").isEqualTo(0).jsonPath("$.errors[0].field").isEqualTo("capacity")
+				.jsonPath("$.errors[0].message").isEqualTo("Could not read \"lots\".");
+	}
+
+	@Test
+	public void importNoUser() {
+		client.post().uri("/import/venues").contentType(TEXT_CSV).bodyValue("name\nThe Mill\n")
+				.accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isUnauthorized();
+	}
+
+	@Test
+	public void importUnsupportedType() {
+		client.mutate().filter(basicAuthentication("Rob", "Haines")).build().post().uri("/import/venues")
+				.contentType(MediaType.APPLICATION_XML).bodyValue("<venues/>").accept(MediaType.APPLICATION_JSON)
+				.exchange().expectStatus().isEqualTo(415);
+	}
+}
@@ -0,0 +1,61 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = PageData.class)
+@TestPropertySource(properties = { "showspace.page.threads=4", "showspace.page.timeout-ms=5000",
+		"showspace.page.timeouts.slow=100" })
+public class PageDataTest {
+
+	@Autowired
+	private PageData pageData;
+
+	@Test
+	public void loadsPartsAtTheSameTime() {
+		long start = System.nanoTime();
+		CompletableFuture<String> first = pageData.load("first", () -> sleep(300, "one"), "");
+		CompletableFuture<String> second = pageData.load("second", () -> sleep(300, "two"), "");
+
+		assertEquals("one", first.join());
+		assertEquals("two", second.join());
+		assertTrue((System.nanoTime() - start) / 1_000_000 < 550, "loads ran one after the other");
+	}
+
+	@Test
+	public void slowPartFallsBackAfterItsTimeout() {
+		long start = System.nanoTime();
+
+		assertEquals(List.of(), pageData.load("slow", () -> sleep(2000, List.of("late")), List.of()).join());
+		assertTrue((System.nanoTime() - start) / 1_000_000 < 1000, "waited past the source timeout");
+	}
+
+	@Test
+	public void failedPartFallsBack() {
+		CompletableFuture<List<String>> failed = pageData.load("failing", () -> {
+			throw new IllegalStateException("database unavailable");
+		}, List.of());
+
+		assertEquals(List.of(), failed.join());
+	}
+
+	private static <T> T sleep(long millis, T value) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+}
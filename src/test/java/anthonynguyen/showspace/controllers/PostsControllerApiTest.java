@@ -0,0 +1,57 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import anthonynguyen.showspace.config.Security;
+import anthonynguyen.showspace.dao.MastodonPostService;
+import anthonynguyen.showspace.entities.MastodonPost;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(PostsControllerApi.class)
+@Import(Security.class)
+public class PostsControllerApiTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockBean
+	private MastodonPostService mastodonPostService;
+
+	@Test
+	public void getPostWithoutItsError() throws Exception {
+		MastodonPost post = new MastodonPost(1, "Great show", Instant.now());
+		post.setId(7);
+		post.setState(MastodonPost.State.PENDING);
+		post.setAttempts(2);
+		post.setLastError("HTTP 401 from https://mastodon.example/api/v1/statuses");
+		when(mastodonPostService.findById(7)).thenReturn(post);
+
+		// Anyone who shares an event can check on it.
+		mvc.perform(get("/api/posts/7").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("PENDING")).andExpect(jsonPath("$.attempts").value(2))
+				.andExpect(jsonPath("$.lastError").doesNotExist())
+				.andExpect(jsonPath("$._links.event.href", endsWith("/api/events/1")));
+	}
+
+	@Test
+	public void getPostNotFound() throws Exception {
+		mvc.perform(get("/api/posts/8").accept(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.id").value(8));
+	}
+}
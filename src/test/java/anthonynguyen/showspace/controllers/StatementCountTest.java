@@ -0,0 +1,139 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.dao.EventService;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.testutil.BenchmarkData;
+import anthonynguyen.showspace.testutil.CapturingStatementInspector;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Each page should run the same number of statements however many rows it
+ * shows; a count that grows with the data is an N+1. Statements are counted
+ * on the request thread with the second-level and fragment caches emptied, so
+ * background jobs and earlier requests don't change the numbers.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class)
+@AutoConfigureMockMvc
+@DirtiesContext
+@ActiveProfiles("test")
+public class StatementCountTest {
+
+	private static final long EVENT_ID = BenchmarkData.FIRST_ID;
+	private static final long VENUE_ID = BenchmarkData.FIRST_ID;
+
+	private static final List<String> PAGES = List.of("/", "/events", "/events/" + EVENT_ID, "/venues",
+			"/venues/" + VENUE_ID);
+	private static final List<String> API = List.of("/api/events", "/api/events/" + EVENT_ID);
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Autowired
+	private FragmentCache fragmentCache;
+
+	@Test
+	public void statementCountsDoNotGrowWithRows() throws Exception {
+		BenchmarkData data = new BenchmarkData(jdbc.getJdbcTemplate(), 42);
+		data.addVenues(3);
+		data.addEvents(30);
+		Map<String, Integer> few = statementCounts();
+
+		data.addVenues(300);
+		data.addEvents(3000);
+		Map<String, Integer> many = statementCounts();
+
+		assertEquals(few, many);
+	}
+
+	@Test
+	public void findByIdLoadsTheVenueInOneStatement() {
+		long id = eventService.findAll().get(0).getId();
+		evictCaches();
+
+		CapturingStatementInspector.start();
+		Event event = eventService.findById(id);
+		List<String> statements = CapturingStatementInspector.stop();
+
+		assertEquals(1, statements.size(), statements.toString());
+		assertTrue(Hibernate.isInitialized(event.getVenue()));
+	}
+
+	@Test
+	public void listsDoNotLoadVenues() {
+		LocalDate today = LocalDate.now();
+
+		assertEquals(1, countStatements(eventService::findAll));
+		assertEquals(1, countStatements(() -> eventService.findUpcomingEvents(today)));
+		assertEquals(1, countStatements(() -> eventService.findPastEvents(today)));
+	}
+
+	private Map<String, Integer> statementCounts() throws Exception {
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		for (String page : PAGES) {
+			counts.put(page, countStatements(page, MediaType.TEXT_HTML));
+		}
+		for (String api : API) {
+			counts.put(api, countStatements(api, MediaType.APPLICATION_JSON));
+		}
+		return counts;
+	}
+
+	// The first request fills the in-memory caches (venue summaries, ranking),
+	// the second is counted against an empty second-level cache and with
+	// nothing rendered, as the seeded rows don't bump the data versions.
+	private int countStatements(String path, MediaType accept) throws Exception {
+		mvc.perform(get(path).accept(accept)).andExpect(status().isOk());
+		evictCaches();
+
+		CapturingStatementInspector.start();
+		mvc.perform(get(path).accept(accept)).andExpect(status().isOk());
+		return CapturingStatementInspector.stop().size();
+	}
+
+	private int countStatements(Runnable action) {
+		evictCaches();
+		CapturingStatementInspector.start();
+		action.run();
+		return CapturingStatementInspector.stop().size();
+	}
+
+	private void evictCaches() {
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		fragmentCache.invalidateAll();
+	}
+}
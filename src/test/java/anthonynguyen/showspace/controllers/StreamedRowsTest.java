@@ -0,0 +1,63 @@
+package anthonynguyen.showspace.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class StreamedRowsTest {
+
+	private final List<String> log = new ArrayList<>();
+
+	@Test
+	public void readsPagesOnlyAsTheyAreReached() {
+		StreamedRows<Integer> rows = new StreamedRows<>(after -> page(after, 7, 3), 3, () -> log.add("flush"));
+
+		Iterator<Integer> iterator = rows.iterator();
+		assertEquals(List.of(), log);
+
+		assertEquals(0, iterator.next());
+		assertEquals(List.of("flush", "page after null"), log);
+
+		iterator.next();
+		iterator.next();
+		iterator.next();
+		assertEquals(List.of("flush", "page after null", "flush", "page after 2"), log);
+	}
+
+	@Test
+	public void stopsAfterAShortPage() {
+		StreamedRows<Integer> rows = new StreamedRows<>(after -> page(after, 7, 3), 3, () -> {
+		});
+
+		List<Integer> all = new ArrayList<>();
+		rows.forEach(all::add);
+
+		assertEquals(IntStream.range(0, 7).boxed().collect(Collectors.toList()), all);
+		assertEquals(List.of("page after null", "page after 2", "page after 5"), log);
+	}
+
+	@Test
+	public void readsOneMorePageWhenTheLastIsFull() {
+		StreamedRows<Integer> rows = new StreamedRows<>(after -> page(after, 6, 3), 3, () -> {
+		});
+
+		List<Integer> all = new ArrayList<>();
+		rows.forEach(all::add);
+
+		assertEquals(6, all.size());
+		assertEquals(List.of("page after null", "page after 2", "page after 5"), log);
+	}
+
+	// Rows 0 to count - 1, read in pages like the keyset queries.
+	private List<Integer> page(Integer after, int count, int size) {
+		log.add("page after " + after);
+		int from = after == null ? 0 : after + 1;
+		return IntStream.range(from, Math.min(from + size, count)).boxed().collect(Collectors.toList());
+	}
+}
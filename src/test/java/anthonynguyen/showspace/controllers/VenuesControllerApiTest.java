@@ -3,10 +3,18 @@ package anthonynguyen.showspace.controllers;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.handler;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,13 +37,18 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import anthonynguyen.showspace.assemblers.VenueModelAssembler;
 import anthonynguyen.showspace.config.Security;
+import anthonynguyen.showspace.dao.BoundingBox;
+import anthonynguyen.showspace.dao.DataVersions;
+import anthonynguyen.showspace.dao.VenueCursor;
+import anthonynguyen.showspace.dao.VenueEventRow;
+import anthonynguyen.showspace.dao.VenueLocation;
 import anthonynguyen.showspace.dao.VenueService;
 import anthonynguyen.showspace.entities.Event;
 import anthonynguyen.showspace.entities.Venue;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(VenuesControllerApi.class)
-@Import({ Security.class, VenueModelAssembler.class })
+@Import({ Security.class, VenueModelAssembler.class, DataVersions.class })
 public class VenuesControllerApiTest {
 
     @Autowired
@@ -46,13 +59,13 @@ public class VenuesControllerApiTest {
 
     @Test
     public void getIndexWhenNoVenues() throws Exception {
-        when(venueService.findAll()).thenReturn(Collections.<Venue>emptyList());
+        when(venueService.findPage(isNull(), anyInt())).thenReturn(Collections.<Venue>emptyList());
 
         mvc.perform(get("/api/venues").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
                 .andExpect(handler().methodName("getAllVenues")).andExpect(jsonPath("$.length()", equalTo(1)))
                 .andExpect(jsonPath("$._links.self.href", endsWith("/api/venues")));
 
-        verify(venueService).findAll();
+        verify(venueService).findPage(null, 21);
     }
 
     @Test
@@ -63,7 +76,7 @@ public class VenuesControllerApiTest {
         v.setCapacity(100);
         v.setRoadName("Road");
         v.setPostcode("AB12 3CD");
-        when(venueService.findAll()).thenReturn(Collections.<Venue>singletonList(v));
+        when(venueService.findPage(isNull(), anyInt())).thenReturn(Collections.<Venue>singletonList(v));
 
         mvc.perform(get("/api/venues").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
                 .andExpect(handler().methodName("getAllVenues")).andExpect(jsonPath("$.length()", equalTo(2)))
@@ -74,7 +87,94 @@ public class VenuesControllerApiTest {
                 .andExpect(jsonPath("$._embedded.venues[0]._links.events.href", endsWith("/api/venues/0/events")));
 
 
-        verify(venueService).findAll();
+        verify(venueService).findPage(null, 21);
+    }
+
+    @Test
+    public void getIndexPageBeforeCursor() throws Exception {
+        String before = new VenueCursor("Zed", 9).encode();
+        Venue extra = venue(1, "Alpha");
+        Venue first = venue(2, "Beta");
+        Venue second = venue(3, "Gamma");
+        when(venueService.findPageBefore(any(VenueCursor.class), eq(3))).thenReturn(List.of(extra, first, second));
+
+        mvc.perform(get("/api/venues?size=2&before=" + before).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andExpect(jsonPath("$._embedded.venues.length()", equalTo(2)))
+                .andExpect(jsonPath("$._embedded.venues[0].name", equalTo("Beta")))
+                .andExpect(jsonPath("$._links.next.href",
+                        endsWith("/api/venues?after=" + new VenueCursor("Gamma", 3).encode() + "&size=2")))
+                .andExpect(jsonPath("$._links.prev.href",
+                        endsWith("/api/venues?before=" + new VenueCursor("Beta", 2).encode() + "&size=2")));
+    }
+
+    @Test
+    public void getIndexWithBadCursor() throws Exception {
+        mvc.perform(get("/api/venues?before=bm90IGEgY3Vyc29y").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest()).andExpect(jsonPath("$.cursor", equalTo("bm90IGEgY3Vyc29y")));
+    }
+
+    @Test
+    public void getVenuesGeoJson() throws Exception {
+        List<VenueLocation> venues = VenueLocation.group(List.of(
+                new VenueEventRow(1, "Hall", 53.47, -2.23, 10, "Gig", LocalDate.of(2030, 1, 1), LocalTime.of(19, 30)),
+                new VenueEventRow(1, "Hall", 53.47, -2.23, 11, "Late Gig", LocalDate.of(2030, 1, 1), null),
+                new VenueEventRow(2, "Club", 51.5, -0.12, 12, "Party", LocalDate.of(2030, 1, 2), null)));
+        when(venueService.findUpcomingLocations(any(LocalDate.class), isNull())).thenReturn(venues);
+
+        mvc.perform(get("/api/venues/geo").accept("application/geo+json")).andExpect(status().isOk())
+                .andExpect(handler().methodName("getVenuesGeoJson"))
+                .andExpect(content().contentTypeCompatibleWith("application/geo+json"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.type", equalTo("FeatureCollection")))
+                .andExpect(jsonPath("$.features.length()", equalTo(2)))
+                .andExpect(jsonPath("$.features[0].geometry.coordinates[0]", equalTo(-2.23)))
+                .andExpect(jsonPath("$.features[0].geometry.coordinates[1]", equalTo(53.47)))
+                .andExpect(jsonPath("$.features[0].properties.name", equalTo("Hall")))
+                .andExpect(jsonPath("$.features[0].properties.events.length()", equalTo(2)))
+                .andExpect(jsonPath("$.features[0].properties.events[0].time", equalTo("19:30")))
+                .andExpect(jsonPath("$.features[1].properties.events[0].name", equalTo("Party")));
+    }
+
+    @Test
+    public void getVenuesGeoJsonNotModified() throws Exception {
+        when(venueService.findUpcomingLocations(any(LocalDate.class), isNull())).thenReturn(List.of());
+
+        String etag = mvc.perform(get("/api/venues/geo").accept("application/geo+json")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/api/venues/geo").accept("application/geo+json").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        // Answered from the data version, without the query.
+        verify(venueService, times(1)).findUpcomingLocations(any(LocalDate.class), isNull());
+
+        // A different box is a different ETag.
+        when(venueService.findUpcomingLocations(any(LocalDate.class), any(BoundingBox.class))).thenReturn(List.of());
+        mvc.perform(get("/api/venues/geo?bbox=-3,53,-2,54").accept("application/geo+json")
+                .header("If-None-Match", etag)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void getVenuesGeoJsonWithinBoundingBox() throws Exception {
+        when(venueService.findUpcomingLocations(any(LocalDate.class), any(BoundingBox.class))).thenReturn(List.of());
+
+        mvc.perform(get("/api/venues/geo?bbox=-3,53,-2,54").accept("application/geo+json"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.features.length()", equalTo(0)));
+
+        verify(venueService).findUpcomingLocations(any(LocalDate.class),
+                argThat(box -> box.getWest() == -3 && box.getSouth() == 53 && box.getEast() == -2 && box.getNorth() == 54));
+    }
+
+    @Test
+    public void getVenuesGeoJsonWithBadBoundingBox() throws Exception {
+        mvc.perform(get("/api/venues/geo?bbox=1,2,3").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest()).andExpect(jsonPath("$.error", containsString("bounding box")));
+    }
+
+    private static Venue venue(long id, String name) {
+        Venue venue = new Venue();
+        venue.setId(id);
+        venue.setName(name);
+        return venue;
     }
 
     @Test
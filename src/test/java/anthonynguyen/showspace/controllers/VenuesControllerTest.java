@@ -10,6 +10,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.Collections;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -24,13 +25,14 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import anthonynguyen.showspace.config.Security;
+import anthonynguyen.showspace.dao.DataVersions;
 import anthonynguyen.showspace.dao.EventService;
 import anthonynguyen.showspace.dao.VenueService;
 import anthonynguyen.showspace.entities.Venue;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(VenueController.class)
-@Import(Security.class)
+@Import({ Security.class, DataVersions.class, FragmentCache.class })
 public class VenuesControllerTest {
 
     @Autowired
@@ -45,6 +47,14 @@ public class VenuesControllerTest {
     @MockBean
     private EventService eventService;
 
+    @Autowired
+    private FragmentCache fragmentCache;
+
+    @BeforeEach
+    public void clearFragments() {
+        fragmentCache.invalidateAll();
+    }
+
     // GET TESTS
 
     @Test
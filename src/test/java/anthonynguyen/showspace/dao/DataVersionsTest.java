@@ -0,0 +1,40 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import anthonynguyen.showspace.dao.DataVersions.Kind;
+
+public class DataVersionsTest {
+
+	private final DataVersions dataVersions = new DataVersions();
+
+	@Test
+	public void savedEntityGetsItsOwnCounter() {
+		dataVersions.changed(Kind.EVENTS, 1);
+		dataVersions.changed(Kind.EVENTS, 1);
+
+		assertEquals(2, dataVersions.of(Kind.EVENTS, 1).getCounter());
+		assertEquals(0, dataVersions.of(Kind.EVENTS, 2).getCounter());
+		assertEquals(2, dataVersions.of(Kind.EVENTS).getCounter());
+	}
+
+	@Test
+	public void deletedEntityDropsItsCounter() {
+		dataVersions.changed(Kind.EVENTS, 1);
+		dataVersions.changed(Kind.EVENTS, 1);
+		long before = dataVersions.of(Kind.EVENTS, 1).getCounter();
+
+		dataVersions.onEventDeleted(new EventDeleted(1));
+
+		// Shared with every event that hasn't changed, and past anything a
+		// client saw for the deleted one.
+		assertTrue(dataVersions.of(Kind.EVENTS, 1).getCounter() > before);
+		assertEquals(dataVersions.of(Kind.EVENTS, 1).getCounter(), dataVersions.of(Kind.EVENTS, 2).getCounter());
+
+		dataVersions.changed(Kind.EVENTS, 2);
+		assertTrue(dataVersions.of(Kind.EVENTS, 2).getCounter() > dataVersions.of(Kind.EVENTS, 1).getCounter());
+	}
+}
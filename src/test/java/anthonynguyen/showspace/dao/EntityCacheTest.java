@@ -0,0 +1,118 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Not transactional: entities only reach the second-level cache on commit.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class)
+@DirtiesContext
+@ActiveProfiles("test")
+public class EntityCacheTest {
+
+	@Autowired
+	private VenueService venueService;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Statistics statistics;
+
+	private long venueId;
+
+	@BeforeEach
+	void setup() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+		statistics = sessionFactory.getStatistics();
+		statistics.clear();
+		venueId = venueService.findAll().get(0).getId();
+	}
+
+	@Test
+	public void repeatedVenueLookupsHitTheCache() {
+		venueService.findById(venueId);
+		long hits = statistics.getSecondLevelCacheHitCount();
+
+		venueService.findById(venueId);
+
+		assertTrue(statistics.getSecondLevelCacheHitCount() > hits);
+	}
+
+	@Test
+	public void savedVenueReplacesCachedCopy() {
+		Venue venue = venueService.findById(venueId);
+		String name = venue.getName();
+		venue.setName(name + " RENAMED");
+		venueService.save(venue);
+
+		assertEquals(name + " RENAMED", venueService.findById(venueId).getName());
+
+		venue.setName(name);
+		venueService.save(venue);
+	}
+
+	@Test
+	public void savedEventShowsUpInCachedVenueEvents() {
+		int before = eventCountAtVenue();
+		assertEquals(before, eventCountAtVenue());
+
+		Event event = new Event();
+		event.setName("CACHE TEST EVENT");
+		event.setDate(LocalDate.now().plusDays(1));
+		event.setVenue(venueService.findById(venueId));
+		Event saved = eventService.save(event);
+
+		assertEquals(before + 1, eventCountAtVenue());
+
+		eventService.deleteById(saved.getId());
+		assertEquals(before, eventCountAtVenue());
+	}
+
+	@Test
+	public void cacheRequestsAreMetered() {
+		venueService.findById(venueId);
+
+		assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").meter());
+	}
+
+	private int eventCountAtVenue() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		return transaction.execute(status -> venueRepository.findById(venueId).get().getEvents().size());
+	}
+}
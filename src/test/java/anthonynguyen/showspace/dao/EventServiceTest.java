@@ -11,6 +11,7 @@ import static org.mockito.Mockito.anyLong;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -115,7 +116,7 @@ public class EventServiceTest extends AbstractTransactionalJUnit4SpringContextTe
 	@Test
 	public void testFindUpcomingEvents() {
 		LocalDate today = LocalDate.now();
-		when(eventRepository.findByDateAfterOrDateOrderByDateAscNameAsc(today, today)).thenReturn(List.of(new Event()));
+		when(eventRepository.findByDateGreaterThanEqualOrderByDateAscNameAsc(today)).thenReturn(List.of(new Event()));
 		assertEquals(1, eventService.findUpcomingEvents(today).size());
 	}
 	
@@ -126,6 +127,66 @@ public class EventServiceTest extends AbstractTransactionalJUnit4SpringContextTe
 		assertEquals(1, eventService.findPastEvents(today).size());
 	}
 	
+	@Test
+	public void testFindTimeline() {
+		LocalDate today = LocalDate.now();
+		EventListItem older = event("A older", today.minusDays(2));
+		EventListItem yesterdayA = event("A yesterday", today.minusDays(1));
+		EventListItem yesterdayB = event("B yesterday", today.minusDays(1));
+		EventListItem todays = event("Today", today);
+		EventListItem later = event("Later", today.plusDays(3));
+
+		when(eventRepository.findTimeline()).thenReturn(List.of(older, yesterdayA, yesterdayB, todays, later));
+
+		EventTimeline timeline = eventService.findTimeline(null, today);
+
+		assertEquals(List.of(todays, later), timeline.getUpcoming());
+		assertEquals(List.of(yesterdayA, yesterdayB, older), timeline.getPast());
+		verify(eventRepository).findTimeline();
+	}
+
+	@Test
+	public void testFindTimelineWithSearch() {
+		LocalDate today = LocalDate.now();
+		EventListItem past = event("Past show", today.minusDays(1));
+
+		// Too short for the search index, so still a name scan.
+		when(eventRepository.findTimelineByName("sh")).thenReturn(List.of(past));
+
+		EventTimeline timeline = eventService.findTimeline("sh", today);
+
+		assertTrue(timeline.getUpcoming().isEmpty());
+		assertEquals(List.of(past), timeline.getPast());
+	}
+
+	@Test
+	public void testFindUpcomingPage() {
+		LocalDate today = LocalDate.now();
+		EventListItem last = new EventListItem(7, "Gig", today.plusDays(1), null, null, null);
+
+		eventService.findUpcomingPage(today, null, 50);
+		eventService.findUpcomingPage(today, last, 50);
+
+		verify(eventRepository).findUpcomingFirstPage(today, PageRequest.of(0, 50));
+		verify(eventRepository).findUpcomingPageAfter(today.plusDays(1), "Gig", 7, PageRequest.of(0, 50));
+	}
+
+	@Test
+	public void testFindPastPage() {
+		LocalDate today = LocalDate.now();
+		EventListItem last = new EventListItem(7, "Gig", today.minusDays(1), null, null, null);
+
+		eventService.findPastPage(today, null, 50);
+		eventService.findPastPage(today, last, 50);
+
+		verify(eventRepository).findPastFirstPage(today, PageRequest.of(0, 50));
+		verify(eventRepository).findPastPageAfter(today.minusDays(1), "Gig", 7, PageRequest.of(0, 50));
+	}
+
+	private static EventListItem event(String name, LocalDate date) {
+		return new EventListItem(0, name, date, null, null, null);
+	}
+
 	@Test
 	public void testFindById() {
 		when(eventRepository.findById(1L)).thenReturn(Optional.of(new Event()));
@@ -134,7 +195,8 @@ public class EventServiceTest extends AbstractTransactionalJUnit4SpringContextTe
 	
 	@Test
 	public void testFindUpcomingEventsByVenue() {
-		when(eventRepository.findUpcomingEventsByVenue(1L, LocalDate.now())).thenReturn(List.of(new Event()));
+		when(eventRepository.findUpcomingEventsByVenue(1L, LocalDate.now()))
+				.thenReturn(List.of(event("Upcoming", LocalDate.now())));
 		assertEquals(1, eventService.findUpcomingEventsByVenue(1L, LocalDate.now()).size());
 	}
 	
@@ -0,0 +1,150 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.entities.MastodonPost;
+import anthonynguyen.showspace.entities.MastodonPost.State;
+import anthonynguyen.showspace.exceptions.MastodonPostException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Not transactional: posts are sent on the outbox's own worker threads.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class, properties = { "mastodon.outbox.max-attempts=2",
+		"mastodon.outbox.backoff-initial-ms=0", "mastodon.outbox.rate-per-second=1000" })
+@DirtiesContext
+@ActiveProfiles("test")
+public class MastodonPostServiceTest {
+
+	@Autowired
+	private MastodonPostService mastodonPostService;
+
+	@Autowired
+	private MastodonPostRepository mastodonPostRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockBean
+	private MastodonService mastodonService;
+
+	@BeforeEach
+	void clearOutbox() {
+		mastodonPostRepository.deleteAll();
+	}
+
+	@Test
+	public void queuedPostIsNotSentStraightAway() {
+		MastodonPost post = mastodonPostService.queuePost(1L, "Hello #showspace");
+
+		assertEquals(State.PENDING, mastodonPostService.findById(post.getId()).getState());
+		verify(mastodonService, never()).createPost(anyString());
+	}
+
+	@Test
+	public void drainSendsDuePosts() {
+		double sentBefore = sentCount();
+		MastodonPost post = mastodonPostService.queuePost(1L, "Hello #showspace");
+		when(mastodonService.createPost("Hello #showspace")).thenReturn(99L);
+
+		assertEquals(1, mastodonPostService.drain());
+
+		MastodonPost sent = mastodonPostService.findById(post.getId());
+		assertEquals(State.SENT, sent.getState());
+		assertEquals(99L, sent.getRemoteId());
+		assertEquals(1, sent.getAttempts());
+		assertNotNull(sent.getSentAt());
+		assertEquals(sentBefore + 1, sentCount());
+	}
+
+	@Test
+	public void retryableFailureIsRescheduled() {
+		MastodonPost post = mastodonPostService.queuePost(1L, "Hello #showspace");
+		when(mastodonService.createPost(anyString()))
+				.thenThrow(new MastodonPostException("Mastodon post failed with HTTP 503", true, null));
+
+		mastodonPostService.drain();
+
+		MastodonPost retry = mastodonPostService.findById(post.getId());
+		assertEquals(State.PENDING, retry.getState());
+		assertEquals(1, retry.getAttempts());
+		assertTrue(retry.getLastError().contains("503"));
+		assertTrue(!retry.getNextAttemptAt().isBefore(retry.getCreatedAt()));
+	}
+
+	@Test
+	public void givesUpAfterMaxAttempts() {
+		MastodonPost post = mastodonPostService.queuePost(1L, "Hello #showspace");
+		when(mastodonService.createPost(anyString()))
+				.thenThrow(new MastodonPostException("Mastodon post failed", true, null));
+
+		mastodonPostService.drain();
+		mastodonPostService.drain();
+
+		MastodonPost dead = mastodonPostService.findById(post.getId());
+		assertEquals(State.DEAD, dead.getState());
+		assertEquals(2, dead.getAttempts());
+		assertNull(dead.getNextAttemptAt());
+		assertEquals(0, mastodonPostService.drain());
+	}
+
+	@Test
+	public void refusedPostIsDeadLettered() {
+		MastodonPost post = mastodonPostService.queuePost(1L, "Hello #showspace");
+		when(mastodonService.createPost(anyString()))
+				.thenThrow(new MastodonPostException("Mastodon post failed with HTTP 422", false, null));
+
+		mastodonPostService.drain();
+
+		assertEquals(State.DEAD, mastodonPostService.findById(post.getId()).getState());
+	}
+
+	@Test
+	public void outcomeIsNotWrittenOnceTheClaimIsReleased() {
+		MastodonPost post = mastodonPostService.queuePost(1L, "Hello #showspace");
+		// As if the app restarted while the post was being sent.
+		when(mastodonService.createPost(anyString())).thenAnswer(invocation -> {
+			mastodonPostRepository.transitionAll(State.SENDING, State.PENDING);
+			return 99L;
+		});
+
+		mastodonPostService.drain();
+
+		MastodonPost requeued = mastodonPostService.findById(post.getId());
+		assertEquals(State.PENDING, requeued.getState());
+		assertNull(requeued.getRemoteId());
+	}
+
+	@Test
+	public void postsNotYetDueAreLeftAlone() {
+		MastodonPost later = new MastodonPost(1L, "Later #showspace", Instant.now());
+		later.setNextAttemptAt(Instant.now().plusSeconds(3600));
+		mastodonPostRepository.save(later);
+
+		assertEquals(0, mastodonPostService.drain());
+		verify(mastodonService, never()).createPost(anyString());
+	}
+
+	private double sentCount() {
+		return meterRegistry.get("showspace.mastodon.outbox.posts").tag("outcome", "sent").counter().count();
+	}
+}
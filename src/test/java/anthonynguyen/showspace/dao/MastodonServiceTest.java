@@ -0,0 +1,150 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sys1yagi.mastodon4j.api.entity.Status;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the feed refresher against a local stub of the Mastodon API.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class, properties = { "mastodon.feed.enabled=true",
+		"mastodon.feed.refresh-interval-ms=3600000", "mastodon.feed.initial-delay-ms=3600000",
+		"mastodon.feed.stale-after-ms=3600000", "mastodon.feed.failure-threshold=2" })
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+public class MastodonServiceTest {
+
+	private static HttpServer server;
+
+	private static volatile int responseCode;
+	private static volatile String responseBody;
+	private static volatile String lastQuery;
+	private static final AtomicInteger requests = new AtomicInteger();
+
+	@Autowired
+	private MastodonService mastodonService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@DynamicPropertySource
+	static void stubServer(DynamicPropertyRegistry registry) throws IOException {
+		if (server == null) {
+			server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/api/v1/timelines/home", exchange -> {
+				requests.incrementAndGet();
+				lastQuery = exchange.getRequestURI().getQuery();
+
+				byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				exchange.sendResponseHeaders(responseCode, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			});
+			server.start();
+		}
+		registry.add("mastodon.instance.base-url", () -> "http://localhost:" + server.getAddress().getPort());
+	}
+
+	@AfterAll
+	static void stopServer() {
+		server.stop(0);
+		server = null;
+	}
+
+	@BeforeEach
+	void resetStub() {
+		requests.set(0);
+		lastQuery = null;
+		respond(200, "[]");
+	}
+
+	@Test
+	public void refreshKeepsNewestTaggedStatuses() {
+		respond(200, timeline(status(5, "showspace"), status(4, "showspace"), status(3, "ShowSpace"),
+				status(2, "other"), status(1, "showspace")));
+
+		mastodonService.refreshFeed();
+
+		assertEquals(List.of(5L, 4L, 3L), ids(mastodonService.getHomeFeed()));
+	}
+
+	@Test
+	public void refreshOnlyAsksForNewerStatuses() {
+		respond(200, timeline(status(8, "other"), status(7, "showspace")));
+		mastodonService.refreshFeed();
+
+		respond(200, timeline(status(9, "showspace")));
+		mastodonService.refreshFeed();
+
+		assertTrue(lastQuery.contains("since_id=8"), lastQuery);
+		assertEquals(List.of(9L, 7L), ids(mastodonService.getHomeFeed()));
+	}
+
+	@Test
+	public void servesLastSnapshotWhileInstanceIsDown() {
+		respond(200, timeline(status(1, "showspace")));
+		mastodonService.refreshFeed();
+
+		// Two failures open the circuit, after which the stub is left alone.
+		respond(503, "{}");
+		mastodonService.refreshFeed();
+		mastodonService.refreshFeed();
+		int calls = requests.get();
+		mastodonService.refreshFeed();
+
+		assertEquals(calls, requests.get());
+		assertEquals(List.of(1L), ids(mastodonService.getHomeFeed()));
+
+		assertEquals(1, meterRegistry.get("showspace.mastodon.feed.refresh").tag("outcome", "success").timer().count());
+		assertEquals(2, meterRegistry.get("showspace.mastodon.feed.refresh").tag("outcome", "failure").timer().count());
+		assertEquals(1.0, meterRegistry.get("showspace.mastodon.feed.circuit.open").gauge().value());
+		assertTrue(meterRegistry.get("showspace.mastodon.feed.staleness").gauge().value() >= 0);
+	}
+
+	private static void respond(int code, String body) {
+		responseCode = code;
+		responseBody = body;
+	}
+
+	private static String timeline(String... statuses) {
+		return "[" + String.join(",", statuses) + "]";
+	}
+
+	private static String status(long id, String tag) {
+		return "{ \"id\": " + id + ", \"content\": \"<p>Post " + id + " #" + tag + "</p>\", \"tags\": [ { \"name\": \""
+				+ tag + "\", \"url\": \"https://techhub.social/tags/" + tag + "\" } ] }";
+	}
+
+	private static List<Long> ids(List<Status> statuses) {
+		return statuses.stream().map(Status::getId).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,242 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.entities.Venue.GeocodeState;
+import anthonynguyen.showspace.testutil.BenchmarkData;
+import anthonynguyen.showspace.testutil.CapturingStatementInspector;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs every query method of the event, venue and home repositories, then
+ * asks H2 for the plan of each statement they issued against 100k venues and
+ * 100k events. Any statement that reads a whole table fails the test, unless
+ * the method is listed in FULL_READS because it needs every row anyway.
+ *
+ * New repository methods have to be added to {@link #queries()} too, or
+ * {@link #everyQueryMethodIsChecked()} fails.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class)
+@DirtiesContext
+@ActiveProfiles("test")
+public class QueryPlanTest {
+
+	private final static Logger log = LoggerFactory.getLogger(QueryPlanTest.class);
+
+	private static final int ROWS = 100_000;
+
+	private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+	private static final Map<String, String> FULL_READS = Map.ofEntries(
+			Map.entry("EventRepository.findAllByOrderByDateAscTimeAsc", "lists every event"),
+			Map.entry("EventRepository.findTimeline", "the unfiltered timeline"),
+			Map.entry("EventRepository.findByNameContainingIgnoreCase", "substring match, short queries only"),
+			Map.entry("EventRepository.findTimelineByName", "substring match, short queries only"),
+			Map.entry("EventRepository.streamAllInPageOrder", "streams every event"),
+			Map.entry("EventRepository.streamSearchText", "builds the search index"),
+			Map.entry("VenueRepository.findAllByOrderByNameAsc", "lists every venue"),
+			Map.entry("VenueRepository.findByNameContainingIgnoreCase", "substring match, short queries only"),
+			Map.entry("VenueRepository.streamAllInPageOrder", "streams every venue"),
+			Map.entry("VenueRepository.streamSearchText", "builds the search index"),
+			Map.entry("VenueRepository.findSummaries", "every venue for the venue pickers, cached"),
+			Map.entry("VenueRepository.countEventsByVenue", "counts events at every venue for the ranking"));
+
+	@Autowired
+	private EventRepository eventRepository;
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private HomeRepository homeRepository;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void everyQueryMethodIsChecked() {
+		Set<String> declared = new TreeSet<>();
+		for (Class<?> repository : List.of(EventRepository.class, VenueRepository.class, HomeRepository.class)) {
+			for (Method method : repository.getDeclaredMethods()) {
+				declared.add(repository.getSimpleName() + "." + method.getName());
+			}
+		}
+
+		assertEquals(declared, new TreeSet<>(queries().keySet()));
+		assertTrue(declared.containsAll(FULL_READS.keySet()));
+	}
+
+	@Test
+	public void queriesUseIndexes() {
+		// Statements are captured against the small test data set, so the full
+		// reads stay quick; the plans only depend on what is in the tables when
+		// they are explained. Nothing can come from the second-level cache.
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		Map<String, Set<String>> statements = new LinkedHashMap<>();
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		queries().forEach((method, query) -> {
+			CapturingStatementInspector.start();
+			try {
+				transaction.executeWithoutResult(status -> query.run());
+			} finally {
+				statements.put(method, new LinkedHashSet<>(CapturingStatementInspector.stop()));
+			}
+		});
+
+		JdbcTemplate jdbcTemplate = jdbc.getJdbcTemplate();
+		BenchmarkData data = new BenchmarkData(jdbcTemplate, 42);
+		data.addVenues(ROWS);
+		data.addEvents(ROWS);
+		jdbcTemplate.execute("ANALYZE");
+
+		StringBuilder failures = new StringBuilder();
+		statements.forEach((method, sqls) -> {
+			assertFalse(sqls.isEmpty(), method + " ran no SQL");
+			for (String sql : sqls) {
+				String plan = explain(jdbcTemplate, sql);
+				Set<String> scanned = scannedTables(plan);
+				if (scanned.isEmpty()) {
+					continue;
+				}
+				if (FULL_READS.containsKey(method)) {
+					log.info(method + " scans " + scanned + " (" + FULL_READS.get(method) + ")");
+				} else {
+					failures.append("\n").append(method).append(" scans ").append(scanned).append(":\n").append(plan);
+				}
+			}
+		});
+
+		assertTrue(failures.length() == 0, "Table scans at " + ROWS + " rows:" + failures);
+	}
+
+	// Unset parameters are fine, H2 only needs them to run the query.
+	private static String explain(JdbcTemplate jdbcTemplate, String sql) {
+		return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql), rs -> {
+			StringBuilder plan = new StringBuilder();
+			while (rs.next()) {
+				plan.append(rs.getString(1));
+			}
+			return plan.toString();
+		});
+	}
+
+	private static Set<String> scannedTables(String plan) {
+		Set<String> tables = new TreeSet<>();
+		Matcher matcher = TABLE_SCAN.matcher(plan);
+		while (matcher.find()) {
+			tables.add(matcher.group(1));
+		}
+		return tables;
+	}
+
+	private Map<String, Runnable> queries() {
+		LocalDate today = LocalDate.now();
+		LocalTime noon = LocalTime.NOON;
+		PageRequest page = PageRequest.of(0, 20);
+
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+		queries.put("EventRepository.findAllByOrderByDateAscTimeAsc", eventRepository::findAllByOrderByDateAscTimeAsc);
+		queries.put("EventRepository.findByNameContainingIgnoreCase",
+				() -> eventRepository.findByNameContainingIgnoreCase("event"));
+		queries.put("EventRepository.findById", () -> eventRepository.findById(1L));
+		queries.put("EventRepository.findTimeline", eventRepository::findTimeline);
+		queries.put("EventRepository.findTimelineByName", () -> eventRepository.findTimelineByName("event"));
+		queries.put("EventRepository.findByDateGreaterThanEqualOrderByDateAscNameAsc",
+				() -> eventRepository.findByDateGreaterThanEqualOrderByDateAscNameAsc(today));
+		queries.put("EventRepository.findByDateBeforeOrderByDateDescNameAsc",
+				() -> eventRepository.findByDateBeforeOrderByDateDescNameAsc(today));
+		queries.put("EventRepository.findUpcomingEventsByVenue",
+				() -> eventRepository.findUpcomingEventsByVenue(1, today));
+		queries.put("EventRepository.existsByVenueId", () -> eventRepository.existsByVenueId(1));
+		queries.put("EventRepository.findVenueIdById", () -> eventRepository.findVenueIdById(1));
+		queries.put("EventRepository.existsByVenueIdAndDateAfter",
+				() -> eventRepository.existsByVenueIdAndDateAfter(1, today));
+		queries.put("EventRepository.findTop3ByVenueIdAndDateAfterOrderByDateAsc",
+				() -> eventRepository.findTop3ByVenueIdAndDateAfterOrderByDateAsc(1, today));
+		queries.put("EventRepository.findFirstPage", () -> eventRepository.findFirstPage(page));
+		queries.put("EventRepository.findPageAfter", () -> eventRepository.findPageAfter(today, noon, 1, page));
+		queries.put("EventRepository.findPageAfterUntimed", () -> eventRepository.findPageAfterUntimed(today, 1, page));
+		queries.put("EventRepository.findPageBefore", () -> eventRepository.findPageBefore(today, noon, 1, page));
+		queries.put("EventRepository.findPageBeforeUntimed",
+				() -> eventRepository.findPageBeforeUntimed(today, 1, page));
+		queries.put("EventRepository.streamAllInPageOrder", () -> first(eventRepository.streamAllInPageOrder()));
+		queries.put("EventRepository.streamSearchText", () -> first(eventRepository.streamSearchText()));
+		queries.put("EventRepository.findTimelineByIdIn",
+				() -> eventRepository.findTimelineByIdIn(Arrays.asList(1L, 2L, 3L)));
+		queries.put("EventRepository.findUpcomingFirstPage", () -> eventRepository.findUpcomingFirstPage(today, page));
+		queries.put("EventRepository.findUpcomingPageAfter",
+				() -> eventRepository.findUpcomingPageAfter(today, "M", 1, page));
+		queries.put("EventRepository.findPastFirstPage", () -> eventRepository.findPastFirstPage(today, page));
+		queries.put("EventRepository.findPastPageAfter", () -> eventRepository.findPastPageAfter(today, "M", 1, page));
+
+		queries.put("VenueRepository.findAllByOrderByNameAsc", venueRepository::findAllByOrderByNameAsc);
+		queries.put("VenueRepository.findByNameContainingIgnoreCase",
+				() -> venueRepository.findByNameContainingIgnoreCase("venue"));
+		queries.put("VenueRepository.findFirstPage", () -> venueRepository.findFirstPage(page));
+		queries.put("VenueRepository.findPageAfter", () -> venueRepository.findPageAfter("M", 1, page));
+		queries.put("VenueRepository.findPageBefore", () -> venueRepository.findPageBefore("M", 1, page));
+		queries.put("VenueRepository.streamAllInPageOrder", () -> first(venueRepository.streamAllInPageOrder()));
+		queries.put("VenueRepository.streamSearchText", () -> first(venueRepository.streamSearchText()));
+		queries.put("VenueRepository.findSummaries", venueRepository::findSummaries);
+		queries.put("VenueRepository.findUpcomingEventRows",
+				() -> venueRepository.findUpcomingEventRows(today, GeocodeState.RESOLVED));
+		queries.put("VenueRepository.findUpcomingEventRowsWithin",
+				() -> venueRepository.findUpcomingEventRowsWithin(today, GeocodeState.RESOLVED, -3, 53, -2, 54));
+		queries.put("VenueRepository.countEventsByVenue", venueRepository::countEventsByVenue);
+		queries.put("VenueRepository.findExistingIds", () -> venueRepository.findExistingIds(List.of(1L, 2L)));
+		queries.put("VenueRepository.findIdsByGeocodeState",
+				() -> venueRepository.findIdsByGeocodeState(GeocodeState.PENDING, page));
+		queries.put("VenueRepository.applyGeocode",
+				() -> venueRepository.applyGeocode(-1, "Nowhere", "", 0, 0, GeocodeState.RESOLVED));
+
+		queries.put("HomeRepository.findFeaturedEvents", () -> homeRepository.findFeaturedEvents(today, page));
+
+		return queries;
+	}
+
+	private static void first(Stream<?> rows) {
+		try (rows) {
+			rows.findFirst();
+		}
+	}
+}
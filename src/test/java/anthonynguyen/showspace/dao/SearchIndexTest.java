@@ -0,0 +1,86 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SearchIndexTest {
+
+	private SearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new SearchIndex();
+		index.put(1, SearchIndex.field("Jazz Night", 3), SearchIndex.field("Live jazz in the basement", 1));
+		index.put(2, SearchIndex.field("Comedy Club", 3), SearchIndex.field("Stand-up and a little jazz", 1));
+		index.put(3, SearchIndex.field("Café Concert", 3), SearchIndex.field("Strings at the café", 1));
+	}
+
+	@Test
+	public void ranksNameMatchesFirst() {
+		assertEquals(List.of(1L, 2L), index.search("jazz", 10));
+	}
+
+	@Test
+	public void everyWordMustMatch() {
+		assertEquals(List.of(2L), index.search("jazz comedy", 10));
+		assertEquals(List.of(), index.search("jazz strings", 10));
+	}
+
+	@Test
+	public void matchesPrefixes() {
+		assertEquals(List.of(2L), index.search("come", 10));
+	}
+
+	@Test
+	public void matchesMisspellings() {
+		assertEquals(List.of(2L), index.search("comdey", 10));
+		assertEquals(List.of(), index.search("xylophone", 10));
+	}
+
+	@Test
+	public void ignoresCaseAndAccents() {
+		assertEquals(List.of(3L), index.search("CAFE", 10));
+	}
+
+	@Test
+	public void updatesReplaceAndRemove() {
+		index.put(1, SearchIndex.field("Folk Night", 3));
+		assertEquals(List.of(2L), index.search("jazz", 10));
+		assertEquals(List.of(1L), index.search("folk", 10));
+
+		index.remove(2);
+		assertEquals(List.of(), index.search("jazz", 10));
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void compactsAfterManyRemovals() {
+		for (long id = 100; id < 3000; id++) {
+			index.put(id, SearchIndex.field("Gig " + id, 3));
+		}
+		for (long id = 100; id < 2900; id++) {
+			index.remove(id);
+		}
+
+		assertEquals(List.of(2950L), index.search("gig 2950", 10));
+		assertEquals(100, index.search("gig", 1000).size());
+	}
+
+	@Test
+	public void limitsResults() {
+		assertEquals(1, index.search("jazz", 1).size());
+	}
+
+	@Test
+	public void editDistance() {
+		assertTrue(SearchIndex.withinEdits("comdey", "comedy", 1));
+		assertFalse(SearchIndex.withinEdits("comdey", "comedian", 1));
+		assertTrue(SearchIndex.withinEdits("evnt", "event", 1));
+	}
+}
@@ -0,0 +1,134 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.entities.Venue;
+import anthonynguyen.showspace.entities.Venue.GeocodeState;
+import anthonynguyen.showspace.testutil.FakeGeocoder;
+
+// Not transactional: the worker applies results in its own transactions.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class, properties = { "geocoding.failure-threshold=100" })
+@DirtiesContext
+@ActiveProfiles("test")
+public class VenueGeocodingWorkerTest {
+
+	@Autowired
+	private VenueGeocodingWorker worker;
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private GeocodeCacheRepository geocodeCacheRepository;
+
+	@Autowired
+	private FakeGeocoder geocoder;
+
+	@BeforeEach
+	void resetGeocoder() {
+		geocodeCacheRepository.deleteAll();
+		geocoder.reset();
+	}
+
+	@Test
+	public void pendingVenueIsResolved() {
+		Venue venue = pendingVenue("Geocode Hall", "1 Oxford Road", "M13 9PL");
+
+		worker.geocode(List.of(venue.getId()));
+
+		Venue resolved = venueRepository.findById(venue.getId()).get();
+		assertEquals(GeocodeState.RESOLVED, resolved.getGeocodeState());
+		assertNotEquals(0.0, resolved.getLatitude());
+		assertEquals(false, resolved.isAddressChanged());
+	}
+
+	@Test
+	public void sharedAddressIsLookedUpOnce() {
+		Venue first = pendingVenue("Upstairs", "2 Oxford Road", "M13 9PL");
+		Venue second = pendingVenue("Downstairs", "2  oxford road", "m13 9pl");
+
+		worker.geocode(List.of(first.getId(), second.getId()));
+		Venue later = pendingVenue("Back Room", "2 Oxford Road", "M13 9PL");
+		worker.geocode(List.of(later.getId()));
+
+		assertEquals(1, geocoder.getLookups());
+		assertEquals(venueRepository.findById(first.getId()).get().getLatitude(),
+				venueRepository.findById(later.getId()).get().getLatitude());
+	}
+
+	@Test
+	public void unknownAddressIsMarkedFailed() {
+		Venue venue = pendingVenue("Nowhere", "3 Nowhere Lane", FakeGeocoder.UNKNOWN_POSTCODE);
+
+		worker.geocode(List.of(venue.getId()));
+
+		assertEquals(GeocodeState.FAILED, venueRepository.findById(venue.getId()).get().getGeocodeState());
+	}
+
+	@Test
+	public void failedLookupIsLeftForTheSweep() {
+		Venue venue = pendingVenue("Retry Rooms", "4 Oxford Road", "M13 9PL");
+		geocoder.setFailing(true);
+
+		worker.geocode(List.of(venue.getId()));
+		assertEquals(GeocodeState.PENDING, venueRepository.findById(venue.getId()).get().getGeocodeState());
+
+		geocoder.setFailing(false);
+		worker.sweep();
+		assertEquals(GeocodeState.RESOLVED, awaitGeocoded(venue.getId()));
+	}
+
+	@Test
+	public void sweepLeavesTheLookupsToTheAsyncExecutor() {
+		Venue venue = pendingVenue("Slow Rooms", "5 Oxford Road", "M13 9PL");
+		geocoder.setDelayMs(1000);
+
+		long start = System.nanoTime();
+		worker.sweep();
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+
+		assertEquals(GeocodeState.RESOLVED, awaitGeocoded(venue.getId()));
+	}
+
+	// The sweep's batch is geocoded on the async executor.
+	private GeocodeState awaitGeocoded(long venueId) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		GeocodeState state = venueRepository.findById(venueId).get().getGeocodeState();
+		while (state == GeocodeState.PENDING && System.nanoTime() < deadline) {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			state = venueRepository.findById(venueId).get().getGeocodeState();
+		}
+		return state;
+	}
+
+	// Saved straight through the repository so the async listener stays out of the way.
+	private Venue pendingVenue(String name, String roadName, String postcode) {
+		Venue venue = new Venue();
+		venue.setName(name);
+		venue.setRoadName(roadName);
+		venue.setPostcode(postcode);
+		venue.setCapacity(100);
+		return venueRepository.save(venue);
+	}
+}
@@ -0,0 +1,136 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.entities.Event;
+import anthonynguyen.showspace.entities.Venue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+public class VenueRankingTest {
+
+	@Autowired
+	private VenueRanking venueRanking;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private VenueService venueService;
+
+	@SpyBean
+	private VenueRepository venueRepository;
+
+	@Test
+	public void rankingStartsFromDatabaseCounts() {
+		List<VenueEventCount> top = venueRanking.top(5);
+
+		// Three test venues with one event each, tied so ordered by name.
+		assertEquals(3, top.size());
+		assertEquals("TEST VENUE 1", top.get(0).getName());
+		assertEquals(1, top.get(0).getEventCount());
+		assertEquals(List.of(top.get(0)), venueRanking.top(1));
+	}
+
+	@Test
+	public void savedEventMovesVenueUp() {
+		venueRanking.top(3);
+		Venue venue = venue("TEST VENUE 3");
+
+		Event event = eventService.save(event("Extra", venue));
+
+		VenueEventCount first = venueRanking.top(1).get(0);
+		assertEquals(venue.getId(), first.getId());
+		assertEquals(2, first.getEventCount());
+
+		eventService.deleteById(event.getId());
+		assertEquals("TEST VENUE 1", venueRanking.top(1).get(0).getName());
+	}
+
+	@Test
+	public void movedEventCountsAgainstItsNewVenue() {
+		venueRanking.top(3);
+		Venue from = venue("TEST VENUE 1");
+		Venue to = venue("TEST VENUE 2");
+
+		Event event = eventService.findByNameContainingIgnoreCase("EVENT ONE").get(0);
+		event.setVenue(to);
+		eventService.save(event);
+
+		List<VenueEventCount> top = venueRanking.top(3);
+		assertEquals(to.getId(), top.get(0).getId());
+		assertEquals(2, top.get(0).getEventCount());
+		assertEquals(from.getId(), top.get(2).getId());
+		assertEquals(0, top.get(2).getEventCount());
+	}
+
+	@Test
+	public void newAndRenamedVenuesAreRanked() {
+		venueRanking.top(3);
+		Venue renamed = venue("TEST VENUE 3");
+		renamed.setName("A RENAMED VENUE");
+		venueService.save(renamed);
+
+		Venue added = new Venue();
+		added.setName("ZZ NEW VENUE");
+		added.setRoadName("4 Test Road");
+		added.setPostcode("TE4 8OD");
+		added.setCapacity(10);
+		venueService.save(added);
+
+		List<VenueEventCount> top = venueRanking.top(5);
+		assertEquals(4, top.size());
+		assertEquals("A RENAMED VENUE", top.get(0).getName());
+		assertEquals("ZZ NEW VENUE", top.get(3).getName());
+		assertEquals(0, top.get(3).getEventCount());
+	}
+
+	@Test
+	public void eventSavedDuringRebuildIsKept() {
+		venueRanking.top(3);
+		Venue venue = venue("TEST VENUE 3");
+
+		// Saved after the aggregate query has read the counts, before they're
+		// loaded.
+		doAnswer(invocation -> {
+			Object counts = invocation.callRealMethod();
+			eventService.save(event("Extra", venue));
+			return counts;
+		}).when(venueRepository).countEventsByVenue();
+		venueRanking.rebuild();
+
+		VenueEventCount first = venueRanking.top(1).get(0);
+		assertEquals(venue.getId(), first.getId());
+		assertEquals(2, first.getEventCount());
+	}
+
+	private Venue venue(String name) {
+		return venueService.findByNameContainingIgnoreCase(name).get(0);
+	}
+
+	private static Event event(String name, Venue venue) {
+		Event event = new Event();
+		event.setName(name);
+		event.setDate(LocalDate.now().plusDays(7));
+		event.setDescription("Description for " + name);
+		event.setVenue(venue);
+		return event;
+	}
+}
@@ -102,6 +102,21 @@ public class VenueServiceTest extends AbstractTransactionalJUnit4SpringContextTe
         verify(venueRepository, times(1)).save(venue);
     }
 
+    @Test
+    void testSaveLeavesGeocodingToTheWorker() {
+        Venue venue = new Venue();
+        venue.setName("Test Venue");
+        venue.setPostcode("M1 1AA");
+        venue.setRoadName("Test Road");
+        venue.setGeocodeState(Venue.GeocodeState.RESOLVED);
+        venue.setAddressChanged(true);
+
+        venueService.save(venue);
+
+        assertEquals(Venue.GeocodeState.PENDING, venue.getGeocodeState());
+        assertEquals(0.0, venue.getLatitude());
+    }
+
     @Test
     void testExistsByIdReturnsTrue() {
         long id = 1L;
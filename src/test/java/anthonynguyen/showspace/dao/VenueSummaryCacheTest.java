@@ -0,0 +1,102 @@
+package anthonynguyen.showspace.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import anthonynguyen.showspace.ShowSpaceApplication;
+import anthonynguyen.showspace.entities.Venue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ShowSpaceApplication.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+public class VenueSummaryCacheTest {
+
+	@Autowired
+	private VenueService venueService;
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private VenueGeocodingWorker geocodingWorker;
+
+	@Test
+	public void summariesMatchVenuesInNameOrder() {
+		List<VenueSummary> summaries = venueService.findSummaries();
+		List<Venue> venues = venueService.findAll();
+
+		assertEquals(venues.size(), summaries.size());
+		for (int i = 0; i < venues.size(); i++) {
+			assertEquals(venues.get(i).getId(), summaries.get(i).getId());
+			assertEquals(venues.get(i).getName(), summaries.get(i).getName());
+			assertEquals(venues.get(i).getLatitude(), summaries.get(i).getLatitude());
+		}
+	}
+
+	@Test
+	public void summariesAreCachedBetweenCalls() {
+		assertSame(venueService.findSummaries(), venueService.findSummaries());
+	}
+
+	@Test
+	public void savedVenueEvictsSummaries() {
+		List<VenueSummary> before = venueService.findSummaries();
+
+		venueService.save(venue("AAA NEW VENUE"));
+
+		List<VenueSummary> after = venueService.findSummaries();
+		assertNotSame(before, after);
+		assertEquals(before.size() + 1, after.size());
+		assertEquals("AAA NEW VENUE", after.get(0).getName());
+	}
+
+	@Test
+	public void deletedVenueEvictsSummaries() {
+		Venue venue = venue("DELETE ME");
+		venueService.save(venue);
+		int before = venueService.findSummaries().size();
+
+		venueService.deleteById(venue.getId());
+
+		assertEquals(before - 1, venueService.findSummaries().size());
+		assertTrue(venueService.findSummaries().stream().noneMatch(s -> s.getId() == venue.getId()));
+	}
+
+	@Test
+	public void geocodedVenueEvictsSummaries() {
+		// Saved without the service, so nothing else geocodes it first.
+		Venue venue = venueRepository.save(venue("GEOCODE ME"));
+		assertEquals(0.0, summary(venue.getId()).getLatitude());
+
+		geocodingWorker.geocode(List.of(venue.getId()));
+
+		assertTrue(summary(venue.getId()).getLatitude() != 0.0);
+	}
+
+	private VenueSummary summary(long id) {
+		return venueService.findSummaries().stream().filter(s -> s.getId() == id).findFirst().get();
+	}
+
+	private static Venue venue(String name) {
+		Venue venue = new Venue();
+		venue.setName(name);
+		venue.setRoadName("1 Oxford Road");
+		venue.setPostcode("M13 9PL");
+		venue.setCapacity(100);
+		return venue;
+	}
+}
@@ -0,0 +1,216 @@
+package anthonynguyen.showspace.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against a running instance, e.g. one started with
+ * SPRING_PROFILE=default,loadtest. Each worker sends the next request as soon
+ * as the last one returns, picking pages by weight, and the report gives
+ * throughput and p50/p95/p99 latency per page.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=anthonynguyen.showspace.loadtest.LoadDriver
+ * -Dexec.args="--url http://localhost:8080 --workers 16 --seconds 60"
+ */
+public class LoadDriver {
+
+	private static final String[] SEARCHES = { "jazz", "comedy night", "open mic", "festival", "techno",
+			"folk session", "quiz", "poetry" };
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5))
+			.followRedirects(HttpClient.Redirect.NEVER).build();
+
+	private final String baseUrl;
+	private final Map<String, Scenario> scenarios = new LinkedHashMap<>();
+	private int totalWeight;
+
+	private LoadDriver(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	private static class Scenario {
+		final int weight;
+		final Supplier<String> path;
+		final Latencies latencies = new Latencies();
+
+		Scenario(int weight, Supplier<String> path) {
+			this.weight = weight;
+			this.path = path;
+		}
+	}
+
+	/** Response times in microseconds, plus failures. */
+	private static class Latencies {
+		private long[] samples = new long[1024];
+		private int size;
+		private int errors;
+
+		synchronized void add(long micros, boolean ok) {
+			if (size == samples.length) {
+				samples = Arrays.copyOf(samples, size * 2);
+			}
+			samples[size++] = micros;
+			if (!ok) {
+				errors++;
+			}
+		}
+
+		synchronized long[] sorted() {
+			long[] copy = Arrays.copyOf(samples, size);
+			Arrays.sort(copy);
+			return copy;
+		}
+
+		synchronized int errors() {
+			return errors;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>(Map.of("--url", "http://localhost:8080", "--workers", "16",
+				"--seconds", "60", "--warmup", "10"));
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			options.put(args[i], args[i + 1]);
+		}
+
+		LoadDriver driver = new LoadDriver(options.get("--url").replaceAll("/+$", ""));
+		driver.prepare();
+
+		int workers = Integer.parseInt(options.get("--workers"));
+		int warmup = Integer.parseInt(options.get("--warmup"));
+		int seconds = Integer.parseInt(options.get("--seconds"));
+
+		System.out.println("Warming up for " + warmup + " s with " + workers + " workers");
+		driver.run(workers, warmup, false);
+		System.out.println("Measuring for " + seconds + " s");
+		driver.run(workers, seconds, true);
+		driver.report(seconds);
+	}
+
+	// Venue and event ids come from the API's self links, so any data set will do.
+	private void prepare() throws Exception {
+		List<Long> venueIds = ids(get("/api/venues?size=100").body(), "/api/venues/");
+		List<Long> eventIds = ids(get("/api/events?size=100").body(), "/api/events/");
+		if (venueIds.isEmpty() || eventIds.isEmpty()) {
+			throw new IllegalStateException("No venues or events at " + baseUrl + ", start it with the loadtest profile");
+		}
+
+		scenarios.put("/", new Scenario(20, () -> "/"));
+		scenarios.put("/events", new Scenario(15, () -> "/events"));
+		scenarios.put("/events?search=", new Scenario(15, () -> "/events?search=" + random(SEARCHES).replace(" ", "+")));
+		scenarios.put("/venues/{id}", new Scenario(15, () -> "/venues/" + random(venueIds)));
+		scenarios.put("/api/events", new Scenario(10, () -> "/api/events"));
+		scenarios.put("/api/events/{id}", new Scenario(10, () -> "/api/events/" + random(eventIds)));
+		scenarios.put("/api/venues", new Scenario(5, () -> "/api/venues"));
+		scenarios.put("/api/venues/{id}", new Scenario(5, () -> "/api/venues/" + random(venueIds)));
+		scenarios.put("/api/venues/geo", new Scenario(5, () -> "/api/venues/geo"));
+		totalWeight = scenarios.values().stream().mapToInt(s -> s.weight).sum();
+	}
+
+	private void run(int workers, int seconds, boolean record) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		for (int i = 0; i < workers; i++) {
+			pool.execute(() -> {
+				while (System.nanoTime() < deadline) {
+					Scenario scenario = pickScenario();
+					long start = System.nanoTime();
+					boolean ok;
+					try {
+						ok = get(scenario.path.get()).statusCode() < 400;
+					} catch (Exception e) {
+						ok = false;
+					}
+					if (record) {
+						scenario.latencies.add((System.nanoTime() - start) / 1000, ok);
+					}
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+	}
+
+	private void report(int seconds) {
+		System.out.println(String.format("%-20s %9s %7s %9s %9s %9s %9s %9s", "page", "requests", "errors", "req/s",
+				"p50 ms", "p95 ms", "p99 ms", "max ms"));
+		Latencies all = new Latencies();
+		for (Map.Entry<String, Scenario> entry : scenarios.entrySet()) {
+			Latencies latencies = entry.getValue().latencies;
+			long[] sorted = latencies.sorted();
+			for (long sample : sorted) {
+				all.add(sample, true);
+			}
+			all.errors += latencies.errors();
+			print(entry.getKey(), sorted, latencies.errors(), seconds);
+		}
+		print("total", all.sorted(), all.errors(), seconds);
+	}
+
+	private static void print(String name, long[] sorted, int errors, int seconds) {
+		System.out.println(String.format("%-20s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f", name, sorted.length, errors,
+				(double) sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.95),
+				percentile(sorted, 0.99), percentile(sorted, 1.0)));
+	}
+
+	// Nearest rank, in milliseconds.
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(p * sorted.length);
+		return sorted[Math.max(0, rank - 1)] / 1000.0;
+	}
+
+	private Scenario pickScenario() {
+		int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (Scenario scenario : scenarios.values()) {
+			ticket -= scenario.weight;
+			if (ticket < 0) {
+				return scenario;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+				.header("Accept", path.startsWith("/api") ? "application/json" : "text/html").GET().build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static List<Long> ids(String json, String path) {
+		Set<Long> ids = new LinkedHashSet<>();
+		Matcher matcher = Pattern.compile(Pattern.quote(path) + "(\\d+)\"").matcher(json);
+		while (matcher.find()) {
+			ids.add(Long.parseLong(matcher.group(1)));
+		}
+		return new ArrayList<>(ids);
+	}
+
+	private static <T> T random(List<T> values) {
+		return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+	}
+
+	private static String random(String[] values) {
+		return values[ThreadLocalRandom.current().nextInt(values.length)];
+	}
+}
@@ -0,0 +1,79 @@
+package anthonynguyen.showspace.testutil;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Bulk seeding for the JMH benchmarks and the tests that need a lot of rows.
+ *
+ * Rows are written with JDBC batches and ids well above anything the entity
+ * sequences hand out, so seeded data can sit alongside the TestDataLoader rows.
+ */
+public class BenchmarkData {
+
+	public static final long FIRST_ID = 1_000_000L;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final String VENUE_SQL = "INSERT INTO venues (id, name, roadName, postcode, capacity, latitude, longitude, addressChanged, geocodeState) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, 'RESOLVED')";
+	private static final String EVENT_SQL = "INSERT INTO events (id, name, description, date, time, venue_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbc;
+	private final Random random;
+
+	private long nextVenueId = FIRST_ID;
+	private long nextEventId = FIRST_ID;
+
+	public BenchmarkData(JdbcTemplate jdbc, long seed) {
+		this.jdbc = jdbc;
+		this.random = new Random(seed);
+	}
+
+	public void addVenues(int count) {
+		List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < count; i++) {
+			long id = nextVenueId++;
+			rows.add(new Object[] { id, "Benchmark Venue " + id, id + " Benchmark Road", "M1 1AA",
+					50 + random.nextInt(5000), 53.0 + random.nextDouble(), -2.5 + random.nextDouble() });
+			if (rows.size() == BATCH_SIZE) {
+				flush(VENUE_SQL, rows);
+			}
+		}
+		flush(VENUE_SQL, rows);
+	}
+
+	/**
+	 * Add events spread evenly over two years either side of today, each at a
+	 * random venue added by {@link #addVenues(int)}.
+	 */
+	public void addEvents(int count) {
+		int venues = (int) (nextVenueId - FIRST_ID);
+		LocalDate today = LocalDate.now();
+		List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < count; i++) {
+			long id = nextEventId++;
+			LocalDate date = today.plusDays(random.nextInt(1461) - 730);
+			LocalTime time = LocalTime.of(8 + random.nextInt(14), 15 * random.nextInt(4));
+			rows.add(new Object[] { id, "Benchmark Event " + id, "Description for benchmark event " + id,
+					Date.valueOf(date), Time.valueOf(time), FIRST_ID + random.nextInt(venues) });
+			if (rows.size() == BATCH_SIZE) {
+				flush(EVENT_SQL, rows);
+			}
+		}
+		flush(EVENT_SQL, rows);
+	}
+
+	private void flush(String sql, List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			jdbc.batchUpdate(sql, rows);
+			rows.clear();
+		}
+	}
+}
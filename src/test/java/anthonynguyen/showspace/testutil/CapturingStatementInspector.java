@@ -0,0 +1,35 @@
+package anthonynguyen.showspace.testutil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL Hibernate runs on the current thread between
+ * {@link #start()} and {@link #stop()}. Registered for every test context,
+ * it does nothing unless a test asks for it.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+	private static final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+	public static void start() {
+		captured.set(new ArrayList<>());
+	}
+
+	public static List<String> stop() {
+		List<String> statements = captured.get();
+		captured.remove();
+		return statements == null ? List.of() : statements;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		List<String> statements = captured.get();
+		if (statements != null) {
+			statements.add(sql);
+		}
+		return sql;
+	}
+}
@@ -0,0 +1,60 @@
+package anthonynguyen.showspace.testutil;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import anthonynguyen.showspace.dao.Geocoder;
+import anthonynguyen.showspace.exceptions.GeocodingException;
+
+/**
+ * Geocoder for tests: never leaves the JVM, and gives every address the same
+ * made-up coordinates each time. Addresses containing {@link #UNKNOWN_POSTCODE}
+ * aren't found, {@link #setFailing(boolean)} makes every lookup fail and
+ * {@link #setDelayMs(long)} makes every lookup slow.
+ */
+public class FakeGeocoder implements Geocoder {
+
+	public static final String UNKNOWN_POSTCODE = "ZZ99 9ZZ";
+
+	private final AtomicInteger lookups = new AtomicInteger();
+	private volatile boolean failing;
+	private volatile long delayMs;
+
+	@Override
+	public double[] geocode(String address) {
+		lookups.incrementAndGet();
+		if (delayMs > 0) {
+			try {
+				Thread.sleep(delayMs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (failing) {
+			throw new GeocodingException("Fake geocoder is down", null);
+		}
+		if (address.contains(UNKNOWN_POSTCODE)) {
+			return null;
+		}
+
+		int hash = address.hashCode();
+		return new double[] { 53.0 + (hash & 0xFFFF) / 65536.0, -2.5 + ((hash >>> 16) & 0xFFFF) / 65536.0 };
+	}
+
+	public int getLookups() {
+		return lookups.get();
+	}
+
+	public void setFailing(boolean failing) {
+		this.failing = failing;
+	}
+
+	public void setDelayMs(long delayMs) {
+		this.delayMs = delayMs;
+	}
+
+	public void reset() {
+		lookups.set(0);
+		failing = false;
+		delayMs = 0;
+	}
+}